@@ -8,4 +8,8 @@ public class TestCacheConfig extends CacheConfig {
     void configureRedis(String host, String password) {
         local();
     }
+
+    @Override
+    public void multiplexRedis(int connections) {
+    }
 }
@@ -1,6 +1,10 @@
 package core.framework.module;
 
+import core.framework.redis.BulkRedisStreamHandler;
 import core.framework.redis.Redis;
+import core.framework.redis.RedisMessageHandler;
+import core.framework.redis.RedisScript;
+import core.framework.redis.RedisStreamHandler;
 import core.framework.test.redis.MockRedis;
 
 import java.time.Duration;
@@ -18,6 +22,10 @@ public class TestRedisConfig extends RedisConfig {
     void setHost(String host) {
     }
 
+    @Override
+    void setCluster(String... hosts) {
+    }
+
     @Override
     public void password(String password) {
     }
@@ -29,4 +37,36 @@ public class TestRedisConfig extends RedisConfig {
     @Override
     public void timeout(Duration timeout) {
     }
+
+    @Override
+    public void multiplex(int connections) {
+    }
+
+    @Override
+    public void subscribe(String channel, RedisMessageHandler handler) {
+    }
+
+    @Override
+    public void consume(String stream, RedisStreamHandler handler) {
+    }
+
+    @Override
+    public void consume(String stream, BulkRedisStreamHandler handler) {
+    }
+
+    @Override
+    public void streamGroup(String group) {
+    }
+
+    @Override
+    public void streamConcurrency(int concurrency) {
+    }
+
+    @Override
+    public void script(RedisScript script) {
+    }
+
+    @Override
+    public void clientSideCache(int maxSize) {
+    }
 }
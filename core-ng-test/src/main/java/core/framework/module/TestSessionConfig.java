@@ -1,11 +1,16 @@
 package core.framework.module;
 
+import core.framework.internal.web.session.RedisSessionStore;
+import core.framework.test.redis.MockRedis;
+
 /**
  * @author neo
  */
 public class TestSessionConfig extends SessionConfig {
     @Override
     public void redis(String host) {
-        local();
+        var store = new RedisSessionStore(new MockRedis());
+        store.script = false;   // MockRedis doesn't run lua scripts
+        redisSessionStore(store);
     }
 }
@@ -5,11 +5,15 @@ import core.framework.redis.RedisAdmin;
 import core.framework.redis.RedisHash;
 import core.framework.redis.RedisHyperLogLog;
 import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
 import core.framework.redis.RedisSet;
 import core.framework.redis.RedisSortedSet;
+import core.framework.redis.RedisStream;
 import core.framework.util.Maps;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -26,6 +30,7 @@ public final class MockRedis implements Redis {
     private final MockRedisSortedSet sortedSet = new MockRedisSortedSet(store);
     private final MockRedisAdmin admin = new MockRedisAdmin();
     private final MockRedisHyperLogLog hyperLogLog = new MockRedisHyperLogLog(store);
+    private final MockRedisStream stream = new MockRedisStream(store);
 
     @Override
     public String get(String key) {
@@ -130,4 +135,23 @@ public final class MockRedis implements Redis {
     public RedisSortedSet sortedSet() {
         return sortedSet;
     }
+
+    @Override
+    public RedisStream stream() {
+        return stream;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+    }
+
+    @Override
+    public Object eval(RedisScript script, List<String> keys, Object... arguments) {
+        throw new Error("mock redis does not support lua script, please mock redis.eval() or test with real redis");
+    }
+
+    @Override
+    public RedisPipeline pipeline() {
+        return new MockRedisPipeline(this);
+    }
 }
@@ -7,6 +7,7 @@ import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -112,4 +113,18 @@ public final class MockRedisHash implements RedisHash {
             hashValue.expirationTime = now + duration.toMillis();
         }
     }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<Map<String, String>> consumer) {
+        assertThat(batchSize).isGreaterThan(0);
+        Map<String, String> batch = new HashMap<>();
+        for (Map.Entry<String, String> entry : getAll(key).entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == batchSize) {
+                consumer.accept(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) consumer.accept(batch);
+    }
 }
@@ -5,6 +5,7 @@ import core.framework.redis.RedisSortedSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -115,4 +116,18 @@ public class MockRedisSortedSet implements RedisSortedSet {
         }
         return removedValues;
     }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<Map<String, Long>> consumer) {
+        assertThat(batchSize).isGreaterThan(0);
+        Map<String, Long> batch = new LinkedHashMap<>();
+        for (Entry<String, Long> entry : range(key).entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == batchSize) {
+                consumer.accept(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) consumer.accept(batch);
+    }
 }
@@ -5,6 +5,7 @@ import core.framework.util.Maps;
 import java.io.Serial;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -76,6 +77,13 @@ class MockRedisStore {
             return (HyperLogLog) value;
         }
 
+        @SuppressWarnings("PMD.LooseCoupling")
+            // intentional design
+        Stream stream() {
+            assertThat(value).isInstanceOf(Stream.class);
+            return (Stream) value;
+        }
+
         boolean expired(long now) {
             return expirationTime != null && now >= expirationTime;
         }
@@ -105,4 +113,22 @@ class MockRedisStore {
         @Serial
         private static final long serialVersionUID = -4584074052672348286L;
     }
+
+    static class Stream extends LinkedHashMap<String, Map<String, String>> {  // Map<id, fields>
+        @Serial
+        private static final long serialVersionUID = 6025380457293315820L;
+        private long lastTime;
+        private long lastSequence;
+
+        // id is in format of "${timestampInMs}-${sequence}", and must be increasing
+        String nextId(long now) {
+            if (now > lastTime) {
+                lastTime = now;
+                lastSequence = 0;
+            } else {
+                lastSequence++;
+            }
+            return lastTime + "-" + lastSequence;
+        }
+    }
 }
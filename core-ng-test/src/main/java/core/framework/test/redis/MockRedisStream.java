@@ -0,0 +1,61 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisStream;
+import core.framework.test.redis.MockRedisStore.Value;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+public final class MockRedisStream implements RedisStream {
+    private final MockRedisStore store;
+
+    MockRedisStream(MockRedisStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public String add(String key, Map<String, String> fields, long maxLength) {
+        assertThat(fields).isNotEmpty();
+        assertThat(maxLength).isNotZero().isGreaterThanOrEqualTo(-1);
+        var stream = store.putIfAbsent(key, new MockRedisStore.Stream()).stream();
+        synchronized (stream) {
+            String id = stream.nextId(System.currentTimeMillis());
+            stream.put(id, new LinkedHashMap<>(fields));
+            if (maxLength > 0) {
+                Iterator<String> iterator = stream.keySet().iterator();
+                while (stream.size() > maxLength) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            return id;
+        }
+    }
+
+    @Override
+    public long length(String key) {
+        Value value = store.get(key);
+        if (value == null) return 0;
+        return value.stream().size();
+    }
+
+    // mock doesn't track consumer groups, all existing entries are treated as pending
+    @Override
+    public long acknowledge(String key, String group, String... ids) {
+        assertThat(ids).isNotEmpty().doesNotContainNull();
+        Value value = store.get(key);
+        if (value == null) return 0;
+        var stream = value.stream();
+        long acknowledged = 0;
+        for (String id : ids) {
+            if (stream.containsKey(id)) acknowledged++;
+        }
+        return acknowledged;
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -68,4 +70,15 @@ class MockRedisHashTest {
         redis.hash().expire("key1", "field1", Duration.ZERO);
         assertThat(redis.hash().get("key1", "field1")).isNull();
     }
+
+    @Test
+    void forEach() {
+        redis.hash().multiSet("key5", Map.of("field1", "value1", "field2", "value2", "field3", "value3"));
+
+        List<Map<String, String>> batches = new ArrayList<>();
+        redis.hash().forEach("key5", 2, batches::add);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).hasSize(2);
+        assertThat(batches.get(1)).hasSize(1);
+    }
 }
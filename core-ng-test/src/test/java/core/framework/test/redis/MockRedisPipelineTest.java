@@ -0,0 +1,44 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class MockRedisPipelineTest {
+    private MockRedis redis;
+
+    @BeforeEach
+    void createMockRedis() {
+        redis = new MockRedis();
+    }
+
+    @Test
+    void execute() {
+        redis.set("key1", "value1");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("key1");
+        pipeline.set("key2", "value2", Duration.ofMinutes(1));
+        Supplier<Long> count = pipeline.increaseBy("key3", 2);
+        pipeline.hashSet("key4", "field", "value");
+        Supplier<Map<String, String>> hash = pipeline.hashGetAll("key4");
+
+        assertThatThrownBy(value::get).hasMessageContaining("pipeline is not executed");
+        pipeline.execute();
+
+        assertThat(value.get()).isEqualTo("value1");
+        assertThat(count.get()).isEqualTo(2);
+        assertThat(hash.get()).containsOnly(entry("field", "value"));
+        assertThat(redis.get("key2")).isEqualTo("value2");
+    }
+}
@@ -3,6 +3,10 @@ package core.framework.test.redis;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -63,4 +67,19 @@ class MockRedisSetTest {
         redis.set().pop("key10", 1);
         assertThat(redis.set().size("key10")).isEqualTo(1);
     }
+
+    @Test
+    void forEach() {
+        redis.set().add("key8", "value1", "value2", "value3");
+
+        List<Set<String>> batches = new ArrayList<>();
+        redis.set().forEach("key8", 2, batches::add);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).hasSize(2);
+        assertThat(batches.get(1)).hasSize(1);
+
+        batches.clear();
+        redis.set().forEach("not-existed-key", 2, batches::add);
+        assertThat(batches).isEmpty();
+    }
 }
@@ -4,6 +4,7 @@ import core.framework.redis.RedisSortedSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -133,4 +134,13 @@ class MockRedisSortedSetTest {
         assertThat(sortedSet.popMin("key")).isEqualTo("1");
         assertThat(sortedSet.popMin("key")).isNull();
     }
+
+    @Test
+    void forEach() {
+        sortedSet.add("key9", Map.of("value1", 1L, "value2", 2L, "value3", 3L), false);
+
+        List<Map<String, Long>> batches = new ArrayList<>();
+        sortedSet.forEach("key9", 2, batches::add);
+        assertThat(batches).containsExactly(Map.of("value1", 1L, "value2", 2L), Map.of("value3", 3L));
+    }
 }
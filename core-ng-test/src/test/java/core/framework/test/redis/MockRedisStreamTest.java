@@ -0,0 +1,52 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class MockRedisStreamTest {
+    private RedisStream stream;
+
+    @BeforeEach
+    void createMockRedisStream() {
+        stream = new MockRedis().stream();
+    }
+
+    @Test
+    void add() {
+        String id1 = stream.add("stream", Map.of("field", "value1"));
+        String id2 = stream.add("stream", Map.of("field", "value2"));
+
+        assertThat(id1).isNotEqualTo(id2).matches("\\d+-\\d+");
+        assertThat(stream.length("stream")).isEqualTo(2);
+    }
+
+    @Test
+    void addWithMaxLength() {
+        stream.add("stream", Map.of("field", "value1"), 2);
+        stream.add("stream", Map.of("field", "value2"), 2);
+        stream.add("stream", Map.of("field", "value3"), 2);
+
+        assertThat(stream.length("stream")).isEqualTo(2);
+    }
+
+    @Test
+    void length() {
+        assertThat(stream.length("stream")).isZero();
+    }
+
+    @Test
+    void acknowledge() {
+        String id = stream.add("stream", Map.of("field", "value"));
+
+        assertThat(stream.acknowledge("stream", "group", id, "0-1")).isEqualTo(1);
+        assertThat(stream.acknowledge("notExisted", "group", id)).isZero();
+    }
+}
@@ -25,6 +25,7 @@ class SessionIntegrationTest extends IntegrationTest {
     @BeforeEach
     void createRedisSessionStore() {
         store = new RedisSessionStore(new MockRedis());
+        store.script = false;
     }
 
     @Test
@@ -40,6 +41,19 @@ class SessionIntegrationTest extends IntegrationTest {
         assertThat(store.getAndRefresh("session3", "localhost", Duration.ofMinutes(30))).containsEntry("key", "v2");
     }
 
+    @Test
+    void invalidateByIndex() {
+        store.index("key");
+        store.save("session1", "localhost", Map.of("key", "v1"), Set.of("key"), Duration.ofMinutes(30));
+        store.save("session2", "localhost", Map.of("key", "v1"), Set.of("key"), Duration.ofMinutes(30));
+        store.save("session2", "localhost", Map.of("key", "v2"), Set.of("key"), Duration.ofMinutes(30));
+
+        store.invalidateByKey("key", "v1");
+
+        assertThat(store.getAndRefresh("session1", "localhost", Duration.ofMinutes(30))).isNull();
+        assertThat(store.getAndRefresh("session2", "localhost", Duration.ofMinutes(30))).containsEntry("key", "v2");
+    }
+
     @Test
     void sessionContext() {  // check session context is registered
         assertThat(sessionContext).isNotNull();
@@ -8,12 +8,15 @@ import java.util.function.Function;
  * @author neo
  */
 public interface Cache<T> {
-    // loader must not return null, use wrapper class if it is necessary to cache null value
+    // loader must not return null, use wrapper class if it is necessary to cache null value, or configure cacheStoreConfig.cacheAbsent() to return null for absent key
     // for performance reason, it does not copy the object returned by local cache, so it must not modify local cache object unless to put it back
     T get(String key, Function<String, T> loader);
 
     Map<String, T> getAll(Collection<String> keys, Function<String, T> loader);
 
+    // loader is called once with all missing keys, e.g. to load by one "IN (...)" query, it must return value for every key passed in
+    Map<String, T> getAllInBatch(Collection<String> keys, Function<Collection<String>, Map<String, T>> loader);
+
     void put(String key, T value);
 
     void putAll(Map<String, T> values);
@@ -20,6 +20,15 @@ public final class Hash {
         return md5Hex(Strings.bytes(value));
     }
 
+    // sha1 is not considered as secure algorithm either, only used as checksum, like redis script sha
+    public static String sha1Hex(byte[] value) {
+        return hash(value, "SHA-1");
+    }
+
+    public static String sha1Hex(String value) {
+        return sha1Hex(Strings.bytes(value));
+    }
+
     public static String sha256Hex(byte[] value) {
         return hash(value, "SHA-256");
     }
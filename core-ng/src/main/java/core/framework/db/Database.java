@@ -5,6 +5,7 @@ import core.framework.internal.log.LogManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -30,10 +31,34 @@ public interface Database {
         }
     }
 
+    /**
+     * with read replicas, reads outside transaction go to replica, which may lag behind primary,
+     * for reads must see writes just made, e.g. read after create, route to primary then switch back<p>
+     * e.g.
+     * <blockquote><pre>
+     * Database.readFromPrimary(true);
+     * repository.get(id);
+     * Database.readFromPrimary(false);
+     * </pre></blockquote>
+     *
+     * @param primary whether route reads of current action to primary
+     */
+    static void readFromPrimary(boolean primary) {
+        // put in action log to reset for every action
+        ActionLog actionLog = LogManager.CURRENT_ACTION_LOG.get();
+        if (actionLog != null) {
+            actionLog.readFromPrimaryDB = primary;
+        }
+    }
+
     <T> List<T> select(String sql, Class<T> viewClass, Object... params);
 
     <T> Optional<T> selectOne(String sql, Class<T> viewClass, Object... params);
 
+    // stream rows to consumer with db cursor, to process large result with constant memory, e.g. export or reconciliation,
+    // with mysql, rows are streamed on the connection, so within transaction, consumer must not access db until forEach returns
+    <T> void forEach(String sql, Class<T> viewClass, Consumer<T> consumer, Object... params);
+
     int execute(String sql, Object... params);
 
     // for bulk update operations, you may want to enclose it with Transaction to improve performance
@@ -2,6 +2,7 @@ package core.framework.db;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -17,10 +18,19 @@ public interface Query<T> {
 
     void limit(Integer limit);  // pass null to reset limit
 
+    // keyset pagination, seek to rows after lastKey in order of orderBy, pass sort column values of last row of previous page,
+    // e.g. orderBy("created_time DESC, id DESC") and after(last.createdTime, last.id), sort columns must be not null and unique together,
+    // condition is built on fetch with current orderBy, must not be used with skip,
+    // unlike skip, each page costs one index seek regardless of depth, pass null to reset
+    void after(Object... lastKey);
+
     List<T> fetch();
 
     Optional<T> fetchOne();
 
+    // stream matched rows instead of loading all into list, refer to Database.forEach
+    void forEach(Consumer<T> consumer);
+
     <P> List<P> project(String projection, Class<P> viewClass);
 
     <P> Optional<P> projectOne(String projection, Class<P> viewClass);
@@ -1,8 +1,11 @@
 package core.framework.db;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * @author neo
@@ -28,8 +31,29 @@ public interface Repository<T> {
         return query.fetchOne();
     }
 
+    // iterate rows matched by query page by page with keyset pagination, query must have orderBy on unique columns, sortKey returns sort column values of row,
+    // e.g. forEachPage(query, 1000, entity -> new Object[]{entity.createdTime, entity.id}, page -> process(page)), skip of query is reset as pages are seeked by sort key
+    default void forEachPage(Query<T> query, int pageSize, Function<T, Object[]> sortKey, Consumer<List<T>> consumer) {
+        query.skip(null);
+        query.after((Object[]) null);
+        query.limit(pageSize);
+        while (true) {
+            List<T> page = query.fetch();
+            if (page.isEmpty()) return;
+            consumer.accept(page);
+            if (page.size() < pageSize) return;
+            query.after(sortKey.apply(page.getLast()));
+        }
+    }
+
     Optional<T> get(Object... primaryKeys);
 
+    // get entities by primary keys with "IN" query, one query for every 1000 keys, composite key is passed as Object[],
+    // return map keyed by primary key values read from entities, keys not found are not included,
+    // to look up map with passed keys, key must be same type as primary key field, e.g. Integer not Long for Integer id,
+    // and composite key must be looked up by List of key values in order of fields, e.g. map.get(Arrays.asList(key))
+    Map<Object, T> getAll(List<?> primaryKeys);
+
     OptionalLong insert(T entity);
 
     // refer to https://dev.mysql.com/doc/refman/8.0/en/insert.html
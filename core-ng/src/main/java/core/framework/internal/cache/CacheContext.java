@@ -5,6 +5,8 @@ import core.framework.internal.json.JSONReader;
 import core.framework.internal.json.JSONWriter;
 import core.framework.internal.validate.Validator;
 
+import java.time.Duration;
+
 /**
  * @author neo
  */
@@ -14,8 +16,11 @@ public class CacheContext<T> {
     // only validate when retrieve cache from store, in case data in cache store is stale, e.g. the class structure is changed but still got old data from cache
     // it's opposite as DB, which only validate on save
     final Validator<T> validator;
+    final Duration duration;
+    int compressionThreshold = -1;     // in bytes, -1 means not to compress
 
-    CacheContext(Class<T> cacheClass) {
+    CacheContext(Class<T> cacheClass, Duration duration) {
+        this.duration = duration;
         reader = JSONMapper.reader(cacheClass);
         writer = JSONMapper.writer(cacheClass);
         validator = Validator.of(cacheClass);
@@ -1,5 +1,6 @@
 package core.framework.internal.cache;
 
+import core.framework.async.Executor;
 import core.framework.cache.Cache;
 import core.framework.internal.log.ActionLog;
 import core.framework.internal.log.LogManager;
@@ -13,8 +14,15 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
+import static core.framework.log.Markers.errorCode;
+
 /**
  * @author neo
  */
@@ -24,39 +32,142 @@ public class CacheImpl<T> implements Cache<T> {
     public final Duration duration;
 
     final CacheContext<T> context;
+    // concurrent misses of same key wait for the one in-flight load, to avoid stampede on hot key expiration
+    final Map<String, CompletableFuture<T>> loadings = new ConcurrentHashMap<>();
+    long maxLoadWaitInMs = 10_000;   // waiter loads by itself if in-flight loading takes longer, e.g. loader hangs on slow db
     private final Logger logger = LoggerFactory.getLogger(CacheImpl.class);
 
     public CacheStore cacheStore;
+    private Executor executor;
+    private long refreshAheadTTLInMs = -1;  // refresh async once remaining ttl is less than this
+    private Duration absentDuration;        // cache absent marker if loader returns null, only when configured
 
     public CacheImpl(String name, Class<T> cacheClass, Duration duration) {
         this.name = name;
         this.cacheClass = cacheClass;
         this.duration = duration;
-        context = new CacheContext<>(cacheClass);
+        context = new CacheContext<>(cacheClass, duration);
     }
 
     @Override
     public T get(String key, Function<String, T> loader) {
         String cacheKey = cacheKey(key);
+        if (executor != null) return getWithRefreshAhead(key, cacheKey, loader);
+
         T cacheValue = cacheStore.get(cacheKey, context);
+        if (cacheValue == CacheStore.ABSENT) {
+            stat("cache_absent_hits", 1);
+            return null;
+        }
         if (cacheValue != null) {
             stat("cache_hits", 1);
             return cacheValue;
         }
+        return loadOnce(key, cacheKey, loader);
+    }
 
-        logger.debug("load value, key={}", key);
-        T value = load(loader, key);
-        cacheStore.put(cacheKey, value, duration, context);
-        stat("cache_misses", 1);
-        return value;
+    private T getWithRefreshAhead(String key, String cacheKey, Function<String, T> loader) {
+        CacheStore.Expirable<T> cacheValue = cacheStore.getExpirable(cacheKey, context);
+        if (cacheValue != null && cacheValue.value() == CacheStore.ABSENT) {
+            stat("cache_absent_hits", 1);
+            return null;
+        }
+        if (cacheValue != null) {
+            stat("cache_hits", 1);
+            if (cacheValue.expirationTime() - System.currentTimeMillis() < refreshAheadTTLInMs) {
+                refresh(key, cacheKey, loader);
+            }
+            return cacheValue.value();
+        }
+        return loadOnce(key, cacheKey, loader);
+    }
+
+    private T loadOnce(String key, String cacheKey, Function<String, T> loader) {
+        var loading = new CompletableFuture<T>();
+        CompletableFuture<T> inflightLoading = loadings.putIfAbsent(cacheKey, loading);
+        if (inflightLoading != null) {
+            logger.debug("wait for in-flight loading, key={}", key);
+            stat("cache_load_waits", 1);
+            try {
+                return await(inflightLoading);
+            } catch (TimeoutException e) {
+                logger.warn(errorCode("CACHE_LOAD_TIMEOUT"), "in-flight loading timed out, load value directly, key={}, maxWait={}ms", key, maxLoadWaitInMs);
+                stat("cache_load_wait_timeouts", 1);
+                T value = load(loader, key);
+                store(cacheKey, value);
+                return value;
+            }
+        }
+        try {
+            logger.debug("load value, key={}", key);
+            T value = load(loader, key);
+            store(cacheKey, value);
+            stat("cache_misses", 1);
+            loading.complete(value);
+            return value;
+        } catch (Throwable e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    private void refresh(String key, String cacheKey, Function<String, T> loader) {
+        var loading = new CompletableFuture<T>();
+        if (loadings.putIfAbsent(cacheKey, loading) != null) return;   // already loading or refreshing
+        logger.debug("refresh ahead, key={}", key);
+        stat("cache_refreshes", 1);
+        executor.submit("refreshCache", () -> {
+            try {
+                T value = load(loader, key);
+                store(cacheKey, value);
+                loading.complete(value);
+            } catch (Throwable e) {
+                loading.completeExceptionally(e);
+                throw e;
+            } finally {
+                loadings.remove(cacheKey, loading);
+            }
+        });
+    }
+
+    private T await(CompletableFuture<T> loading) throws TimeoutException {
+        try {
+            return loading.get(maxLoadWaitInMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException exception) throw exception;
+            if (cause instanceof Error error) throw error;
+            throw new Error(cause);
+        } catch (InterruptedException e) {
+            throw new Error("interrupted during waiting for in-flight loading", e);
+        }
     }
 
     public Optional<T> get(String key) {
         T result = cacheStore.get(cacheKey(key), context);
-        if (result == null) return Optional.empty();
+        if (result == null || result == CacheStore.ABSENT) return Optional.empty();
         return Optional.of(result);
     }
 
+    // reload entry in background once it passed ratio of duration, so readers don't block on expiration
+    public void refreshAhead(Executor executor, double ratio) {
+        if (ratio <= 0 || ratio >= 1) throw new Error("refresh ahead ratio must be between 0 and 1, ratio=" + ratio);
+        this.executor = executor;
+        refreshAheadTTLInMs = (long) (duration.toMillis() * (1 - ratio));
+    }
+
+    // cache absent marker with shorter duration when loader returns null, to avoid hitting db for not existed keys repeatedly
+    public void cacheAbsent(Duration duration) {
+        absentDuration = duration;
+    }
+
+    public void compress(int thresholdInBytes) {
+        if (thresholdInBytes <= 0) throw new Error("compression threshold must be greater than 0, threshold=" + thresholdInBytes);
+        context.compressionThreshold = thresholdInBytes;
+    }
+
     @Override
     public Map<String, T> getAll(Collection<String> keys, Function<String, T> loader) {
         int size = keys.size();
@@ -65,21 +176,63 @@ public class CacheImpl<T> implements Cache<T> {
         Map<String, T> values = Maps.newHashMapWithExpectedSize(size);
         List<CacheStore.Entry<T>> newValues = new ArrayList<>(size);
         Map<String, T> cacheValues = cacheStore.getAll(cacheKeys, context);
-        stat("cache_hits", cacheValues.size());
+        int absentHits = 0;
         for (String key : keys) {
             String cacheKey = cacheKeys[index];
             T result = cacheValues.get(cacheKey);
-            if (result == null) {
+            if (result == CacheStore.ABSENT) {
+                absentHits++;
+            } else if (result == null) {
                 logger.debug("load value, key={}", key);
                 result = load(loader, key);
                 newValues.add(new CacheStore.Entry<>(cacheKey, result));
+                if (result != null) values.put(key, result);
+            } else {
+                values.put(key, result);
             }
-            values.put(key, result);
             index++;
         }
-        if (!newValues.isEmpty()) {
-            cacheStore.putAll(newValues, duration, context);
-            stat("cache_misses", newValues.size());
+        stat("cache_hits", cacheValues.size() - absentHits);
+        if (absentHits > 0) stat("cache_absent_hits", absentHits);
+        storeAll(newValues);
+        return values;
+    }
+
+    @Override
+    public Map<String, T> getAllInBatch(Collection<String> keys, Function<Collection<String>, Map<String, T>> loader) {
+        int size = keys.size();
+        int index = 0;
+        String[] cacheKeys = cacheKeys(keys);
+        Map<String, T> values = Maps.newHashMapWithExpectedSize(size);
+        Map<String, String> missingKeys = Maps.newLinkedHashMap();     // key -> cacheKey
+        Map<String, T> cacheValues = cacheStore.getAll(cacheKeys, context);
+        int absentHits = 0;
+        for (String key : keys) {
+            String cacheKey = cacheKeys[index];
+            T result = cacheValues.get(cacheKey);
+            if (result == CacheStore.ABSENT) {
+                absentHits++;
+            } else if (result == null) {
+                missingKeys.put(key, cacheKey);
+            } else {
+                values.put(key, result);
+            }
+            index++;
+        }
+        stat("cache_hits", cacheValues.size() - absentHits);
+        if (absentHits > 0) stat("cache_absent_hits", absentHits);
+        if (!missingKeys.isEmpty()) {
+            logger.debug("load values, keys={}", missingKeys.keySet());
+            Map<String, T> loadedValues = loader.apply(missingKeys.keySet());
+            List<CacheStore.Entry<T>> newValues = new ArrayList<>(missingKeys.size());
+            for (Map.Entry<String, String> entry : missingKeys.entrySet()) {
+                String key = entry.getKey();
+                T result = loadedValues == null ? null : loadedValues.get(key);
+                if (result == null && absentDuration == null) throw new Error("value must not be null, key=" + key);
+                newValues.add(new CacheStore.Entry<>(entry.getValue(), result));
+                if (result != null) values.put(key, result);
+            }
+            storeAll(newValues);
         }
         return values;
     }
@@ -125,10 +278,34 @@ public class CacheImpl<T> implements Cache<T> {
 
     private T load(Function<String, T> loader, String key) {
         T value = loader.apply(key);
-        if (value == null) throw new Error("value must not be null, key=" + key);
+        if (value == null && absentDuration == null) throw new Error("value must not be null, key=" + key);
         return value;
     }
 
+    // value is null only if cacheAbsent is configured
+    private void store(String cacheKey, T value) {
+        if (value == null) cacheStore.put(cacheKey, absent(), absentDuration, context);
+        else cacheStore.put(cacheKey, value, duration, context);
+    }
+
+    private void storeAll(List<CacheStore.Entry<T>> newValues) {
+        if (newValues.isEmpty()) return;
+        List<CacheStore.Entry<T>> values = new ArrayList<>(newValues.size());
+        List<CacheStore.Entry<T>> absentValues = new ArrayList<>();
+        for (CacheStore.Entry<T> value : newValues) {
+            if (value.value() == null) absentValues.add(new CacheStore.Entry<>(value.key(), absent()));
+            else values.add(value);
+        }
+        if (!values.isEmpty()) cacheStore.putAll(values, duration, context);
+        if (!absentValues.isEmpty()) cacheStore.putAll(absentValues, absentDuration, context);
+        stat("cache_misses", newValues.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private T absent() {
+        return (T) CacheStore.ABSENT;
+    }
+
     // set to actionLog directly to keep trace log concise
     private void stat(String key, double value) {
         ActionLog actionLog = LogManager.CURRENT_ACTION_LOG.get();
@@ -1,5 +1,6 @@
 package core.framework.internal.cache;
 
+import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -8,8 +9,15 @@ import java.util.Map;
  * @author neo
  */
 public interface CacheStore {   // all keys here are direct cacheKey, not the key passed to Cache<T>
+    // marker of absent value, put/returned as T when cacheAbsent is configured, compared by reference
+    Object ABSENT = new Object();
+
     <T> T get(String key, CacheContext<T> context);
 
+    // used by refresh ahead, to get value with expiration time in one lookup
+    @Nullable
+    <T> Expirable<T> getExpirable(String key, CacheContext<T> context);
+
     <T> Map<String, T> getAll(String[] keys, CacheContext<T> context);
 
     <T> void put(String key, T value, Duration expiration, CacheContext<T> context);
@@ -20,4 +28,7 @@ public interface CacheStore {   // all keys here are direct cacheKey, not the ke
 
     record Entry<T>(String key, T value) {
     }
+
+    record Expirable<T>(T value, long expirationTime) {    // expirationTime is epoch millis
+    }
 }
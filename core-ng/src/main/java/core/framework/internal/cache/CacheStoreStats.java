@@ -0,0 +1,44 @@
+package core.framework.internal.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author neo
+ */
+public final class CacheStoreStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long collectedHits;     // only accessed by stat collector thread
+    private long collectedMisses;
+
+    void hit(int count) {
+        if (count > 0) hits.add(count);
+    }
+
+    void miss(int count) {
+        if (count > 0) misses.add(count);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    // metrics only reports changes since last collection, /_sys/cache reports total
+    long collectHits() {
+        long current = hits.sum();
+        long previous = collectedHits;
+        collectedHits = current;
+        return current - previous;
+    }
+
+    long collectMisses() {
+        long current = misses.sum();
+        long previous = collectedMisses;
+        collectedMisses = current;
+        return current - previous;
+    }
+}
@@ -0,0 +1,100 @@
+package core.framework.internal.cache;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * value is stored as plain json if it's smaller than threshold, otherwise deflated with header,
+ * json value always starts with '{', so header starts with 0 to tell formats apart, and old json entries still can be read during rollout,
+ * absent marker of negative caching is encoded as 2 bytes header only
+ *
+ * @author neo
+ */
+final class CacheValueCodec {
+    static final byte MAGIC = 0;
+    static final byte FORMAT_DEFLATE = 1;
+    static final byte FORMAT_ABSENT = 2;
+    static final int HEADER_LENGTH = 6;     // magic, format, original length in 4 bytes
+
+    static byte[] absent() {
+        return new byte[]{MAGIC, FORMAT_ABSENT};
+    }
+
+    static boolean absent(byte[] value) {
+        return absent(value, 0, value.length);
+    }
+
+    static boolean absent(byte[] buffer, int offset, int length) {
+        return length == 2 && buffer[offset] == MAGIC && buffer[offset + 1] == FORMAT_ABSENT;
+    }
+
+    static boolean plain(byte[] buffer, int offset, int length) {
+        return length == 0 || buffer[offset] != MAGIC;
+    }
+
+    static byte[] encode(byte[] json, int compressionThreshold) {
+        if (compressionThreshold < 0 || json.length < compressionThreshold) return json;
+
+        var deflater = new Deflater(Deflater.BEST_SPEED, true);     // prefer speed, cache value is read much more than written
+        try {
+            deflater.setInput(json);
+            deflater.finish();
+            byte[] buffer = new byte[json.length];      // only keep compressed value if it's smaller than json
+            int length = HEADER_LENGTH;
+            while (!deflater.finished()) {
+                if (length >= buffer.length) return json;   // not compressible
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            buffer[0] = MAGIC;
+            buffer[1] = FORMAT_DEFLATE;
+            writeInt(buffer, 2, json.length);
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] decode(byte[] value) throws IOException {
+        if (plain(value, 0, value.length)) return value;
+        return inflate(value, 0, value.length);
+    }
+
+    // inflate value within range of buffer, e.g. read buffer of redis connection
+    static byte[] inflate(byte[] buffer, int offset, int valueLength) throws IOException {
+        if (valueLength < HEADER_LENGTH || buffer[offset + 1] != FORMAT_DEFLATE) throw new IOException("unknown cache value format");
+
+        int length = readInt(buffer, offset + 2);
+        if (length < 0) throw new IOException("invalid cache value length, length=" + length);
+        var inflater = new Inflater(true);
+        try {
+            inflater.setInput(buffer, offset + HEADER_LENGTH, valueLength - HEADER_LENGTH);
+            byte[] result = new byte[length];
+            int position = 0;
+            while (position < length) {
+                int inflated = inflater.inflate(result, position, length - position);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) throw new IOException("cache value is truncated");
+                position += inflated;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("failed to inflate cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] buffer, int offset) {
+        return (buffer[offset] & 0xFF) << 24 | (buffer[offset + 1] & 0xFF) << 16 | (buffer[offset + 2] & 0xFF) << 8 | buffer[offset + 3] & 0xFF;
+    }
+}
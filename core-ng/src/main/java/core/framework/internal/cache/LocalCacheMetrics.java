@@ -8,6 +8,7 @@ import core.framework.internal.stat.Stats;
  */
 public class LocalCacheMetrics implements Metrics {
     private final LocalCacheStore cacheStore;
+    public RedisCacheStore redisCacheStore;     // only set when near cache is used, to report hits/misses of redis tier
 
     public LocalCacheMetrics(LocalCacheStore cacheStore) {
         this.cacheStore = cacheStore;
@@ -16,5 +17,11 @@ public class LocalCacheMetrics implements Metrics {
     @Override
     public void collect(Stats stats) {
         stats.put("cache_size", cacheStore.caches.size());
+        stats.put("cache_local_hits", cacheStore.stats.collectHits());
+        stats.put("cache_local_misses", cacheStore.stats.collectMisses());
+        if (redisCacheStore != null) {
+            stats.put("cache_redis_hits", redisCacheStore.stats.collectHits());
+            stats.put("cache_redis_misses", redisCacheStore.stats.collectMisses());
+        }
     }
 }
@@ -8,13 +8,20 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author neo
  */
 public class LocalCacheStore implements CacheStore {
+    public final CacheStoreStats stats = new CacheStoreStats();
     final Map<String, CacheItem<?>> caches = Maps.newConcurrentHashMap();
+    final Queue<CacheItem<?>> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger evictionQueueSize = new AtomicInteger();   // ConcurrentLinkedQueue.size() is O(n)
+    private final ReentrantLock evictionLock = new ReentrantLock();
     private final Logger logger = LoggerFactory.getLogger(LocalCacheStore.class);
     public int maxSize = 10000;  // 10000 simple objects roughly takes 1M-10M heap + hashmap overhead
 
@@ -24,16 +31,34 @@ public class LocalCacheStore implements CacheStore {
         return get(key, System.currentTimeMillis());
     }
 
+    @Override
+    public <T> Expirable<T> getExpirable(String key, CacheContext<T> context) {
+        logger.debug("getExpirable, key={}", key);
+        CacheItem<T> item = item(key, System.currentTimeMillis());
+        if (item == null) return null;
+        return new Expirable<>(item.value, item.expirationTime);
+    }
+
     private <T> T get(String key, long now) {
+        CacheItem<T> item = item(key, now);
+        return item == null ? null : item.value;
+    }
+
+    private <T> CacheItem<T> item(String key, long now) {
         @SuppressWarnings("unchecked")
         CacheItem<T> item = (CacheItem<T>) caches.get(key);
-        if (item == null) return null;
+        if (item == null) {
+            stats.miss(1);
+            return null;
+        }
         if (item.expired(now)) {
             caches.remove(key);
+            stats.miss(1);
             return null;
         }
         item.hits++;
-        return item.value;
+        stats.hit(1);
+        return item;
     }
 
     @Override
@@ -52,7 +77,8 @@ public class LocalCacheStore implements CacheStore {
     public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
         logger.debug("put, key={}, expiration={}", key, expiration);
         long expirationTime = System.currentTimeMillis() + expiration.toMillis();
-        caches.put(key, new CacheItem<>(value, expirationTime));
+        put(new CacheItem<>(key, value, expirationTime));
+        evictIfNeeded();
     }
 
     @Override
@@ -60,8 +86,15 @@ public class LocalCacheStore implements CacheStore {
         logger.debug("putAll, keys={}, expiration={}", new ArrayLogParam(keys(values)), expiration);
         long expirationTime = System.currentTimeMillis() + expiration.toMillis();
         for (Entry<T> value : values) {
-            caches.put(value.key(), new CacheItem<>(value.value(), expirationTime));
+            put(new CacheItem<>(value.key(), value.value(), expirationTime));
         }
+        evictIfNeeded();
+    }
+
+    private void put(CacheItem<?> item) {
+        caches.put(item.key, item);
+        evictionQueue.offer(item);  // replaced item stays in queue, and will be discarded when clock hand reaches it
+        evictionQueueSize.incrementAndGet();
     }
 
     private <T> String[] keys(List<Entry<T>> values) {
@@ -85,51 +118,66 @@ public class LocalCacheStore implements CacheStore {
         return deleted;
     }
 
-    public void cleanup() {    // cleanup is only called by background thread with fixed delay, not need to synchronize
+    // with bound enforced on put, cleanup only purges expired items and stale queue entries, the cost is linear but it is in background thread
+    public void cleanup() {
         logger.info("clean up local cache store");
         long now = System.currentTimeMillis();
         caches.values().removeIf(item -> item.expired(now));
-        int size = caches.size();
-        if (size > maxSize) {
-            logger.info("evict least frequently used cache items, currentSize={}, maxSize={}", size, maxSize);
-            int evictSize = size - maxSize;
-            evictLeastFrequentlyUsedItems(evictSize);
+        evictionLock.lock();
+        try {
+            evictionQueue.removeIf(item -> caches.get(item.key) != item);
+            evictionQueueSize.set(evictionQueue.size());
+        } finally {
+            evictionLock.unlock();
         }
     }
 
-    // use LFU to trade off between simplicity and access efficiency,
-    // assume local cache is only used for rarely changed items, and tolerate stale data, or use message to notify updates
-    // cleanup is running in background thread, it maintains approximate maxSize loosely
-    private void evictLeastFrequentlyUsedItems(int evictSize) {
-        Map<Integer, Integer> sizes = new TreeMap<>();
-        for (CacheItem<?> item : caches.values()) {
-            int hits = item.hits;
-            int size = sizes.getOrDefault(hits, 0);
-            sizes.put(hits, size + 1);
-        }
-        int minHits = 0;
-        int currentEvictSize = 0;
-        for (Map.Entry<Integer, Integer> entry : sizes.entrySet()) {
-            currentEvictSize += entry.getValue();
-            if (currentEvictSize >= evictSize) {
-                minHits = entry.getKey();
-                break;
+    // use CLOCK with frequency decay to approximate LFU, every put costs amortized O(1) and get is lock free,
+    // queue is ordered by insertion, clock hand polls head, evicts item without hits since last pass, otherwise halves hits and gives it another round,
+    // so new item is protected for one pass, and items frequently accessed stay longer
+    // only one thread evicts at time, others skip, so size may exceed maxSize by number of concurrent puts temporarily
+    void evictIfNeeded() {
+        if (caches.size() <= maxSize && evictionQueueSize.get() <= maxSize * 2) return;
+        if (!evictionLock.tryLock()) return;
+        try {
+            long now = System.currentTimeMillis();
+            while (caches.size() > maxSize || evictionQueueSize.get() > maxSize * 2) {
+                CacheItem<?> item = evictionQueue.poll();
+                if (item == null) break;
+                evictionQueueSize.decrementAndGet();
+                if (caches.get(item.key) != item) continue;    // item was replaced or deleted
+                if (item.expired(now) || item.hits == 0 && caches.size() > maxSize) {
+                    caches.remove(item.key, item);
+                } else {
+                    if (caches.size() > maxSize) item.hits = item.hits >> 1;
+                    evictionQueue.offer(item);
+                    evictionQueueSize.incrementAndGet();
+                }
             }
+        } finally {
+            evictionLock.unlock();
         }
-        int targetHits = minHits;
-        caches.values().removeIf(item -> item.hits <= targetHits);
     }
 
     public void clear() {
-        caches.clear();
+        evictionLock.lock();
+        try {
+            caches.clear();
+            evictionQueue.clear();
+            evictionQueueSize.set(0);
+        } finally {
+            evictionLock.unlock();
+        }
     }
 
     static class CacheItem<T> {
+        final String key;
         final T value;
         final long expirationTime;
         int hits;
 
-        CacheItem(T value, long expirationTime) {
+        CacheItem(String key, T value, long expirationTime) {
+            this.key = key;
             this.value = value;
             this.expirationTime = expirationTime;
         }
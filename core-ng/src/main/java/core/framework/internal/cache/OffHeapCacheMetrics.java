@@ -0,0 +1,28 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+/**
+ * @author neo
+ */
+public class OffHeapCacheMetrics implements Metrics {
+    private final OffHeapCacheStore cacheStore;
+
+    public OffHeapCacheMetrics(OffHeapCacheStore cacheStore) {
+        this.cacheStore = cacheStore;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        long allocatedBytes = cacheStore.allocatedBytes();
+        long usedBytes = cacheStore.usedBytes();
+        stats.put("cache_off_heap_size", cacheStore.size());
+        stats.put("cache_off_heap_allocated", allocatedBytes);
+        stats.put("cache_off_heap_used", usedBytes);
+        // allocated but not used by values, including free chunks and padding of chunk size
+        stats.put("cache_off_heap_fragmentation", allocatedBytes == 0 ? 0 : (double) (allocatedBytes - usedBytes) / allocatedBytes);
+        stats.put("cache_off_heap_hits", cacheStore.stats.collectHits());
+        stats.put("cache_off_heap_misses", cacheStore.stats.collectMisses());
+    }
+}
@@ -0,0 +1,373 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.log.filter.ArrayLogParam;
+import core.framework.util.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * store serialized values outside of heap, for large and rarely changed reference data, to reduce old gen size and gc pause,
+ * memory is allocated in 1M slabs, each slab is split into chunks of one size class (64, 128, 256 ... 1M bytes), freed chunks are reused by same size class,
+ * and empty slab is reused by any size class,
+ * only index of key to chunk is kept on heap,
+ * when memory is full, expired items are purged first, then one item of same size class is evicted by CLOCK, item read since last pass of clock hand gets another round,
+ * if size class has no item to evict, the least used slab of other size class is emptied and reassigned, so each put evicts at most one item or one slab,
+ * slabs are direct byte buffers, foreign memory api is still preview in java 21, direct memory is limited by -XX:MaxDirectMemorySize, which is heap max size by default
+ *
+ * @author neo
+ */
+public class OffHeapCacheStore implements CacheStore {
+    static final int SLAB_SIZE = 1024 * 1024;
+    static final int MIN_CHUNK_SIZE = 64;
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(SLAB_SIZE / MIN_CHUNK_SIZE) + 1;
+
+    public final CacheStoreStats stats = new CacheStoreStats();
+    final Map<String, Item> items = new HashMap<>();
+    final List<Slab> slabs = new ArrayList<>();
+    final Map<Integer, ArrayDeque<Item>> clocks = Maps.newHashMap();    // size class -> items in insertion order, replaced item stays in queue, and will be discarded when clock hand reaches it
+    private final Logger logger = LoggerFactory.getLogger(OffHeapCacheStore.class);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();     // read lock to copy value out, write lock to allocate or free chunks
+    private final Map<Integer, ArrayDeque<Long>> freeChunks = Maps.newHashMap();   // size class -> freed chunks, in format of slab << 32 | offset
+    private final ArrayDeque<Integer> freeSlabs = new ArrayDeque<>();
+    private final int[] currentSlabs = new int[SIZE_CLASSES];   // size class -> index of last slab, to allocate new chunks from
+    private long usedBytes;
+    public long maxSize = 256L * 1024 * 1024;   // max off heap memory in bytes
+
+    public OffHeapCacheStore() {
+        Arrays.fill(currentSlabs, -1);
+    }
+
+    static int sizeClass(int length) {
+        if (length <= MIN_CHUNK_SIZE) return 0;
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE);
+    }
+
+    @Override
+    public <T> T get(String key, CacheContext<T> context) {
+        logger.debug("get, key={}", key);
+        Expirable<T> value = getExpirable(key, context);
+        return value == null ? null : value.value();
+    }
+
+    @Override
+    public <T> Expirable<T> getExpirable(String key, CacheContext<T> context) {
+        byte[] bytes;
+        long expirationTime;
+        lock.readLock().lock();
+        try {
+            Item item = items.get(key);
+            if (item == null || item.expirationTime <= System.currentTimeMillis()) {
+                stats.miss(1);
+                return null;
+            }
+            item.referenced = true;
+            bytes = new byte[item.length];
+            slabs.get(item.slab).buffer.get(item.offset, bytes, 0, item.length);
+            expirationTime = item.expirationTime;
+        } finally {
+            lock.readLock().unlock();
+        }
+        T value = deserialize(key, bytes, context);
+        if (value == null) {
+            stats.miss(1);
+            return null;
+        }
+        stats.hit(1);
+        return new Expirable<>(value, expirationTime);
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(String[] keys, CacheContext<T> context) {
+        logger.debug("getAll, keys={}", new ArrayLogParam(keys));
+        Map<String, T> results = Maps.newHashMapWithExpectedSize(keys.length);
+        for (String key : keys) {
+            Expirable<T> value = getExpirable(key, context);
+            if (value != null) results.put(key, value.value());
+        }
+        return results;
+    }
+
+    @Override
+    public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
+        logger.debug("put, key={}, expiration={}", key, expiration);
+        put(key, serialize(value, context), System.currentTimeMillis() + expiration.toMillis());
+    }
+
+    @Override
+    public <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context) {
+        logger.debug("putAll, keys={}, expiration={}", new ArrayLogParam(values.stream().map(Entry::key).toArray(String[]::new)), expiration);
+        long expirationTime = System.currentTimeMillis() + expiration.toMillis();
+        for (Entry<T> value : values) {
+            put(value.key(), serialize(value.value(), context), expirationTime);
+        }
+    }
+
+    private void put(String key, byte[] bytes, long expirationTime) {
+        if (bytes.length > SLAB_SIZE) {
+            logger.warn(errorCode("CACHE_VALUE_TOO_LARGE"), "value is too large to store off heap, key={}, size={}", key, bytes.length);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            free(items.remove(key));
+            int sizeClass = sizeClass(bytes.length);
+            long chunk = allocate(sizeClass);
+            if (chunk < 0) {
+                purgeExpired(System.currentTimeMillis());
+                chunk = allocate(sizeClass);
+            }
+            if (chunk < 0 && evict(sizeClass)) chunk = allocate(sizeClass);
+            if (chunk < 0 && reassignSlab(sizeClass)) chunk = allocate(sizeClass);
+            if (chunk < 0) {
+                logger.warn(errorCode("CACHE_STORE_FULL"), "off heap cache store is full, please increase max size, key={}, maxSize={}", key, maxSize);
+                return;
+            }
+            int slab = (int) (chunk >>> 32);
+            int offset = (int) chunk;
+            slabs.get(slab).buffer.put(offset, bytes, 0, bytes.length);
+            var item = new Item(key, slab, offset, bytes.length, expirationTime);
+            items.put(key, item);
+            ArrayDeque<Item> clock = clocks.computeIfAbsent(sizeClass, k -> new ArrayDeque<>());
+            clock.offer(item);
+            if (clock.size() > items.size() * 2) clock.removeIf(this::stale);
+            usedBytes += bytes.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(String... keys) {
+        logger.debug("delete, keys={}", new ArrayLogParam(keys));
+        boolean deleted = false;
+        lock.writeLock().lock();
+        try {
+            for (String key : keys) {
+                Item item = items.remove(key);
+                if (item != null) {
+                    free(item);
+                    deleted = true;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return deleted;
+    }
+
+    public void cleanup() {
+        logger.info("clean up off heap cache store");
+        lock.writeLock().lock();
+        try {
+            purgeExpired(System.currentTimeMillis());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void close() {
+        logger.info("close off heap cache store");
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            clocks.clear();
+            slabs.clear();
+            freeChunks.clear();
+            freeSlabs.clear();
+            Arrays.fill(currentSlabs, -1);
+            usedBytes = 0;  // direct buffers are released by gc once unreachable
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slabs.size() * SLAB_SIZE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long allocate(int sizeClass) {
+        ArrayDeque<Long> chunks = freeChunks.get(sizeClass);
+        if (chunks != null && !chunks.isEmpty()) return use(chunks.pop());
+
+        int chunkSize = MIN_CHUNK_SIZE << sizeClass;
+        int slabIndex = currentSlabs[sizeClass];
+        if (slabIndex < 0 || slabs.get(slabIndex).next + chunkSize > SLAB_SIZE) {
+            slabIndex = allocateSlab(sizeClass);
+            if (slabIndex < 0) return -1;
+            currentSlabs[sizeClass] = slabIndex;
+        }
+        Slab slab = slabs.get(slabIndex);
+        int offset = slab.next;
+        slab.next += chunkSize;
+        return use((long) slabIndex << 32 | offset);
+    }
+
+    private int allocateSlab(int sizeClass) {
+        Integer slabIndex = freeSlabs.poll();
+        if (slabIndex == null) {
+            if ((long) (slabs.size() + 1) * SLAB_SIZE > maxSize) return -1;
+            slabs.add(new Slab(ByteBuffer.allocateDirect(SLAB_SIZE)));
+            slabIndex = slabs.size() - 1;
+        }
+        slabs.get(slabIndex).sizeClass = sizeClass;
+        return slabIndex;
+    }
+
+    private long use(long chunk) {
+        slabs.get((int) (chunk >>> 32)).usedChunks++;
+        return chunk;
+    }
+
+    private void free(Item item) {
+        if (item == null) return;
+        usedBytes -= item.length;
+        Slab slab = slabs.get(item.slab);
+        slab.usedChunks--;
+        if (slab.usedChunks == 0) {     // return empty slab, so it can be reused by other size class
+            ArrayDeque<Long> chunks = freeChunks.get(slab.sizeClass);
+            if (chunks != null) chunks.removeIf(chunk -> (int) (chunk >>> 32) == item.slab);
+            if (currentSlabs[slab.sizeClass] == item.slab) currentSlabs[slab.sizeClass] = -1;
+            slab.next = 0;
+            freeSlabs.add(item.slab);
+        } else {
+            freeChunks.computeIfAbsent(slab.sizeClass, key -> new ArrayDeque<>()).push((long) item.slab << 32 | item.offset);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        var iterator = items.values().iterator();
+        while (iterator.hasNext()) {
+            Item item = iterator.next();
+            if (item.expirationTime <= now) {
+                iterator.remove();
+                free(item);
+            }
+        }
+        for (ArrayDeque<Item> clock : clocks.values()) {
+            clock.removeIf(this::stale);
+        }
+    }
+
+    // clock hand of size class evicts first item not read since last pass, freed chunk is reused by same size class, returns false if nothing to evict
+    private boolean evict(int sizeClass) {
+        ArrayDeque<Item> clock = clocks.get(sizeClass);
+        if (clock == null) return false;
+        Item item;
+        while ((item = clock.poll()) != null) {
+            if (stale(item)) continue;
+            if (item.referenced) {
+                item.referenced = false;
+                clock.offer(item);
+            } else {
+                items.remove(item.key);
+                free(item);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // empty the slab with the least used chunks of other size class, to be reused by given size class, returns false if there is no such slab
+    private boolean reassignSlab(int sizeClass) {
+        int victim = -1;
+        for (int i = 0; i < slabs.size(); i++) {
+            Slab slab = slabs.get(i);
+            if (slab.sizeClass != sizeClass && slab.usedChunks > 0 && (victim < 0 || slab.usedChunks < slabs.get(victim).usedChunks)) victim = i;
+        }
+        if (victim < 0) return false;
+        int slabIndex = victim;
+        clocks.get(slabs.get(slabIndex).sizeClass).removeIf(item -> {
+            if (item.slab != slabIndex) return false;
+            if (!stale(item)) {
+                items.remove(item.key);
+                free(item);
+            }
+            return true;
+        });
+        return true;
+    }
+
+    private boolean stale(Item item) {
+        return items.get(item.key) != item;    // item was replaced, deleted or purged
+    }
+
+    private <T> byte[] serialize(T value, CacheContext<T> context) {
+        if (value == ABSENT) return CacheValueCodec.absent();
+        return CacheValueCodec.encode(context.writer.toJSON(value), context.compressionThreshold);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T deserialize(String key, byte[] bytes, CacheContext<T> context) {
+        if (CacheValueCodec.absent(bytes)) return (T) ABSENT;
+        try {
+            return context.reader.fromJSON(CacheValueCodec.decode(bytes));
+        } catch (IOException e) {
+            logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to deserialize value from off heap cache, key={}, error={}", key, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    static final class Item {
+        final String key;
+        final int slab;
+        final int offset;
+        final int length;
+        final long expirationTime;
+        boolean referenced;     // set by readers under read lock, it's only a hint for eviction, so race is acceptable
+
+        Item(String key, int slab, int offset, int length, long expirationTime) {
+            this.key = key;
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    static final class Slab {
+        final ByteBuffer buffer;
+        int sizeClass;
+        int next;   // offset of next unused chunk
+        int usedChunks;
+
+        Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
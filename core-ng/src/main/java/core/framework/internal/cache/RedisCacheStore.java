@@ -1,14 +1,16 @@
 package core.framework.internal.cache;
 
-import core.framework.internal.json.JSONReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import core.framework.internal.redis.BlobDecoder;
 import core.framework.internal.redis.RedisException;
 import core.framework.internal.redis.RedisImpl;
-import core.framework.internal.validate.Validator;
 import core.framework.util.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.List;
@@ -20,6 +22,7 @@ import static core.framework.log.Markers.errorCode;
  * @author neo
  */
 public class RedisCacheStore implements CacheStore {
+    public final CacheStoreStats stats = new CacheStoreStats();
     private final Logger logger = LoggerFactory.getLogger(RedisCacheStore.class);
 
     private final RedisImpl redis;
@@ -31,9 +34,10 @@ public class RedisCacheStore implements CacheStore {
     @Override
     public <T> T get(String key, CacheContext<T> context) {
         try {
-            byte[] value = redis.getBytes(key);
-            if (value == null) return null;
-            return deserialize(value, context.reader, context.validator);
+            T result = redis.get(key, new ValueDecoder<>(context));
+            if (result == null) stats.miss(1);
+            else stats.hit(1);
+            return result;
         } catch (UncheckedIOException | RedisException e) {
             logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
             return null;
@@ -41,16 +45,28 @@ public class RedisCacheStore implements CacheStore {
     }
 
     @Override
-    public <T> Map<String, T> getAll(String[] keys, CacheContext<T> context) {
+    public <T> Expirable<T> getExpirable(String key, CacheContext<T> context) {
         try {
-            Map<String, byte[]> redisValues = redis.multiGetBytes(keys);
-            Map<String, T> values = Maps.newHashMapWithExpectedSize(redisValues.size());
-            for (Map.Entry<String, byte[]> entry : redisValues.entrySet()) {
-                T value = deserialize(entry.getValue(), context.reader, context.validator);
-                if (value != null) {
-                    values.put(entry.getKey(), value);
-                }
+            RedisImpl.ExpirableValue<T> value = redis.getExpirable(key, new ValueDecoder<>(context));
+            T result = value.value();
+            if (result == null) {
+                stats.miss(1);
+                return null;
             }
+            stats.hit(1);
+            return new Expirable<>(result, expirationTime(System.currentTimeMillis(), value.ttl()));
+        } catch (UncheckedIOException | RedisException e) {
+            logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(String[] keys, CacheContext<T> context) {
+        try {
+            Map<String, T> values = redis.multiGet(keys, new ValueDecoder<>(context));
+            stats.hit(values.size());
+            stats.miss(keys.length - values.size());
             return values;
         } catch (UncheckedIOException | RedisException e) {
             logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
@@ -58,28 +74,40 @@ public class RedisCacheStore implements CacheStore {
         }
     }
 
-    private <T> T deserialize(byte[] value, JSONReader<T> reader, Validator<T> validator) {
+    // used by near cache, to expire local copies along with redis
+    public <T> Map<String, Expirable<T>> getAllExpirable(String[] keys, CacheContext<T> context) {
         try {
-            T result = reader.fromJSON(value);
-            if (result == null) return null;
-
-            Map<String, String> errors = validator.errors(result, false);
-            if (errors != null) {
-                logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to validate value from cache, will reload, errors={}", errors);
-                return null;
+            Map<String, RedisImpl.ExpirableValue<T>> values = redis.multiGetExpirable(keys, new ValueDecoder<>(context));
+            stats.hit(values.size());
+            stats.miss(keys.length - values.size());
+            long now = System.currentTimeMillis();
+            Map<String, Expirable<T>> results = Maps.newHashMapWithExpectedSize(values.size());
+            for (Map.Entry<String, RedisImpl.ExpirableValue<T>> entry : values.entrySet()) {
+                RedisImpl.ExpirableValue<T> value = entry.getValue();
+                results.put(entry.getKey(), new Expirable<>(value.value(), expirationTime(now, value.ttl())));
             }
-
-            return result;
-        } catch (IOException e) {
-            logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to deserialize value from cache, will reload, error={}", e.getMessage(), e);
-            return null;
+            return results;
+        } catch (UncheckedIOException | RedisException e) {
+            logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
+            return Map.of();
         }
     }
 
+    // ttl is -1 if key has no expiration, -2 if key expired after value was read
+    private long expirationTime(long now, long ttl) {
+        if (ttl == -1) return Long.MAX_VALUE;
+        return now + Math.max(ttl, 0);
+    }
+
+    private <T> byte[] serialize(T value, CacheContext<T> context) {
+        if (value == ABSENT) return CacheValueCodec.absent();
+        return CacheValueCodec.encode(context.writer.toJSON(value), context.compressionThreshold);
+    }
+
     @Override
     public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
         try {
-            redis.set(key, context.writer.toJSON(value), expiration, false);
+            redis.set(key, serialize(value, context), expiration, false);
         } catch (UncheckedIOException | RedisException e) {
             logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
         }
@@ -89,7 +117,7 @@ public class RedisCacheStore implements CacheStore {
     public <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context) {
         Map<String, byte[]> cacheValues = Maps.newHashMapWithExpectedSize(values.size());
         for (Entry<T> value : values) {
-            cacheValues.put(value.key(), context.writer.toJSON(value.value()));
+            cacheValues.put(value.key(), serialize(value.value(), context));
         }
         try {
             redis.multiSet(cacheValues, expiration);
@@ -108,4 +136,53 @@ public class RedisCacheStore implements CacheStore {
             return false;
         }
     }
+
+    // decode value from read buffer of redis connection directly, without copying into byte array first
+    private final class ValueDecoder<T> implements BlobDecoder<T> {
+        private final CacheContext<T> context;
+
+        ValueDecoder(CacheContext<T> context) {
+            this.context = context;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T decode(byte[] buffer, int offset, int length) {
+            if (CacheValueCodec.absent(buffer, offset, length)) return (T) ABSENT;
+            try {
+                T result = CacheValueCodec.plain(buffer, offset, length)
+                    ? context.reader.fromJSON(buffer, offset, length)
+                    : context.reader.fromJSON(CacheValueCodec.inflate(buffer, offset, length));
+                return validate(result);
+            } catch (IOException e) {
+                logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to deserialize value from cache, will reload, error={}", e.getMessage(), e);
+                return null;
+            }
+        }
+
+        // value is larger than read buffer, plain json is parsed from stream, compressed value has to be inflated into byte array anyway
+        @Override
+        public T decode(InputStream stream, int length) throws IOException {
+            var input = new PushbackInputStream(stream, 1);
+            int firstByte = input.read();
+            input.unread(firstByte);
+            if (firstByte == CacheValueCodec.MAGIC) return BlobDecoder.super.decode(input, length);
+            try {
+                return validate(context.reader.fromJSON(input));
+            } catch (JsonProcessingException e) {   // other IOException is from connection, which must fail the command
+                logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to deserialize value from cache, will reload, error={}", e.getMessage(), e);
+                return null;
+            }
+        }
+
+        private T validate(T result) {
+            if (result == null) return null;
+            Map<String, String> errors = context.validator.errors(result, false);
+            if (errors != null) {
+                logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to validate value from cache, will reload, errors={}", errors);
+                return null;
+            }
+            return result;
+        }
+    }
 }
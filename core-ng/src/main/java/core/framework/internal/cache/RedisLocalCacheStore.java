@@ -0,0 +1,151 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.json.JSONMapper;
+import core.framework.internal.json.JSONReader;
+import core.framework.internal.json.JSONWriter;
+import core.framework.internal.redis.RedisException;
+import core.framework.internal.redis.RedisImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * near cache, local cache in front of redis, local copies on all nodes are invalidated via redis pub/sub on change,
+ * pub/sub delivery is at most once, local copies expire with remaining ttl of redis to cap staleness if any message is lost
+ *
+ * @author neo
+ */
+public class RedisLocalCacheStore implements CacheStore {
+    public static final String CHANNEL_INVALIDATE_CACHE = "cache:invalidate";
+
+    final String sender = UUID.randomUUID().toString();     // to skip invalidation message published by self
+    private final Logger logger = LoggerFactory.getLogger(RedisLocalCacheStore.class);
+    private final LocalCacheStore localCache;
+    private final RedisCacheStore redisCache;
+    private final RedisImpl redis;
+    private final JSONReader<InvalidateLocalCacheMessage> reader = JSONMapper.reader(InvalidateLocalCacheMessage.class);
+    private final JSONWriter<InvalidateLocalCacheMessage> writer = JSONMapper.writer(InvalidateLocalCacheMessage.class);
+    // increased on every change of local cache, to tell whether value read from redis may be overwritten meanwhile
+    private final AtomicLong version = new AtomicLong();
+
+    public RedisLocalCacheStore(LocalCacheStore localCache, RedisCacheStore redisCache, RedisImpl redis) {
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+        this.redis = redis;
+    }
+
+    @Override
+    public <T> T get(String key, CacheContext<T> context) {
+        Expirable<T> value = getExpirable(key, context);
+        return value == null ? null : value.value();
+    }
+
+    @Override
+    public <T> Expirable<T> getExpirable(String key, CacheContext<T> context) {
+        Expirable<T> value = localCache.getExpirable(key, context);
+        if (value != null) return value;
+
+        long version = this.version.get();
+        value = redisCache.getExpirable(key, context);
+        if (value != null) {
+            putLocal(key, value, version, System.currentTimeMillis(), context);
+        }
+        return value;
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(String[] keys, CacheContext<T> context) {
+        Map<String, T> values = localCache.getAll(keys, context);
+        if (values.size() == keys.length) return values;
+
+        String[] redisKeys = new String[keys.length - values.size()];
+        int index = 0;
+        for (String key : keys) {
+            if (!values.containsKey(key)) {
+                redisKeys[index] = key;
+                index++;
+            }
+        }
+        long version = this.version.get();
+        Map<String, Expirable<T>> redisValues = redisCache.getAllExpirable(redisKeys, context);
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Expirable<T>> entry : redisValues.entrySet()) {
+            putLocal(entry.getKey(), entry.getValue(), version, now, context);
+            values.put(entry.getKey(), entry.getValue().value());
+        }
+        return values;
+    }
+
+    // local copy expires with remaining ttl of redis, e.g. absent marker expires with absentDuration,
+    // and is discarded if local cache was invalidated since reading from redis, as value read before invalidation may be stale
+    private <T> void putLocal(String key, Expirable<T> value, long version, long now, CacheContext<T> context) {
+        long ttl = Math.min(value.expirationTime() - now, context.duration.toMillis());
+        if (ttl <= 0) return;
+        localCache.put(key, value.value(), Duration.ofMillis(ttl), context);
+        if (this.version.get() != version) localCache.delete(key);
+    }
+
+    @Override
+    public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
+        redisCache.put(key, value, expiration, context);
+        version.incrementAndGet();
+        localCache.put(key, value, expiration, context);
+        publishInvalidation(List.of(key));
+    }
+
+    @Override
+    public <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context) {
+        redisCache.putAll(values, expiration, context);
+        version.incrementAndGet();
+        localCache.putAll(values, expiration, context);
+        List<String> keys = new ArrayList<>(values.size());
+        for (Entry<T> value : values) {
+            keys.add(value.key());
+        }
+        publishInvalidation(keys);
+    }
+
+    @Override
+    public boolean delete(String... keys) {
+        boolean deleted = redisCache.delete(keys);
+        version.incrementAndGet();
+        localCache.delete(keys);
+        publishInvalidation(Arrays.asList(keys));
+        return deleted;
+    }
+
+    private void publishInvalidation(List<String> keys) {
+        var message = new InvalidateLocalCacheMessage();
+        message.keys = keys;
+        message.sender = sender;
+        try {
+            redis.publish(CHANNEL_INVALIDATE_CACHE, writer.toJSON(message));
+        } catch (UncheckedIOException | RedisException e) {
+            logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to publish cache invalidation, error={}", e.getMessage(), e);
+        }
+    }
+
+    // called by redis subscriber thread
+    public void invalidate(byte[] message) {
+        try {
+            InvalidateLocalCacheMessage invalidation = reader.fromJSON(message);
+            if (sender.equals(invalidation.sender) || invalidation.keys == null || invalidation.keys.isEmpty()) return;
+            logger.debug("invalidate local cache, keys={}", invalidation.keys);
+            version.incrementAndGet();
+            localCache.delete(invalidation.keys.toArray(String[]::new));
+        } catch (IOException e) {
+            logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to deserialize cache invalidation message, error={}", e.getMessage(), e);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import core.framework.internal.log.LogManager;
 import core.framework.internal.resource.Pool;
 import core.framework.util.ASCII;
 import core.framework.util.StopWatch;
+import core.framework.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +29,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * @author neo
@@ -42,6 +46,8 @@ public final class DatabaseImpl implements Database {
     public final DatabaseOperation operation;
     private final Logger logger = LoggerFactory.getLogger(DatabaseImpl.class);
     private final Map<Class<?>, RowMapper<?>> rowMappers = new HashMap<>(32);
+    private final Map<String, Properties> driverProperties = new ConcurrentHashMap<>();     // url -> properties, replicas may have different params
+    private final String name;
 
     public String user;
     public String password;
@@ -49,23 +55,30 @@ public final class DatabaseImpl implements Database {
     public IsolationLevel isolationLevel;
 
     private String url;
-    private Properties driverProperties;
     private Duration timeout;
     private Driver driver;
     private Dialect dialect;
+    private int minPoolSize = 5;    // default optimization for AWS medium/large instances
+    private int maxPoolSize = 50;
 
     public DatabaseImpl(String name) {
+        this.name = name;
         initializeRowMappers();
 
-        pool = new Pool<>(this::createConnection, name);
-        pool.size(5, 50);    // default optimization for AWS medium/large instances
-        pool.maxIdleTime = Duration.ofHours(2);  // make sure db server does not kill connection shorter than this, e.g. MySQL default wait_timeout is 8 hours
-        pool.validator(connection -> connection.isValid(1), Duration.ofSeconds(30));
-
+        pool = createPool(name, () -> createConnection(url));
         operation = new DatabaseOperation(pool);
         timeout(Duration.ofSeconds(15));
     }
 
+    private Pool<Connection> createPool(String name, Supplier<Connection> factory) {
+        var pool = new Pool<>(factory, name);
+        pool.size(minPoolSize, maxPoolSize);
+        pool.maxIdleTime = Duration.ofHours(2);  // make sure db server does not kill connection shorter than this, e.g. MySQL default wait_timeout is 8 hours
+        pool.validator(connection -> connection.isValid(1), Duration.ofSeconds(30));
+        if (timeout != null) pool.checkoutTimeout(timeout);
+        return pool;
+    }
+
     private void initializeRowMappers() {
         rowMappers.put(String.class, new RowMapper.StringRowMapper());
         rowMappers.put(Integer.class, new RowMapper.IntegerRowMapper());
@@ -78,13 +91,9 @@ public final class DatabaseImpl implements Database {
         rowMappers.put(ZonedDateTime.class, new RowMapper.ZonedDateTimeRowMapper());
     }
 
-    private Connection createConnection() {
+    private Connection createConnection(String url) {
         if (url == null) throw new Error("url must not be null");
-        Properties driverProperties = this.driverProperties;
-        if (driverProperties == null) {
-            driverProperties = driverProperties(url);
-            this.driverProperties = driverProperties;
-        }
+        Properties driverProperties = this.driverProperties.computeIfAbsent(url, this::driverProperties);
         if (authProvider != null) {
             // properties are thread safe, it's ok to set user/password with multiple threads
             driverProperties.setProperty("user", authProvider.user());
@@ -149,12 +158,40 @@ public final class DatabaseImpl implements Database {
     public void close() {
         logger.info("close database client, url={}", url);
         pool.close();
+        for (Pool<Connection> replica : operation.transactionManager.replicas) {
+            replica.close();
+        }
     }
 
     public void timeout(Duration timeout) {
         this.timeout = timeout;
         operation.queryTimeoutInSeconds = (int) timeout.getSeconds();
         pool.checkoutTimeout(timeout);
+        for (Pool<Connection> replica : operation.transactionManager.replicas) {
+            replica.checkoutTimeout(timeout);
+        }
+    }
+
+    public void poolSize(int minSize, int maxSize) {
+        minPoolSize = minSize;
+        maxPoolSize = maxSize;
+        pool.size(minSize, maxSize);
+        for (Pool<Connection> replica : operation.transactionManager.replicas) {
+            replica.size(minSize, maxSize);
+        }
+    }
+
+    // replica has its own pool with same settings as primary, reads outside transaction are routed to replicas
+    public Pool<Connection> replica(String url) {
+        if (this.url == null) throw new Error("url must be configured before replica");
+        String prefix = this.url.substring(0, this.url.indexOf(':', 5) + 1);   // e.g. jdbc:mysql:
+        if (!url.startsWith(prefix)) throw new Error(Strings.format("replica must use same driver as primary, url={}, primary={}", url, this.url));
+        List<Pool<Connection>> replicas = operation.transactionManager.replicas;
+        String poolName = name + "-replica" + (replicas.size() + 1);
+        Pool<Connection> replica = createPool(poolName, () -> createConnection(url));
+        replicas.add(replica);
+        logger.info("add database replica, url={}, pool={}", url, poolName);
+        return replica;
     }
 
     public void url(String url) {
@@ -167,9 +204,14 @@ public final class DatabaseImpl implements Database {
     private Driver driver(String url) {
         if (url.startsWith("jdbc:mysql:")) {
             dialect = Dialect.MYSQL;
+            // mysql driver streams rows one by one with Integer.MIN_VALUE, useCursorFetch is not used, as it turns all statements of connection into server side prepared statements
+            // refer to https://dev.mysql.com/doc/connector-j/en/connector-j-reference-implementation-notes.html
+            operation.streamFetchSize = Integer.MIN_VALUE;
             return createDriver("com.mysql.cj.jdbc.Driver");
         } else if (url.startsWith("jdbc:postgresql:")) {
             dialect = Dialect.POSTGRESQL;
+            // postgresql only uses cursor with fetch size within transaction, refer to https://jdbc.postgresql.org/documentation/query/#getting-results-based-on-a-cursor
+            operation.streamInTransaction = true;
             return createDriver("org.postgresql.Driver");
         } else if (url.startsWith("jdbc:hsqldb:")) {
             dialect = Dialect.MYSQL;    // unit test use mysql dialect
@@ -245,6 +287,20 @@ public final class DatabaseImpl implements Database {
         }
     }
 
+    @Override
+    public <T> void forEach(String sql, Class<T> viewClass, Consumer<T> consumer, Object... params) {
+        var watch = new StopWatch();
+        validateSQL(sql);
+        int returnedRows = 0;
+        try {
+            returnedRows = operation.forEach(sql, rowMapper(viewClass), consumer, params);
+        } finally {
+            long elapsed = watch.elapsed();     // include time of consumer, as rows are fetched during consuming
+            logger.debug("forEach, sql={}, params={}, returnedRows={}, elapsed={}", sql, new SQLParams(operation.enumMapper, params), returnedRows, elapsed);
+            track(elapsed, returnedRows, 0, 1);
+        }
+    }
+
     @Override
     public int execute(String sql, Object... params) {
         var watch = new StopWatch();
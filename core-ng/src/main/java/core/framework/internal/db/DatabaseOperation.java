@@ -23,6 +23,7 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.function.Consumer;
 
 import static core.framework.log.Markers.errorCode;
 import static core.framework.util.Strings.format;
@@ -36,6 +37,8 @@ public class DatabaseOperation {
     public final TransactionManager transactionManager;
     final EnumDBMapper enumMapper = new EnumDBMapper();
     int queryTimeoutInSeconds;
+    int streamFetchSize = 1000;
+    boolean streamInTransaction;
 
     DatabaseOperation(Pool<Connection> pool) {
         transactionManager = new TransactionManager(pool);
@@ -81,7 +84,8 @@ public class DatabaseOperation {
     }
 
     <T> Optional<T> selectOne(String sql, RowMapper<T> mapper, Object... params) {
-        PoolItem<Connection> connection = transactionManager.getConnection();
+        Pool<Connection> replica = transactionManager.replica();
+        PoolItem<Connection> connection = transactionManager.getReadConnection(replica);
         try (PreparedStatement statement = connection.resource.prepareStatement(sql)) {
             statement.setQueryTimeout(queryTimeoutInSeconds);
             setParams(statement, params);
@@ -90,12 +94,13 @@ public class DatabaseOperation {
             Connections.checkConnectionState(connection, e);
             throw new UncheckedSQLException(e);
         } finally {
-            transactionManager.returnConnection(connection);
+            transactionManager.returnReadConnection(replica, connection);
         }
     }
 
     <T> List<T> select(String sql, RowMapper<T> mapper, Object... params) {
-        PoolItem<Connection> connection = transactionManager.getConnection();
+        Pool<Connection> replica = transactionManager.replica();
+        PoolItem<Connection> connection = transactionManager.getReadConnection(replica);
         try (PreparedStatement statement = connection.resource.prepareStatement(sql)) {
             statement.setQueryTimeout(queryTimeoutInSeconds);
             setParams(statement, params);
@@ -104,7 +109,43 @@ public class DatabaseOperation {
             Connections.checkConnectionState(connection, e);
             throw new UncheckedSQLException(e);
         } finally {
-            transactionManager.returnConnection(connection);
+            transactionManager.returnReadConnection(replica, connection);
+        }
+    }
+
+    // return number of rows consumed
+    <T> int forEach(String sql, RowMapper<T> mapper, Consumer<T> consumer, Object... params) {
+        Pool<Connection> replica = transactionManager.replica();
+        PoolItem<Connection> connection = transactionManager.getReadConnection(replica);
+        boolean autoCommit = false;
+        try {
+            if (streamInTransaction && connection.resource.getAutoCommit()) {
+                connection.resource.setAutoCommit(false);
+                autoCommit = true;
+            }
+            try (PreparedStatement statement = connection.resource.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setQueryTimeout(queryTimeoutInSeconds);
+                statement.setFetchSize(streamFetchSize);
+                setParams(statement, params);
+                return fetch(statement, mapper, consumer);
+            }
+        } catch (SQLException e) {
+            Connections.checkConnectionState(connection, e);
+            throw new UncheckedSQLException(e);
+        } finally {
+            if (autoCommit) resetAutoCommit(connection);
+            transactionManager.returnReadConnection(replica, connection);
+        }
+    }
+
+    // end read only transaction started for cursor
+    private void resetAutoCommit(PoolItem<Connection> connection) {
+        if (connection.broken) return;
+        try {
+            connection.resource.setAutoCommit(true);
+        } catch (SQLException e) {
+            connection.broken = true;   // not to return connection with open transaction to pool
+            logger.warn("failed to reset auto commit", e);
         }
     }
 
@@ -157,7 +198,9 @@ public class DatabaseOperation {
 
             T result = null;
             if (resultSet.next()) {
-                result = mapper.map(new ResultSetWrapper(resultSet));
+                var wrapper = new ResultSetWrapper(resultSet);
+                wrapper.resolveColumns(mapper.columns());
+                result = mapper.map(wrapper);
                 if (resultSet.next())
                     throw new Error("more than one row returned");
             }
@@ -170,6 +213,7 @@ public class DatabaseOperation {
             logSlowQuery(statement);
 
             var wrapper = new ResultSetWrapper(resultSet);
+            wrapper.resolveColumns(mapper.columns());
             List<T> results = Lists.newArrayList();
             while (resultSet.next()) {
                 T result = mapper.map(wrapper);
@@ -179,6 +223,21 @@ public class DatabaseOperation {
         }
     }
 
+    private <T> int fetch(PreparedStatement statement, RowMapper<T> mapper, Consumer<T> consumer) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            logSlowQuery(statement);
+
+            var wrapper = new ResultSetWrapper(resultSet);
+            wrapper.resolveColumns(mapper.columns());
+            int rows = 0;
+            while (resultSet.next()) {
+                consumer.accept(mapper.map(wrapper));
+                rows++;
+            }
+            return rows;
+        }
+    }
+
     // the LAST_INSERT_ID() function of mysql returns BIGINT, so here it uses Long
     // http://dev.mysql.com/doc/refman/5.7/en/information-functions.html
     private OptionalLong fetchGeneratedKey(PreparedStatement statement) throws SQLException {
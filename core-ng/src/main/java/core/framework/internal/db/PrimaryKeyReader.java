@@ -0,0 +1,8 @@
+package core.framework.internal.db;
+
+/**
+ * @author neo
+ */
+interface PrimaryKeyReader<T> {
+    Object primaryKey(T entity);    // value of primary key, or List of values for composite key
+}
@@ -0,0 +1,50 @@
+package core.framework.internal.db;
+
+import core.framework.db.PrimaryKey;
+import core.framework.internal.asm.CodeBuilder;
+import core.framework.internal.asm.DynamicInstanceBuilder;
+import core.framework.internal.reflect.Classes;
+import core.framework.util.Lists;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+import static core.framework.internal.asm.Literal.type;
+
+/**
+ * @author neo
+ */
+class PrimaryKeyReaderBuilder<T> {
+    final DynamicInstanceBuilder<PrimaryKeyReader<T>> builder;
+    private final Class<T> entityClass;
+
+    PrimaryKeyReaderBuilder(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        builder = new DynamicInstanceBuilder<>(PrimaryKeyReader.class, entityClass.getSimpleName());
+    }
+
+    PrimaryKeyReader<T> build() {
+        List<String> fieldNames = Lists.newArrayList();
+        for (Field field : Classes.instanceFields(entityClass)) {
+            if (field.isAnnotationPresent(PrimaryKey.class)) fieldNames.add("entity." + field.getName());
+        }
+        builder.addMethod(primaryKeyMethod(fieldNames));
+        return builder.build();
+    }
+
+    private String primaryKeyMethod(List<String> fieldNames) {
+        var builder = new CodeBuilder();
+        String entityClassLiteral = type(entityClass);
+        builder.append("public Object primaryKey(Object value) {\n")
+            .indent(1).append("{} entity = ({}) value;\n", entityClassLiteral, entityClassLiteral);
+        if (fieldNames.size() == 1) {
+            builder.indent(1).append("return {};\n", fieldNames.getFirst());
+        } else {
+            // array doesn't have value equality, use list to be key of map
+            builder.indent(1).append("return {}.asList(new Object[]{", type(Arrays.class)).appendCommaSeparatedValues(fieldNames).append("});\n");
+        }
+        builder.append("}");
+        return builder.build();
+    }
+}
@@ -4,9 +4,11 @@ import core.framework.db.Query;
 import core.framework.util.Lists;
 import core.framework.util.Strings;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -21,6 +23,7 @@ public class QueryImpl<T> implements Query<T> {
     private String sort;
     private Integer skip;
     private Integer limit;
+    private Object[] lastKey;
 
     QueryImpl(DatabaseImpl database, Class<T> entityClass, SelectQuery<T> selectQuery) {
         this.database = database;
@@ -45,6 +48,11 @@ public class QueryImpl<T> implements Query<T> {
         this.sort = sort;
     }
 
+    @Override
+    public void after(Object... lastKey) {
+        this.lastKey = lastKey;     // condition is built on fetch, to follow orderBy set afterward
+    }
+
     @Override
     public void groupBy(String groupBy) {
         this.groupBy = groupBy;
@@ -64,30 +72,59 @@ public class QueryImpl<T> implements Query<T> {
     @Override
     public List<T> fetch() {
         if (groupBy != null) throw new Error("fetch must not be used with groupBy, groupBy=" + groupBy);
-        String sql = selectQuery.fetchSQL(whereClause, sort, skip, limit);
-        Object[] params = selectQuery.params(this.params, skip, limit);
+        Condition condition = condition();
+        String sql = selectQuery.fetchSQL(condition.sql(), sort, skip, limit);
+        Object[] params = selectQuery.params(condition.params(), skip, limit);
         return database.select(sql, entityClass, params);
     }
 
     @Override
     public Optional<T> fetchOne() {
         if (groupBy != null) throw new Error("fetch must not be used with groupBy, groupBy=" + groupBy);
-        String sql = selectQuery.fetchSQL(whereClause, sort, skip, limit);
-        Object[] params = selectQuery.params(this.params, skip, limit);
+        Condition condition = condition();
+        String sql = selectQuery.fetchSQL(condition.sql(), sort, skip, limit);
+        Object[] params = selectQuery.params(condition.params(), skip, limit);
         return database.selectOne(sql, entityClass, params);
     }
 
+    @Override
+    public void forEach(Consumer<T> consumer) {
+        if (groupBy != null) throw new Error("forEach must not be used with groupBy, groupBy=" + groupBy);
+        Condition condition = condition();
+        String sql = selectQuery.fetchSQL(condition.sql(), sort, skip, limit);
+        Object[] params = selectQuery.params(condition.params(), skip, limit);
+        database.forEach(sql, entityClass, consumer, params);
+    }
+
     @Override
     public <P> List<P> project(String projection, Class<P> viewClass) {
-        String sql = selectQuery.sql(projection, whereClause, groupBy, sort, skip, limit);
-        Object[] params = selectQuery.params(this.params, skip, limit);
+        Condition condition = condition();
+        String sql = selectQuery.sql(projection, condition.sql(), groupBy, sort, skip, limit);
+        Object[] params = selectQuery.params(condition.params(), skip, limit);
         return database.select(sql, viewClass, params);
     }
 
     @Override
     public <P> Optional<P> projectOne(String projection, Class<P> viewClass) {
-        String sql = selectQuery.sql(projection, whereClause, groupBy, sort, skip, limit);
-        Object[] params = selectQuery.params(this.params, skip, limit);
+        Condition condition = condition();
+        String sql = selectQuery.sql(projection, condition.sql(), groupBy, sort, skip, limit);
+        Object[] params = selectQuery.params(condition.params(), skip, limit);
         return database.selectOne(sql, viewClass, params);
     }
+
+    private Condition condition() {
+        if (lastKey == null) return new Condition(whereClause, params);
+        if (sort == null) throw new Error("orderBy must be set with after");
+        if (skip != null) throw new Error("skip must not be used with after, skip=" + skip);
+        List<Object> afterParams = new ArrayList<>(params.size() + lastKey.length * 2);
+        afterParams.addAll(params);
+        String afterCondition = selectQuery.afterCondition(sort, lastKey, afterParams);
+        var builder = new StringBuilder(whereClause.length() + afterCondition.length() + 5);
+        if (!whereClause.isEmpty()) builder.append(whereClause).append(" AND ");
+        builder.append(afterCondition);
+        return new Condition(builder, afterParams);
+    }
+
+    private record Condition(StringBuilder sql, List<Object> params) {
+    }
 }
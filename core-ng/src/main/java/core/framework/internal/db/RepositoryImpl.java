@@ -3,6 +3,7 @@ package core.framework.internal.db;
 import core.framework.db.Query;
 import core.framework.db.Repository;
 import core.framework.internal.validate.Validator;
+import core.framework.util.Maps;
 import core.framework.util.StopWatch;
 import core.framework.util.Strings;
 import org.slf4j.Logger;
@@ -12,6 +13,7 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 
@@ -21,10 +23,13 @@ import static core.framework.log.Markers.errorCode;
  * @author neo
  */
 public final class RepositoryImpl<T> implements Repository<T> {
+    private static final int GET_ALL_CHUNK_SIZE = 1000;     // keep IN list and params within db limits, e.g. postgresql allows max 32767 params
+
     private final Logger logger = LoggerFactory.getLogger(RepositoryImpl.class);
     private final DatabaseImpl database;
     private final Validator<T> validator;
     private final SelectQuery<T> selectQuery;
+    private final PrimaryKeyReader<T> primaryKeyReader;
     private final InsertQuery<T> insertQuery;
     private final UpdateQuery<T> updateQuery;
     private final String deleteSQL;
@@ -35,6 +40,7 @@ public final class RepositoryImpl<T> implements Repository<T> {
         validator = Validator.of(entityClass);
         insertQuery = new InsertQueryBuilder<>(entityClass, dialect).build();
         selectQuery = new SelectQuery<>(entityClass, dialect);
+        primaryKeyReader = new PrimaryKeyReaderBuilder<>(entityClass).build();
         updateQuery = new UpdateQueryBuilder<>(entityClass).build();
         deleteSQL = DeleteQueryBuilder.build(entityClass);
         this.entityClass = entityClass;
@@ -52,6 +58,29 @@ public final class RepositoryImpl<T> implements Repository<T> {
         return database.selectOne(selectQuery.getSQL, entityClass, primaryKeys);
     }
 
+    @Override
+    public Map<Object, T> getAll(List<?> primaryKeys) {
+        if (primaryKeys.isEmpty()) throw new Error("primaryKeys must not be empty");
+        List<Object[]> keys = primaryKeyParams(primaryKeys);
+        int size = keys.size();
+        Map<Object, T> results = Maps.newHashMapWithExpectedSize(size);
+        for (int from = 0; from < size; from += GET_ALL_CHUNK_SIZE) {
+            int to = Math.min(from + GET_ALL_CHUNK_SIZE, size);
+            var params = new Object[(to - from) * selectQuery.primaryKeyColumns];
+            int index = 0;
+            for (int i = from; i < to; i++) {
+                for (Object key : keys.get(i)) {
+                    params[index++] = key;
+                }
+            }
+            List<T> entities = database.select(selectQuery.getAllSQL(to - from), entityClass, params);
+            for (T entity : entities) {
+                results.put(primaryKeyReader.primaryKey(entity), entity);
+            }
+        }
+        return results;
+    }
+
     @Override
     public OptionalLong insert(T entity) {
         var watch = new StopWatch();
@@ -239,7 +268,7 @@ public final class RepositoryImpl<T> implements Repository<T> {
     public boolean batchDelete(List<?> primaryKeys) {
         var watch = new StopWatch();
         if (primaryKeys.isEmpty()) throw new Error("primaryKeys must not be empty");
-        List<Object[]> params = batchDeleteParams(primaryKeys);
+        List<Object[]> params = primaryKeyParams(primaryKeys);
         int deletedRows = 0;
         try {
             int[] affectedRows = database.operation.batchUpdate(deleteSQL, params);
@@ -254,7 +283,7 @@ public final class RepositoryImpl<T> implements Repository<T> {
         }
     }
 
-    List<Object[]> batchDeleteParams(List<?> primaryKeys) {
+    List<Object[]> primaryKeyParams(List<?> primaryKeys) {
         List<Object[]> params = new ArrayList<>(primaryKeys.size());
         for (Object primaryKey : primaryKeys) {
             if (primaryKey instanceof final Object[] keys) {
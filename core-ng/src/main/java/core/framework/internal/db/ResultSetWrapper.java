@@ -23,6 +23,7 @@ final class ResultSetWrapper {
 
     // JDBC ResultSet doesn't support to ignore non-existed column, this to build index
     private final Map<String, Integer> columnIndex;
+    int[] columnIndexes;
 
     ResultSetWrapper(ResultSet resultSet) {
         this.resultSet = resultSet;
@@ -33,8 +34,16 @@ final class ResultSetWrapper {
         }
     }
 
-    private Integer index(String column) {
-        return columnIndex.get(ASCII.toLowerCase(column));
+    // resolve columns of generated row mapper to indexes once per result set, so mapping each row only reads by index,
+    // index is 0 if column is not returned, which maps to null
+    void resolveColumns(String[] columns) {
+        if (columns == null) return;
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer index = columnIndex.get(ASCII.toLowerCase(columns[i]));
+            if (index != null) indexes[i] = index;
+        }
+        columnIndexes = indexes;
     }
 
     // different db are using various of rules to return column name/label, some of reserved case, some does not
@@ -55,93 +64,48 @@ final class ResultSetWrapper {
         return columnIndex.size();
     }
 
-    Integer getInt(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getInt(index);
-    }
-
     Integer getInt(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getObject(index, Integer.class);
     }
 
-    Boolean getBoolean(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getBoolean(index);
-    }
-
     Boolean getBoolean(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getObject(index, Boolean.class);
     }
 
-    Long getLong(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getLong(index);
-    }
-
     Long getLong(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getObject(index, Long.class);
     }
 
-    Double getDouble(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getDouble(index);
-    }
-
     Double getDouble(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getObject(index, Double.class);
     }
 
-    String getString(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getString(index);
-    }
-
     String getString(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getString(index);
     }
 
-    BigDecimal getBigDecimal(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getBigDecimal(index);
-    }
-
     BigDecimal getBigDecimal(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getBigDecimal(index);
     }
 
-    LocalDateTime getLocalDateTime(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getLocalDateTime(index);
-    }
-
     LocalDateTime getLocalDateTime(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getObject(index, LocalDateTime.class);
     }
 
-    LocalDate getLocalDate(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getLocalDate(index);
-    }
-
     LocalDate getLocalDate(int index) throws SQLException {
+        if (index == 0) return null;
         return resultSet.getObject(index, LocalDate.class);
     }
 
-    ZonedDateTime getZonedDateTime(String column) throws SQLException {
-        Integer index = index(column);
-        if (index == null) return null;
-        return getZonedDateTime(index);
-    }
-
     ZonedDateTime getZonedDateTime(int index) throws SQLException {
+        if (index == 0) return null;
         // in mysql driver, getObject(type) is faster than getTimestamp/getDate due to "synchronized calendar"
         // hsql doesn't support ZonedDateTime, use OffsetDateTime for both mysql and hsql
         OffsetDateTime time = resultSet.getObject(index, OffsetDateTime.class);
@@ -18,6 +18,11 @@ interface RowMapper<T> {
 
     T map(ResultSetWrapper resultSet) throws SQLException;
 
+    // columns read by generated row mapper, null if mapper reads by index directly
+    default String[] columns() {
+        return null;
+    }
+
     class StringRowMapper implements RowMapper<String> {
         @Override
         public String map(ResultSetWrapper resultSet) throws SQLException {
@@ -10,6 +10,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static core.framework.internal.asm.Literal.type;
 import static core.framework.internal.asm.Literal.variable;
@@ -21,6 +23,7 @@ final class RowMapperBuilder<T> {
     final DynamicInstanceBuilder<RowMapper<T>> builder;
     private final Class<T> entityClass;
     private final EnumDBMapper enumDBMapper;
+    private final List<String> columns = new ArrayList<>();
 
     RowMapperBuilder(Class<T> entityClass, EnumDBMapper enumDBMapper) {
         this.entityClass = entityClass;
@@ -29,45 +32,50 @@ final class RowMapperBuilder<T> {
     }
 
     RowMapper<T> build() {
+        builder.addField("private final String[] columns;");
+        builder.constructor(new Class<?>[]{String[].class}, "this.columns = $1;");
         builder.addMethod(mapMethod());
-        return builder.build();
+        builder.addMethod("public String[] columns() {\n    return columns;\n}");
+        return builder.build((Object) columns.toArray(String[]::new));
     }
 
     private String mapMethod() {
         var builder = new CodeBuilder().append("public Object map({} resultSet) {\n", type(ResultSetWrapper.class));
         String entityClassLiteral = type(entityClass);
         builder.indent(1).append("{} entity = new {}();\n", entityClassLiteral, entityClassLiteral);
+        builder.indent(1).append("int[] indexes = resultSet.columnIndexes;\n");
 
         for (Field field : Classes.instanceFields(entityClass)) {
             String fieldName = field.getName();
             Class<?> fieldClass = field.getType();
             Column column = field.getDeclaredAnnotation(Column.class);
-            String columnName = column.name();
+            String index = "indexes[" + columns.size() + "]";
+            columns.add(column.name());
 
             if (Integer.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getInt(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getInt({});\n", fieldName, index);
             } else if (String.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getString(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getString({});\n", fieldName, index);
             } else if (Boolean.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getBoolean(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getBoolean({});\n", fieldName, index);
             } else if (Long.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getLong(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getLong({});\n", fieldName, index);
             } else if (LocalDateTime.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getLocalDateTime(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getLocalDateTime({});\n", fieldName, index);
             } else if (LocalDate.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getLocalDate(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getLocalDate({});\n", fieldName, index);
             } else if (ZonedDateTime.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getZonedDateTime(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getZonedDateTime({});\n", fieldName, index);
             } else if (fieldClass.isEnum()) {
                 registerEnumClass(fieldClass);
                 this.builder.addField("private final {} {}Mappings = new {}({});", type(DBEnumMapper.class), fieldName, type(DBEnumMapper.class), variable(fieldClass));
-                builder.indent(1).append("entity.{} = ({}){}Mappings.getEnum(resultSet.getString(\"{}\"));\n", fieldName, type(fieldClass), fieldName, columnName);
+                builder.indent(1).append("entity.{} = ({}){}Mappings.getEnum(resultSet.getString({}));\n", fieldName, type(fieldClass), fieldName, index);
             } else if (Double.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getDouble(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getDouble({});\n", fieldName, index);
             } else if (BigDecimal.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getBigDecimal(\"{}\");\n", fieldName, columnName);
+                builder.indent(1).append("entity.{} = resultSet.getBigDecimal({});\n", fieldName, index);
             } else if (column.json()) {
-                builder.indent(1).append("entity.{} = ({}) {}.fromJSON(resultSet.getString(\"{}\"), {});\n", fieldName, type(field.getType()), type(JSONHelper.class), columnName, variable(field.getGenericType()));
+                builder.indent(1).append("entity.{} = ({}) {}.fromJSON(resultSet.getString({}), {});\n", fieldName, type(field.getType()), type(JSONHelper.class), index, variable(field.getGenericType()));
             }
         }
         builder.indent(1).append("return entity;\n");
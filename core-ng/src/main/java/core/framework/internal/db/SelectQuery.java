@@ -4,8 +4,11 @@ import core.framework.db.Column;
 import core.framework.db.PrimaryKey;
 import core.framework.db.Table;
 import core.framework.internal.reflect.Classes;
+import core.framework.util.Strings;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,6 +19,7 @@ final class SelectQuery<T> {
     final Dialect dialect;
     private final String table;
     private final String columns;
+    private final List<String> primaryKeyColumnNames = new ArrayList<>();
     int primaryKeyColumns;
 
     SelectQuery(Class<T> entityClass, Dialect dialect) {
@@ -34,6 +38,7 @@ final class SelectQuery<T> {
                 Column column = field.getDeclaredAnnotation(Column.class);
                 if (primaryKeyColumns > 0) builder.append(" AND ");
                 builder.append(column.name()).append(" = ?");
+                primaryKeyColumnNames.add(column.name());
                 primaryKeyColumns++;
             }
         }
@@ -52,6 +57,31 @@ final class SelectQuery<T> {
         return builder.toString();
     }
 
+    // single column key uses "id IN (?, ?)", composite key uses row value "(id1, id2) IN ((?, ?), (?, ?))", which both mysql and postgresql support with index range
+    String getAllSQL(int size) {
+        var builder = new StringBuilder(64 + size * (primaryKeyColumns * 3 + 4));
+        builder.append("SELECT ").append(columns).append(" FROM ").append(table).append(" WHERE ");
+        if (primaryKeyColumns == 1) {
+            builder.append(primaryKeyColumnNames.getFirst()).append(" IN (");
+        } else {
+            builder.append('(').append(String.join(", ", primaryKeyColumnNames)).append(") IN (");
+        }
+        for (int i = 0; i < size; i++) {
+            if (i > 0) builder.append(", ");
+            if (primaryKeyColumns == 1) {
+                builder.append('?');
+            } else {
+                builder.append('(');
+                for (int j = 0; j < primaryKeyColumns; j++) {
+                    if (j > 0) builder.append(", ");
+                    builder.append('?');
+                }
+                builder.append(')');
+            }
+        }
+        return builder.append(')').toString();
+    }
+
     String fetchSQL(StringBuilder where, String sort, Integer skip, Integer limit) {
         return sql(columns, where, null, sort, skip, limit);
     }
@@ -72,6 +102,54 @@ final class SelectQuery<T> {
         return builder.toString();
     }
 
+    // keyset pagination, seek rows after lastKey in order of sort, e.g. sort="created_time DESC, id DESC", sort columns must be not null and unique together,
+    // postgresql compares row value if all columns are in same direction, which seeks index directly,
+    // otherwise expands to leading column bound with OR of each column, e.g. "a >= ? AND (a > ? OR (a = ? AND b > ?))", which mysql range optimizer handles reliably
+    String afterCondition(String sort, Object[] lastKey, List<Object> params) {
+        String[] columns = sort.split(",");
+        if (columns.length != lastKey.length)
+            throw new Error(Strings.format("the length of last key does not match sort columns, sort={}, lastKey={}", sort, Arrays.toString(lastKey)));
+        var operators = new String[columns.length];
+        boolean sameDirection = true;
+        for (int i = 0; i < columns.length; i++) {
+            String[] parts = columns[i].trim().split("\\s+");
+            boolean desc = parts.length == 2 && "DESC".equalsIgnoreCase(parts[1]);
+            if (parts.length > 2 || parts.length == 2 && !desc && !"ASC".equalsIgnoreCase(parts[1]))
+                throw new Error("sort must be columns with optional ASC/DESC for keyset pagination, sort=" + sort);
+            columns[i] = parts[0];
+            operators[i] = desc ? " < ?" : " > ?";
+            if (!operators[i].equals(operators[0])) sameDirection = false;
+        }
+        var builder = new StringBuilder(64);
+        if (columns.length == 1) {
+            builder.append(columns[0]).append(operators[0]);
+            params.add(lastKey[0]);
+        } else if (dialect == Dialect.POSTGRESQL && sameDirection) {
+            builder.append('(').append(String.join(", ", columns)).append(") ").append(operators[0], 1, 2).append(" (");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) builder.append(", ");
+                builder.append('?');
+                params.add(lastKey[i]);
+            }
+            builder.append(')');
+        } else {
+            builder.append(columns[0]).append(operators[0], 0, 2).append("= ? AND (");
+            params.add(lastKey[0]);
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) builder.append(" OR (");
+                for (int j = 0; j < i; j++) {
+                    builder.append(columns[j]).append(" = ? AND ");
+                    params.add(lastKey[j]);
+                }
+                builder.append(columns[i]).append(operators[i]);
+                params.add(lastKey[i]);
+                if (i > 0) builder.append(')');
+            }
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+
     Object[] params(List<Object> params, Integer skip, Integer limit) {
         if (skip != null && limit == null) throw new Error("limit must not be null if skip is not, skip=" + skip);
         if (skip == null && limit == null) return params.toArray();
@@ -2,14 +2,20 @@ package core.framework.internal.db;
 
 import core.framework.db.Transaction;
 import core.framework.db.UncheckedSQLException;
+import core.framework.internal.log.ActionLog;
+import core.framework.internal.log.LogManager;
 import core.framework.internal.resource.Pool;
 import core.framework.internal.resource.PoolItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author neo
@@ -19,7 +25,9 @@ public final class TransactionManager {
     private static final ThreadLocal<TransactionState> CURRENT_TRANSACTION_STATE = new ThreadLocal<>();
 
     private final Logger logger = LoggerFactory.getLogger(TransactionManager.class);
+    final List<Pool<Connection>> replicas = new ArrayList<>();     // only added during configuration
     private final Pool<Connection> pool;
+    private final AtomicInteger nextReplica = new AtomicInteger();
     public long longTransactionThresholdInNanos = Duration.ofSeconds(5).toNanos();
 
     TransactionManager(Pool<Connection> pool) {
@@ -43,6 +51,39 @@ public final class TransactionManager {
             returnConnectionToPool(connection, false);
     }
 
+    // read outside transaction goes to replica with least active connections, start position rotates to spread load when replicas are equally busy,
+    // return null to read from primary, e.g. no replica, within transaction, or current action requires to read its own writes
+    @Nullable
+    Pool<Connection> replica() {
+        int size = replicas.size();
+        if (size == 0 || CURRENT_CONNECTION.get() != null) return null;
+        ActionLog actionLog = LogManager.CURRENT_ACTION_LOG.get();
+        if (actionLog != null && actionLog.readFromPrimaryDB) return null;
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        Pool<Connection> result = null;
+        int minActiveCount = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Pool<Connection> replica = replicas.get((start + i) % size);
+            int activeCount = replica.activeCount();
+            if (activeCount < minActiveCount) {
+                result = replica;
+                minActiveCount = activeCount;
+            }
+        }
+        return result;
+    }
+
+    PoolItem<Connection> getReadConnection(@Nullable Pool<Connection> replica) {
+        if (replica == null) return getConnection();
+        return replica.borrowItem();
+    }
+
+    void returnReadConnection(@Nullable Pool<Connection> replica, PoolItem<Connection> connection) {
+        if (replica == null) returnConnection(connection);
+        else replica.returnItem(connection);
+    }
+
     Transaction beginTransaction() {
         if (CURRENT_CONNECTION.get() != null) throw new Error("nested transaction is not supported");
 
@@ -41,6 +41,7 @@ public final class ActionLog {
     public List<String> clients;
     public List<String> refIds;
     public String errorMessage;
+    public boolean readFromPrimaryDB;   // route db reads of current action to primary, even there are replicas
     long elapsed;
     private String errorCode;
 
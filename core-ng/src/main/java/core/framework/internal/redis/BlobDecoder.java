@@ -0,0 +1,21 @@
+package core.framework.internal.redis;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * decode blob string reply in place, without copying into intermediate byte array,
+ * blob fits in read buffer is passed as range of buffer, which is only valid during decoding,
+ * larger blob is passed as stream bounded to blob, reads from buffer then socket directly
+ *
+ * @author neo
+ */
+@FunctionalInterface
+public interface BlobDecoder<T> {
+    T decode(byte[] buffer, int offset, int length) throws IOException;
+
+    default T decode(InputStream stream, int length) throws IOException {
+        byte[] bytes = stream.readNBytes(length);
+        return decode(bytes, 0, bytes.length);
+    }
+}
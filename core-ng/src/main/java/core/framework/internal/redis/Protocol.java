@@ -2,10 +2,15 @@ package core.framework.internal.redis;
 
 import core.framework.util.Strings;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * refer to https://github.com/antirez/RESP3/blob/master/spec.md, currently only support RESP2
+ * refer to https://github.com/antirez/RESP3/blob/master/spec.md,
+ * RESP3 types are parsed into same shape as RESP2, map/set as flat array, double/big number as blob string, boolean as 1/0, so commands work with both protocols
  */
 final class Protocol {
     private static final byte BLOB_STRING_BYTE = '$';
@@ -13,6 +18,17 @@ final class Protocol {
     private static final byte SIMPLE_ERROR_BYTE = '-';
     private static final byte NUMBER_BYTE = ':';
     private static final byte ARRAY_BYTE = '*';
+    private static final byte NULL_BYTE = '_';
+    private static final byte DOUBLE_BYTE = ',';
+    private static final byte BOOLEAN_BYTE = '#';
+    private static final byte BLOB_ERROR_BYTE = '!';
+    private static final byte VERBATIM_STRING_BYTE = '=';
+    private static final byte BIG_NUMBER_BYTE = '(';
+    private static final byte MAP_BYTE = '%';
+    private static final byte SET_BYTE = '~';
+    private static final byte ATTRIBUTE_BYTE = '|';
+    private static final byte PUSH_BYTE = '>';
+    private static final byte[] MESSAGE = Strings.bytes("message");
 
     static void writeArray(RedisOutputStream stream, int length) throws IOException {
         stream.write(ARRAY_BYTE);
@@ -26,11 +42,66 @@ final class Protocol {
     }
 
     static Object read(RedisInputStream stream) throws IOException {
-        return parseObject(stream);
+        while (true) {
+            Object value = parseObject(stream);
+            if (!(value instanceof Push)) return value;     // push is out of band with RESP3, e.g. tracking-redir-broken, skip on command connection
+        }
+    }
+
+    // read next push with RESP3, e.g. invalidation of client side caching
+    static Object[] readPush(RedisInputStream stream) throws IOException {
+        Object value = parseObject(stream);
+        if (value instanceof Push push) return push.values();
+        throw new IOException("unexpected redis reply, expect push");
+    }
+
+    // decode blob string reply in place, other replies are parsed as usual, e.g. error or null
+    static <T> T readBlob(RedisInputStream stream, BlobDecoder<T> decoder) throws IOException {
+        while (true) {
+            byte firstByte = stream.readByte();
+            if (firstByte == BLOB_STRING_BYTE) {
+                int length = (int) stream.readLong();
+                if (length == -1) return null;
+                return stream.readBlob(length, decoder);
+            }
+            Object value = parseObject(stream, firstByte);
+            if (value instanceof Push) continue;
+            if (value == null) return null;
+            if (value instanceof byte[] bytes) return decoder.decode(bytes, 0, bytes.length);  // e.g. verbatim string of RESP3
+            throw new IOException("unexpected redis reply, expect blob string");
+        }
+    }
+
+    // decode each blob string of array reply in place, e.g. MGET
+    static <T> List<T> readBlobs(RedisInputStream stream, BlobDecoder<T> decoder) throws IOException {
+        while (true) {
+            byte firstByte = stream.readByte();
+            if (firstByte == ARRAY_BYTE) {
+                int length = (int) stream.readLong();
+                if (length == -1) return null;
+                List<T> values = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    values.add(readBlob(stream, decoder));
+                }
+                return values;
+            }
+            Object value = parseObject(stream, firstByte);
+            if (!(value instanceof Push)) throw new IOException("unexpected redis reply, expect array");
+        }
+    }
+
+    // subscribed connection receives pushes in format of ["message", channel, payload], other pushes, e.g. ["subscribe", channel, count], return null
+    @Nullable
+    static Message parseMessage(Object[] push) {
+        if (push == null || push.length != 3 || !Arrays.equals(MESSAGE, (byte[]) push[0])) return null;
+        return new Message(RedisEncodings.decode((byte[]) push[1]), (byte[]) push[2]);
     }
 
     private static Object parseObject(RedisInputStream stream) throws IOException {
-        byte firstByte = stream.readByte();
+        return parseObject(stream, stream.readByte());
+    }
+
+    private static Object parseObject(RedisInputStream stream, byte firstByte) throws IOException {
         return switch (firstByte) {
             case SIMPLE_STRING_BYTE -> stream.readSimpleString();
             case BLOB_STRING_BYTE -> parseBlobString(stream);
@@ -40,10 +111,41 @@ final class Protocol {
                 String message = stream.readSimpleString();
                 throw new RedisException(message);
             }
+            case NULL_BYTE -> {
+                stream.readCRLF();
+                yield null;
+            }
+            case DOUBLE_BYTE, BIG_NUMBER_BYTE -> Strings.bytes(stream.readSimpleString());
+            case BOOLEAN_BYTE -> "t".equals(stream.readSimpleString()) ? 1L : 0L;
+            case BLOB_ERROR_BYTE -> throw new RedisException(RedisEncodings.decode(parseBlobString(stream)));
+            case VERBATIM_STRING_BYTE -> parseVerbatimString(stream);
+            case SET_BYTE -> parseArray(stream);
+            case MAP_BYTE -> parseMap(stream);
+            case PUSH_BYTE -> new Push(parseArray(stream));
+            case ATTRIBUTE_BYTE -> {
+                parseMap(stream);   // attribute is auxiliary info of following reply, not used
+                yield parseObject(stream);
+            }
             default -> throw new IOException("unknown redis response, firstByte=" + (char) firstByte);
         };
     }
 
+    // verbatim string is in format of "txt:value" or "mkd:value"
+    private static byte[] parseVerbatimString(RedisInputStream stream) throws IOException {
+        byte[] value = parseBlobString(stream);
+        if (value == null || value.length < 4) throw new IOException("invalid verbatim string");
+        return Arrays.copyOfRange(value, 4, value.length);
+    }
+
+    private static Object[] parseMap(RedisInputStream stream) throws IOException {
+        int length = (int) stream.readLong();
+        var array = new Object[length * 2];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = parseObject(stream);
+        }
+        return array;
+    }
+
     private static byte[] parseBlobString(RedisInputStream stream) throws IOException {
         int length = (int) stream.readLong();
         if (length == -1) return null;
@@ -62,6 +164,12 @@ final class Protocol {
         return array;
     }
 
+    record Message(String channel, byte[] payload) {
+    }
+
+    record Push(Object[] values) {
+    }
+
     static class Command {
         static final byte[] AUTH = Strings.bytes("AUTH");
         static final byte[] INFO = Strings.bytes("INFO");
@@ -69,11 +177,21 @@ final class Protocol {
         static final byte[] GET = Strings.bytes("GET");
         static final byte[] SET = Strings.bytes("SET");
         static final byte[] PEXPIRE = Strings.bytes("PEXPIRE");
+        static final byte[] PTTL = Strings.bytes("PTTL");
         static final byte[] DEL = Strings.bytes("DEL");
         static final byte[] INCRBY = Strings.bytes("INCRBY");
         static final byte[] MGET = Strings.bytes("MGET");
         static final byte[] MSET = Strings.bytes("MSET");
         static final byte[] SCAN = Strings.bytes("SCAN");
+        static final byte[] PUBLISH = Strings.bytes("PUBLISH");
+        static final byte[] SUBSCRIBE = Strings.bytes("SUBSCRIBE");
+        static final byte[] HELLO = Strings.bytes("HELLO");
+        static final byte[] CLIENT = Strings.bytes("CLIENT");
+        static final byte[] EVAL = Strings.bytes("EVAL");
+        static final byte[] EVALSHA = Strings.bytes("EVALSHA");
+        static final byte[] SCRIPT = Strings.bytes("SCRIPT");
+        static final byte[] CLUSTER = Strings.bytes("CLUSTER");
+        static final byte[] ASKING = Strings.bytes("ASKING");
 
         static final byte[] HGET = Strings.bytes("HGET");
         static final byte[] HGETALL = Strings.bytes("HGETALL");
@@ -82,6 +200,7 @@ final class Protocol {
         static final byte[] HDEL = Strings.bytes("HDEL");
         static final byte[] HINCRBY = Strings.bytes("HINCRBY");
         static final byte[] HPEXPIRE = Strings.bytes("HPEXPIRE");
+        static final byte[] HSCAN = Strings.bytes("HSCAN");
 
         static final byte[] PFADD = Strings.bytes("PFADD");
         static final byte[] PFCOUNT = Strings.bytes("PFCOUNT");
@@ -92,6 +211,7 @@ final class Protocol {
         static final byte[] SREM = Strings.bytes("SREM");
         static final byte[] SPOP = Strings.bytes("SPOP");
         static final byte[] SCARD = Strings.bytes("SCARD");
+        static final byte[] SSCAN = Strings.bytes("SSCAN");
 
         static final byte[] LRANGE = Strings.bytes("LRANGE");
         static final byte[] RPUSH = Strings.bytes("RPUSH");
@@ -103,6 +223,15 @@ final class Protocol {
         static final byte[] ZRANGE = Strings.bytes("ZRANGE");
         static final byte[] ZREM = Strings.bytes("ZREM");
         static final byte[] ZPOPMIN = Strings.bytes("ZPOPMIN");
+        static final byte[] ZSCAN = Strings.bytes("ZSCAN");
+
+        static final byte[] XADD = Strings.bytes("XADD");
+        static final byte[] XLEN = Strings.bytes("XLEN");
+        static final byte[] XACK = Strings.bytes("XACK");
+        static final byte[] XGROUP = Strings.bytes("XGROUP");
+        static final byte[] XREADGROUP = Strings.bytes("XREADGROUP");
+        static final byte[] XAUTOCLAIM = Strings.bytes("XAUTOCLAIM");
+        static final byte[] XINFO = Strings.bytes("XINFO");
     }
 
     static class Keyword {
@@ -114,5 +243,22 @@ final class Protocol {
         static final byte[] WITHSCORES = Strings.bytes("WITHSCORES");
         static final byte[] BYSCORE = Strings.bytes("BYSCORE");
         static final byte[] FIELDS = Strings.bytes("FIELDS");
+        static final byte[] LOAD = Strings.bytes("LOAD");
+        static final byte[] ID = Strings.bytes("ID");
+        static final byte[] TRACKING = Strings.bytes("TRACKING");
+        static final byte[] ON = Strings.bytes("ON");
+        static final byte[] REDIRECT = Strings.bytes("REDIRECT");
+        static final byte[] MAXLEN = Strings.bytes("MAXLEN");
+        static final byte[] APPROXIMATELY = Strings.bytes("~");
+        static final byte[] AUTO_ID = Strings.bytes("*");
+        static final byte[] GROUP = Strings.bytes("GROUP");
+        static final byte[] GROUPS = Strings.bytes("GROUPS");
+        static final byte[] CREATE = Strings.bytes("CREATE");
+        static final byte[] MKSTREAM = Strings.bytes("MKSTREAM");
+        static final byte[] LAST_ID = Strings.bytes("$");
+        static final byte[] BLOCK = Strings.bytes("BLOCK");
+        static final byte[] STREAMS = Strings.bytes("STREAMS");
+        static final byte[] UNDELIVERED = Strings.bytes(">");
+        static final byte[] SLOTS = Strings.bytes("SLOTS");
     }
 }
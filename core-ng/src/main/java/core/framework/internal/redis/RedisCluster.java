@@ -0,0 +1,331 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.async.ThreadPools;
+import core.framework.internal.resource.Pool;
+import core.framework.internal.resource.PoolItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static core.framework.internal.redis.Protocol.Command.ASKING;
+import static core.framework.internal.redis.Protocol.Command.CLUSTER;
+import static core.framework.internal.redis.Protocol.Keyword.SLOTS;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * route commands to nodes of redis cluster, key is mapped to one of 16384 slots by CRC16 of key or its hash tag, slot map is loaded by CLUSTER SLOTS,
+ * each node has its own pool, commands of one flush are sent to each node as pipeline, and to multiple nodes in parallel,
+ * MOVED updates slot map, ASK redirects single command during slot migration, refer to https://redis.io/docs/reference/cluster-spec/
+ *
+ * @author neo
+ */
+public final class RedisCluster {
+    static final int SLOTS_SIZE = 16384;
+    private static final int MAX_REDIRECTS = 5;
+    private static final int[] CRC16_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {     // CRC16-CCITT (XMODEM), polynomial 0x1021
+            int crc = i << 8;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+            CRC16_TABLE[i] = crc & 0xFFFF;
+        }
+    }
+
+    // only part within first {...} is hashed if not empty, to put related keys into same slot, e.g. {user1}:profile and {user1}:orders
+    static int slot(byte[] key) {
+        int start = 0;
+        int end = key.length;
+        int open = indexOf(key, (byte) '{', 0);
+        if (open >= 0) {
+            int close = indexOf(key, (byte) '}', open + 1);
+            if (close > open + 1) {
+                start = open + 1;
+                end = close;
+            }
+        }
+        int crc = 0;
+        for (int i = start; i < end; i++) {
+            crc = ((crc << 8) ^ CRC16_TABLE[((crc >>> 8) ^ key[i]) & 0xFF]) & 0xFFFF;
+        }
+        return crc & (SLOTS_SIZE - 1);
+    }
+
+    private static int indexOf(byte[] key, byte value, int from) {
+        for (int i = from; i < key.length; i++) {
+            if (key[i] == value) return i;
+        }
+        return -1;
+    }
+
+    final AtomicLong redirects = new AtomicLong();
+    final Map<String, Node> nodes = new LinkedHashMap<>();   // host:port -> node, guarded by this
+    private final Logger logger = LoggerFactory.getLogger(RedisCluster.class);
+    private final String name;
+    private final List<RedisHost> seeds;
+    private final RedisConnectionFactory factory;
+    private final ExecutorService executor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Node[] slots;
+    private int minSize = 5;
+    private int maxSize = 50;
+
+    RedisCluster(String name, List<RedisHost> seeds, RedisConnectionFactory factory) {
+        this.name = name;
+        this.seeds = seeds;
+        this.factory = factory;
+        executor = ThreadPools.virtualThreadExecutor(name + "-cluster-");
+    }
+
+    RedisConnection connection() {
+        return new RedisClusterConnection(this);
+    }
+
+    // node pools hold physical connections, apply to nodes created afterward
+    public void size(int minSize, int maxSize) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    // slot is -1 for keyless commands, which can be sent to any node
+    void execute(List<Request> requests) throws IOException {
+        Node[] slots = slots();
+        Map<Node, List<Request>> batches = new LinkedHashMap<>();
+        for (Request request : requests) {
+            batches.computeIfAbsent(node(slots, request.slot), key -> new ArrayList<>()).add(request);
+        }
+        if (batches.size() == 1) {
+            Map.Entry<Node, List<Request>> batch = batches.entrySet().iterator().next();
+            send(batch.getKey(), batch.getValue());
+        } else {
+            List<Future<Void>> futures = new ArrayList<>(batches.size());
+            for (Map.Entry<Node, List<Request>> batch : batches.entrySet()) {
+                futures.add(executor.submit(() -> {
+                    send(batch.getKey(), batch.getValue());
+                    return null;
+                }));
+            }
+            await(futures);
+        }
+        for (Request request : requests) {
+            redirect(request);
+        }
+    }
+
+    private void await(List<Future<Void>> futures) throws IOException {
+        IOException exception = null;
+        for (Future<Void> future : futures) {   // wait all to make sure every node connection is returned
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+                if (cause instanceof Error error) throw error;
+                exception = cause instanceof IOException ioException ? ioException : new IOException(cause);
+            } catch (InterruptedException e) {
+                throw new IOException("interrupted", e);
+            }
+        }
+        if (exception != null) throw exception;
+    }
+
+    private void send(Node node, List<Request> requests) throws IOException {
+        PoolItem<RedisConnection> item = node.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            for (Request request : requests) {
+                if (request.asking) {
+                    connection.writeArray(1);
+                    connection.writeBlobString(ASKING);
+                }
+                connection.writeArray(request.command.length);
+                for (byte[] argument : request.command) {
+                    connection.writeBlobString(argument);
+                }
+            }
+            connection.flush();
+            for (Request request : requests) {
+                if (request.asking) connection.readSimpleString();
+                try {
+                    request.reply = connection.read();
+                } catch (RedisException e) {
+                    request.reply = e;
+                }
+            }
+        } catch (IOException e) {
+            item.broken = true;
+            throw e;
+        } finally {
+            node.pool.returnItem(item);
+        }
+    }
+
+    // error format is "MOVED 3999 127.0.0.1:6381" or "ASK 3999 127.0.0.1:6381"
+    private void redirect(Request request) throws IOException {
+        for (int i = 0; i < MAX_REDIRECTS && request.reply instanceof RedisException exception; i++) {
+            String message = exception.getMessage();
+            boolean moved = message != null && message.startsWith("MOVED ");
+            boolean ask = message != null && message.startsWith("ASK ");
+            if (!moved && !ask) return;
+            redirects.incrementAndGet();
+            String[] parts = message.split(" ");
+            Node node = node(new RedisHost(parts[2]));
+            if (moved) moved(Integer.parseInt(parts[1]), node);
+            request.asking = ask;   // ASKING is only valid for next command, slot map is not updated until migration completes
+            send(node, List.of(request));
+            request.asking = false;
+        }
+    }
+
+    private void moved(int slot, Node node) {
+        logger.debug("slot moved, slot={}, node={}", slot, node.host);
+        slots[slot] = node;
+        if (refreshing.compareAndSet(false, true)) {    // resharding moves slots in batch, reload whole slot map in background
+            executor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    private Node node(Node[] slots, int slot) throws IOException {
+        Node node = slots[slot < 0 ? ThreadLocalRandom.current().nextInt(SLOTS_SIZE) : slot];
+        if (node == null) throw new IOException("slot is not served by any node, slot=" + slot);
+        return node;
+    }
+
+    private Node[] slots() throws IOException {
+        Node[] slots = this.slots;
+        if (slots != null) return slots;
+        synchronized (this) {
+            if (this.slots == null) this.slots = loadSlots();
+            return this.slots;
+        }
+    }
+
+    // reload slot map and evict idle connections of node pools, called by background task
+    public void refresh() {
+        try {
+            Node[] slots = loadSlots();
+            this.slots = slots;
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn(errorCode("REDIS_CLUSTER_REFRESH_FAILED"), "failed to refresh redis cluster slots, name={}", name, e);
+        }
+        for (Node node : nodes()) {
+            node.pool.refresh();
+        }
+    }
+
+    private Node[] loadSlots() throws IOException {
+        Map<String, RedisHost> hosts = new LinkedHashMap<>();     // try seeds first, then known nodes, in case seeds were removed from cluster
+        for (RedisHost seed : seeds) hosts.putIfAbsent(seed.host + ':' + seed.port, seed);
+        for (Node node : nodes()) hosts.putIfAbsent(node.host.host + ':' + node.host.port, node.host);
+        Exception lastException = null;
+        for (RedisHost host : hosts.values()) {
+            try {
+                Node[] slots = parseSlots(querySlots(node(host)), host);
+                logger.info("load redis cluster slots, name={}, host={}, nodes={}", name, host, nodes().size());
+                return slots;
+            } catch (IOException | UncheckedIOException e) {
+                logger.warn("failed to load redis cluster slots, host={}", host, e);
+                lastException = e;
+            }
+        }
+        throw new IOException("failed to load redis cluster slots from all nodes, name=" + name, lastException);
+    }
+
+    private Object[] querySlots(Node node) throws IOException {
+        PoolItem<RedisConnection> item = node.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(2);
+            connection.writeBlobString(CLUSTER);
+            connection.writeBlobString(SLOTS);
+            connection.flush();
+            return connection.readArray();
+        } catch (IOException e) {
+            item.broken = true;
+            throw e;
+        } finally {
+            node.pool.returnItem(item);
+        }
+    }
+
+    // each entry is in format of [start, end, [host, port, id, ...], replicas...], empty host means same host of queried node
+    Node[] parseSlots(Object[] response, RedisHost queriedHost) {
+        var slots = new Node[SLOTS_SIZE];
+        for (Object value : response) {
+            Object[] entry = (Object[]) value;
+            int start = (int) (long) entry[0];
+            int end = (int) (long) entry[1];
+            Object[] primary = (Object[]) entry[2];
+            String host = decode((byte[]) primary[0]);
+            if (host.isEmpty() || "?".equals(host)) host = queriedHost.host;
+            Node node = node(new RedisHost(host + ':' + primary[1]));
+            for (int slot = start; slot <= end; slot++) {
+                slots[slot] = node;
+            }
+        }
+        return slots;
+    }
+
+    synchronized Node node(RedisHost host) {
+        return nodes.computeIfAbsent(host.host + ':' + host.port, key -> {
+            var pool = new Pool<>(() -> factory.connect(host), name + "-" + key);
+            pool.size(minSize, maxSize);
+            pool.maxIdleTime = Duration.ofMinutes(30);
+            pool.checkoutTimeout(Duration.ofMillis(factory.timeoutInMs));
+            return new Node(host, pool);
+        });
+    }
+
+    synchronized int nodeCount() {
+        return nodes.size();
+    }
+
+    private synchronized List<Node> nodes() {
+        return new ArrayList<>(nodes.values());
+    }
+
+    public void close() {
+        logger.info("close redis cluster, name={}", name);
+        executor.shutdown();
+        for (Node node : nodes()) {
+            node.pool.close();
+        }
+    }
+
+    record Node(RedisHost host, Pool<RedisConnection> pool) {
+    }
+
+    static final class Request {
+        final byte[][] command;
+        final int slot;
+        Object reply;   // RedisException if failed
+        boolean asking;
+
+        Request(byte[][] command, int slot) {
+            this.command = command;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.redis.RedisCluster.Request;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static core.framework.internal.redis.Protocol.Command.AUTH;
+import static core.framework.internal.redis.Protocol.Command.CLIENT;
+import static core.framework.internal.redis.Protocol.Command.DEL;
+import static core.framework.internal.redis.Protocol.Command.EVAL;
+import static core.framework.internal.redis.Protocol.Command.EVALSHA;
+import static core.framework.internal.redis.Protocol.Command.HELLO;
+import static core.framework.internal.redis.Protocol.Command.INFO;
+import static core.framework.internal.redis.Protocol.Command.MGET;
+import static core.framework.internal.redis.Protocol.Command.MSET;
+import static core.framework.internal.redis.Protocol.Command.PUBLISH;
+import static core.framework.internal.redis.Protocol.Command.SCAN;
+import static core.framework.internal.redis.Protocol.Command.SCRIPT;
+import static core.framework.internal.redis.RedisEncodings.decode;
+
+/**
+ * lightweight connection borrowed from pool by each caller, commands are buffered until flush, then routed to node pools by slot of key,
+ * multi key commands (MGET/MSET/DEL) are split by slot, and replies are merged back, so caller gets one reply per command as with single redis
+ *
+ * @author neo
+ */
+final class RedisClusterConnection extends RedisConnection {
+    private static final Object NULL = new Object();     // ArrayDeque doesn't accept null
+
+    private final RedisCluster cluster;
+    private final List<byte[][]> commands = new ArrayList<>();
+    private final Queue<Object> replies = new ArrayDeque<>();
+    private byte[][] command;
+    private int index;
+
+    RedisClusterConnection(RedisCluster cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    void writeArray(int length) {
+        command = new byte[length][];
+        index = 0;
+        commands.add(command);
+    }
+
+    @Override
+    void writeBlobString(byte[] value) {
+        command[index++] = value;
+    }
+
+    @Override
+    void flush() throws IOException {
+        try {
+            List<Split> splits = new ArrayList<>(commands.size());
+            List<Request> requests = new ArrayList<>(commands.size());
+            for (byte[][] command : commands) {
+                Split split = split(command);
+                splits.add(split);
+                requests.addAll(split.requests);
+            }
+            cluster.execute(requests);
+            for (Split split : splits) {
+                Object reply = split.merge();
+                replies.add(reply == null ? NULL : reply);
+            }
+        } finally {
+            commands.clear();
+        }
+    }
+
+    @Override
+    void readTimeout(int timeoutInMs) {
+        throw new Error("cluster connection does not support changing read timeout");
+    }
+
+    @Override
+    <T> T readBlob(BlobDecoder<T> decoder) throws IOException {    // reply is already parsed by node connection
+        byte[] value = (byte[]) read();
+        return value == null ? null : decoder.decode(value, 0, value.length);
+    }
+
+    @Override
+    <T> List<T> readBlobs(BlobDecoder<T> decoder) throws IOException {
+        Object[] values = (Object[]) read();
+        if (values == null) return null;
+        List<T> results = new ArrayList<>(values.length);
+        for (Object value : values) {
+            results.add(value instanceof byte[] bytes ? decoder.decode(bytes, 0, bytes.length) : null);
+        }
+        return results;
+    }
+
+    @Override
+    Object read() {      // all other read methods call this
+        Object reply = replies.poll();
+        if (reply == null) throw new Error("no command submitted");
+        if (reply == NULL) return null;
+        if (reply instanceof RedisException e) throw new RedisException(e.getMessage());    // throw within caller thread to keep stack trace
+        return reply;
+    }
+
+    Split split(byte[][] command) {
+        byte[] name = command[0];
+        if ((name == MGET || name == DEL) && command.length > 2) return splitKeys(command, 1);
+        if (name == MSET && command.length > 3) return splitKeys(command, 2);
+        return new Split(name, List.of(new Request(command, slot(command))), null);
+    }
+
+    // group keys (or key value pairs of MSET) by slot, in order of first appearance
+    private Split splitKeys(byte[][] command, int entrySize) {
+        Map<Integer, List<Integer>> slots = new LinkedHashMap<>();
+        for (int i = 1; i < command.length; i += entrySize) {
+            slots.computeIfAbsent(RedisCluster.slot(command[i]), key -> new ArrayList<>()).add(i);
+        }
+        if (slots.size() == 1) return new Split(command[0], List.of(new Request(command, slots.keySet().iterator().next())), null);
+
+        List<Request> requests = new ArrayList<>(slots.size());
+        List<List<Integer>> positions = new ArrayList<>(slots.size());
+        for (Map.Entry<Integer, List<Integer>> entry : slots.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            var subCommand = new byte[1 + indexes.size() * entrySize][];
+            subCommand[0] = command[0];
+            int i = 1;
+            for (int index : indexes) {
+                for (int j = 0; j < entrySize; j++) {
+                    subCommand[i++] = command[index + j];
+                }
+            }
+            requests.add(new Request(subCommand, entry.getKey()));
+            positions.add(indexes);
+        }
+        return new Split(command[0], requests, positions);
+    }
+
+    private int slot(byte[][] command) {
+        byte[] name = command[0];
+        if (name == SCAN) throw new Error("keyspace scan is not supported with redis cluster, keys are distributed to multiple nodes");
+        if (name == INFO || name == SCRIPT || name == CLIENT || name == HELLO || name == AUTH || name == PUBLISH) return -1;
+        if (name == EVAL || name == EVALSHA) {  // EVAL script numkeys key...
+            return Integer.parseInt(decode(command[2])) > 0 ? RedisCluster.slot(command[3]) : -1;
+        }
+        return command.length > 1 ? RedisCluster.slot(command[1]) : -1;
+    }
+
+    record Split(byte[] name, List<Request> requests, List<List<Integer>> positions) {
+        Object merge() {
+            for (Request request : requests) {
+                if (request.reply instanceof RedisException) return request.reply;
+            }
+            if (positions == null) return requests.getFirst().reply;
+            if (name == MSET) return "OK";
+            if (name == DEL) {
+                long deleted = 0;
+                for (Request request : requests) {
+                    deleted += (long) request.reply;
+                }
+                return deleted;
+            }
+            int size = 0;   // MGET, values are put back to positions of keys
+            for (List<Integer> indexes : positions) {
+                size += indexes.size();
+            }
+            var values = new Object[size];
+            for (int i = 0; i < requests.size(); i++) {
+                Object[] reply = (Object[]) requests.get(i).reply;
+                List<Integer> indexes = positions.get(i);
+                for (int j = 0; j < indexes.size(); j++) {
+                    values[indexes.get(j) - 1] = reply[j];
+                }
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+/**
+ * @author neo
+ */
+public class RedisClusterMetrics implements Metrics {
+    private final RedisCluster cluster;
+
+    public RedisClusterMetrics(RedisCluster cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        stats.put("redis_cluster_nodes", cluster.nodeCount());
+        stats.put("redis_cluster_redirects", cluster.redirects.getAndSet(0));
+    }
+}
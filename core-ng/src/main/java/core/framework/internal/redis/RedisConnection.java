@@ -3,6 +3,7 @@ package core.framework.internal.redis;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.List;
 
 import static core.framework.internal.redis.RedisEncodings.encode;
 
@@ -12,6 +13,7 @@ import static core.framework.internal.redis.RedisEncodings.encode;
 public class RedisConnection implements AutoCloseable {
     RedisOutputStream outputStream;
     RedisInputStream inputStream;
+    long trackingClientId = -1;     // client id of tracker connection which invalidations are redirected to, refer to RedisTracking
     private Socket socket;
 
     void connect(String host, int port, int timeoutInMs) throws IOException {
@@ -26,6 +28,10 @@ public class RedisConnection implements AutoCloseable {
         inputStream = new RedisInputStream(socket.getInputStream());
     }
 
+    void readTimeout(int timeoutInMs) throws IOException {
+        socket.setSoTimeout(timeoutInMs);
+    }
+
     void writeCommand(byte[] command) throws IOException {
         writeArray(1);
         writeBlobString(command);
@@ -93,19 +99,35 @@ public class RedisConnection implements AutoCloseable {
     }
 
     String readSimpleString() throws IOException {
-        return (String) Protocol.read(inputStream);
+        return (String) read();
     }
 
     byte[] readBlobString() throws IOException {
-        return (byte[]) Protocol.read(inputStream);
+        return (byte[]) read();
     }
 
     long readLong() throws IOException {
-        return (long) Protocol.read(inputStream);
+        return (long) read();
     }
 
     Object[] readArray() throws IOException {
-        return (Object[]) Protocol.read(inputStream);
+        return (Object[]) read();
+    }
+
+    <T> T readBlob(BlobDecoder<T> decoder) throws IOException {
+        return Protocol.readBlob(inputStream, decoder);
+    }
+
+    <T> List<T> readBlobs(BlobDecoder<T> decoder) throws IOException {
+        return Protocol.readBlobs(inputStream, decoder);
+    }
+
+    Object read() throws IOException {
+        return Protocol.read(inputStream);
+    }
+
+    Object[] readPush() throws IOException {
+        return Protocol.readPush(inputStream);
     }
 
     Object[] readAll(int size) throws IOException {
@@ -113,7 +135,7 @@ public class RedisConnection implements AutoCloseable {
         Object[] results = new Object[size];
         for (int i = 0; i < size; i++) {
             try {
-                results[i] = Protocol.read(inputStream);
+                results[i] = read();
             } catch (RedisException e) {
                 exception = e;
             }
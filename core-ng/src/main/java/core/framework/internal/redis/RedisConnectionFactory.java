@@ -8,6 +8,7 @@ import java.time.Duration;
 import java.util.function.Supplier;
 
 import static core.framework.internal.redis.Protocol.Command.AUTH;
+import static core.framework.internal.redis.Protocol.Command.HELLO;
 
 /**
  * @author neo
@@ -16,18 +17,47 @@ class RedisConnectionFactory implements Supplier<RedisConnection> {
     RedisHost host;
     String password;
     int timeoutInMs = (int) Duration.ofSeconds(5).toMillis();
+    RedisMultiplexer multiplexer;   // if set, pool hands out lightweight connections sharing multiplexed physical connections
+    RedisCluster cluster;   // if set, pool hands out lightweight connections routing commands to node pools by slot
 
     @Override
     public RedisConnection get() {
+        if (multiplexer != null) return multiplexer.connection();
+        if (cluster != null) return cluster.connection();
         return create(timeoutInMs);
     }
 
+    // physical connection, for subscriber and multiplexer
+    RedisConnection connect() {
+        return create(timeoutInMs);
+    }
+
+    // RESP3 connection, to receive push, e.g. invalidation of client side caching
+    RedisConnection connectRESP3() {
+        return create(timeoutInMs, true);
+    }
+
+    // physical connection to given node of cluster
+    RedisConnection connect(RedisHost host) {
+        return create(host, timeoutInMs, false);
+    }
+
     RedisConnection create(int timeoutInMs) {
+        return create(timeoutInMs, false);
+    }
+
+    private RedisConnection create(int timeoutInMs, boolean resp3) {
         if (host == null) throw new Error("redis host must not be null");
+        return create(host, timeoutInMs, resp3);
+    }
+
+    private RedisConnection create(RedisHost host, int timeoutInMs, boolean resp3) {
         var connection = new RedisConnection(); // this won't throw exception
         try {
             connection.connect(host.host, host.port, timeoutInMs);
-            if (password != null) {
+            if (resp3) {
+                hello(connection);
+            } else if (password != null) {
                 connection.writeKeyCommand(AUTH, password);
                 connection.readSimpleString();
             }
@@ -40,4 +70,18 @@ class RedisConnectionFactory implements Supplier<RedisConnection> {
             throw new UncheckedIOException(e);
         }
     }
+
+    // HELLO switches protocol and authenticates in one round trip, returns server info as map
+    private void hello(RedisConnection connection) throws IOException {
+        connection.writeArray(password == null ? 2 : 5);
+        connection.writeBlobString(HELLO);
+        connection.writeBlobString(RedisEncodings.encode(3));
+        if (password != null) {
+            connection.writeBlobString(AUTH);
+            connection.writeBlobString(RedisEncodings.encode("default"));
+            connection.writeBlobString(RedisEncodings.encode(password));
+        }
+        connection.flush();
+        connection.read();
+    }
 }
@@ -3,6 +3,7 @@ package core.framework.internal.redis;
 import core.framework.util.Strings;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -48,8 +49,27 @@ class RedisEncodings {
         return Strings.bytes(text); // according to JMH benchmark, text.getBytes(UTF_8) beats getBytesWithOtherCharset or convert by char[] directly, refer to JDK impl for details
     }
 
+    // script arguments, number is encoded as text, as redis converts ARGV by tonumber() in lua
+    static byte[] encode(Object value) {
+        return switch (value) {
+            case String text -> encode(text);
+            case Long number -> encode((long) number);
+            case Integer number -> encode((long) number);
+            case Double number -> encode(number.toString());
+            case Boolean flag -> encode(flag ? 1 : 0);
+            case Duration duration -> encode(duration.toMillis());
+            case Enum<?> enumValue -> encode(enumValue.name());
+            case null -> throw new Error("argument must not be null");
+            default -> throw new Error("unsupported argument type, type=" + value.getClass().getCanonicalName());
+        };
+    }
+
     static String decode(byte[] value) {
         if (value == null) return null;
         return new String(value, StandardCharsets.UTF_8);
     }
+
+    static String decode(byte[] buffer, int offset, int length) {
+        return new String(buffer, offset, length, StandardCharsets.UTF_8);
+    }
 }
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static core.framework.internal.redis.Protocol.Command.HDEL;
 import static core.framework.internal.redis.Protocol.Command.HGET;
@@ -21,6 +22,7 @@ import static core.framework.internal.redis.Protocol.Command.HGETALL;
 import static core.framework.internal.redis.Protocol.Command.HINCRBY;
 import static core.framework.internal.redis.Protocol.Command.HMSET;
 import static core.framework.internal.redis.Protocol.Command.HPEXPIRE;
+import static core.framework.internal.redis.Protocol.Command.HSCAN;
 import static core.framework.internal.redis.Protocol.Command.HSET;
 import static core.framework.internal.redis.Protocol.Keyword.FIELDS;
 import static core.framework.internal.redis.RedisEncodings.decode;
@@ -33,9 +35,11 @@ import static core.framework.internal.redis.RedisEncodings.validate;
 public final class RedisHashImpl implements RedisHash {
     private final Logger logger = LoggerFactory.getLogger(RedisHashImpl.class);
     private final RedisImpl redis;
+    private final RedisScan scan;
 
     RedisHashImpl(RedisImpl redis) {
         this.redis = redis;
+        scan = new RedisScan(redis);
     }
 
     @Override
@@ -66,6 +70,7 @@ public final class RedisHashImpl implements RedisHash {
     public Map<String, String> getAll(String key) {
         var watch = new StopWatch();
         validate("key", key);
+        if (redis.tracking != null) return redis.tracking.hashGetAll(key);
         PoolItem<RedisConnection> item = redis.pool.borrowItem();
         Map<String, String> values = null;
         try {
@@ -94,6 +99,7 @@ public final class RedisHashImpl implements RedisHash {
     public void set(String key, String field, String value) {
         var watch = new StopWatch();
         validate("key", key);
+        if (redis.tracking != null) redis.tracking.invalidate(key);
         validate("field", field);
         validate("value", value);
         PoolItem<RedisConnection> item = redis.pool.borrowItem();
@@ -121,6 +127,7 @@ public final class RedisHashImpl implements RedisHash {
     public void multiSet(String key, Map<String, String> values) {
         var watch = new StopWatch();
         validate("key", key);
+        if (redis.tracking != null) redis.tracking.invalidate(key);
         validate("values", values);
         PoolItem<RedisConnection> item = redis.pool.borrowItem();
         try {
@@ -150,6 +157,7 @@ public final class RedisHashImpl implements RedisHash {
     public long increaseBy(String key, String field, long increment) {
         var watch = new StopWatch();
         validate("key", key);
+        if (redis.tracking != null) redis.tracking.invalidate(key);
         validate("field", field);
         long value = 0;
         PoolItem<RedisConnection> item = redis.pool.borrowItem();
@@ -173,6 +181,7 @@ public final class RedisHashImpl implements RedisHash {
     public long del(String key, String... fields) {
         var watch = new StopWatch();
         validate("key", key);
+        if (redis.tracking != null) redis.tracking.invalidate(key);
         validate("fields", fields);
         long deletedFields = 0;
         PoolItem<RedisConnection> item = redis.pool.borrowItem();
@@ -196,6 +205,7 @@ public final class RedisHashImpl implements RedisHash {
     public void expire(String key, String field, Duration expiration) {
         var watch = new StopWatch();
         validate("key", key);
+        if (redis.tracking != null) redis.tracking.invalidate(key);
         validate("field", field);
         PoolItem<RedisConnection> item = redis.pool.borrowItem();
         try {
@@ -219,4 +229,15 @@ public final class RedisHashImpl implements RedisHash {
             ActionLogContext.track("redis", elapsed, 0, 1);
         }
     }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<Map<String, String>> consumer) {
+        scan.scan(HSCAN, key, batchSize, values -> {
+            Map<String, String> batch = Maps.newHashMapWithExpectedSize(values.length / 2);
+            for (int i = 0; i < values.length; i += 2) {
+                batch.put(decode((byte[]) values[i]), decode((byte[]) values[i + 1]));
+            }
+            consumer.accept(batch);
+        });
+    }
 }
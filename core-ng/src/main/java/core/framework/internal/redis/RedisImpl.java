@@ -12,8 +12,11 @@ import core.framework.redis.RedisAdmin;
 import core.framework.redis.RedisHash;
 import core.framework.redis.RedisHyperLogLog;
 import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
 import core.framework.redis.RedisSet;
 import core.framework.redis.RedisSortedSet;
+import core.framework.redis.RedisStream;
 import core.framework.util.Maps;
 import core.framework.util.StopWatch;
 import org.slf4j.Logger;
@@ -22,8 +25,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static core.framework.internal.redis.Protocol.Command.DEL;
 import static core.framework.internal.redis.Protocol.Command.GET;
@@ -31,13 +37,10 @@ import static core.framework.internal.redis.Protocol.Command.INCRBY;
 import static core.framework.internal.redis.Protocol.Command.MGET;
 import static core.framework.internal.redis.Protocol.Command.MSET;
 import static core.framework.internal.redis.Protocol.Command.PEXPIRE;
-import static core.framework.internal.redis.Protocol.Command.SCAN;
+import static core.framework.internal.redis.Protocol.Command.PUBLISH;
 import static core.framework.internal.redis.Protocol.Command.SET;
-import static core.framework.internal.redis.Protocol.Keyword.COUNT;
-import static core.framework.internal.redis.Protocol.Keyword.MATCH;
 import static core.framework.internal.redis.Protocol.Keyword.NX;
 import static core.framework.internal.redis.Protocol.Keyword.PX;
-import static core.framework.internal.redis.RedisEncodings.decode;
 import static core.framework.internal.redis.RedisEncodings.encode;
 import static core.framework.internal.redis.RedisEncodings.validate;
 
@@ -52,9 +55,13 @@ public final class RedisImpl implements Redis {
     private final RedisHash redisHash = new RedisHashImpl(this);
     private final RedisList redisList = new RedisListImpl(this);
     private final RedisSortedSet redisSortedSet = new RedisSortedSetImpl(this);
+    private final RedisStream redisStream = new RedisStreamImpl(this);
     private final RedisHyperLogLog redisHyperLogLog = new RedisHyperLogLogImpl(this);
     private final RedisAdmin redisAdmin = new RedisAdminImpl(this);
+    private final RedisScan scan = new RedisScan(this);
     private final String name;
+    public final RedisScripts scripts = new RedisScripts(this);
+    public RedisTracking tracking;
     public Pool<RedisConnection> pool;
 
     public RedisImpl(String name) {
@@ -78,25 +85,47 @@ public final class RedisImpl implements Redis {
         pool.checkoutTimeout(timeout);
     }
 
+    // share few physical connections among all callers with auto pipelining, each pooled connection becomes lightweight, so allow many more in pool
+    public void multiplex(int connections) {
+        if (connectionFactory.cluster != null) throw new Error("redis cluster does not support multiplexed connections");
+        connectionFactory.multiplexer = new RedisMultiplexer(connectionFactory, connections);
+        pool.size(1, 10000);
+    }
+
+    // route commands to cluster nodes by slot, each pooled connection becomes lightweight, physical connections are held by node pools,
+    // first host is used by dedicated connections, e.g. subscriber, as pub/sub messages are broadcast to all nodes
+    public RedisCluster cluster(List<String> hosts) {
+        if (connectionFactory.multiplexer != null) throw new Error("redis cluster does not support multiplexed connections");
+        if (tracking != null) throw new Error("client side caching does not support redis cluster");
+        List<RedisHost> seeds = hosts.stream().map(RedisHost::new).toList();
+        connectionFactory.host = seeds.getFirst();
+        connectionFactory.cluster = new RedisCluster(name, seeds, connectionFactory);
+        pool.size(1, 10000);
+        return connectionFactory.cluster;
+    }
+
     public void close() {
         logger.info("close redis client, name={}, host={}", name, connectionFactory.host);
         pool.close();
+        if (connectionFactory.multiplexer != null) connectionFactory.multiplexer.close();
+        if (connectionFactory.cluster != null) connectionFactory.cluster.close();
     }
 
     @Override
     public String get(String key) {
         validate("key", key);   // only validate on interface methods, internal usage will be checked by caller
-        return decode(getBytes(key));
+        if (tracking != null) return tracking.get(key);
+        return get(key, RedisEncodings::decode);
     }
 
-    public byte[] getBytes(String key) {
+    public <T> T get(String key, BlobDecoder<T> decoder) {
         var watch = new StopWatch();
-        byte[] value = null;
+        T value = null;
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyCommand(GET, key);
-            value = connection.readBlobString();
+            value = connection.readBlob(decoder);
             return value;
         } catch (IOException e) {
             item.broken = true;
@@ -104,11 +133,39 @@ public final class RedisImpl implements Redis {
         } finally {
             pool.returnItem(item);
             long elapsed = watch.elapsed();
-            logger.debug("get, key={}, returnedValue={}, elapsed={}", key, new BytesLogParam(value), elapsed);
+            logger.debug("get, key={}, returnedValue={}, elapsed={}", key, value, elapsed);
             ActionLogContext.track("redis", elapsed, 1, 0);
         }
     }
 
+    // get value with remaining ttl in one round trip, ttl is -1 if key has no expiration, value is null if key doesn't exist
+    public <T> ExpirableValue<T> getExpirable(String key, BlobDecoder<T> decoder) {
+        var pipeline = new RedisPipelineImpl(this);
+        Supplier<T> value = pipeline.get(key, decoder);
+        Supplier<Long> ttl = pipeline.ttl(key);
+        pipeline.execute();
+        return new ExpirableValue<>(value.get(), ttl.get());
+    }
+
+    // get values with remaining ttl in one round trip, result only contains existing keys
+    public <T> Map<String, ExpirableValue<T>> multiGetExpirable(String[] keys, BlobDecoder<T> decoder) {
+        validate("keys", keys);
+        var pipeline = new RedisPipelineImpl(this);
+        List<Supplier<T>> values = new ArrayList<>(keys.length);
+        List<Supplier<Long>> ttls = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            values.add(pipeline.get(key, decoder));
+            ttls.add(pipeline.ttl(key));
+        }
+        pipeline.execute();
+        Map<String, ExpirableValue<T>> results = Maps.newLinkedHashMapWithExpectedSize(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            T value = values.get(i).get();
+            if (value != null) results.put(keys[i], new ExpirableValue<>(value, ttls.get(i).get()));
+        }
+        return results;
+    }
+
     @Override
     public RedisSet set() {
         return redisSet;
@@ -125,6 +182,7 @@ public final class RedisImpl implements Redis {
         var watch = new StopWatch();
         byte[] expirationValue = expiration == null ? null : expirationValue(expiration);
         boolean updated = false;
+        if (tracking != null) tracking.invalidate(key);
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
             RedisConnection connection = item.resource;
@@ -158,6 +216,7 @@ public final class RedisImpl implements Redis {
     public void expire(String key, Duration expiration) {
         var watch = new StopWatch();
         validate("key", key);
+        if (tracking != null) tracking.invalidate(key);
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
             RedisConnection connection = item.resource;
@@ -178,6 +237,7 @@ public final class RedisImpl implements Redis {
     public long del(String... keys) {
         var watch = new StopWatch();
         validate("keys", keys);
+        if (tracking != null) tracking.invalidate(keys);
         long deletedKeys = 0;
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
@@ -200,6 +260,7 @@ public final class RedisImpl implements Redis {
     public long increaseBy(String key, long increment) {
         var watch = new StopWatch();
         validate("key", key);
+        if (tracking != null) tracking.invalidate(key);
         long value = 0;
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
@@ -220,25 +281,20 @@ public final class RedisImpl implements Redis {
 
     @Override
     public Map<String, String> multiGet(String... keys) {
-        Map<String, byte[]> values = multiGetBytes(keys);
-        Map<String, String> result = Maps.newLinkedHashMapWithExpectedSize(values.size());
-        for (Map.Entry<String, byte[]> entry : values.entrySet()) {
-            result.put(entry.getKey(), decode(entry.getValue()));
-        }
-        return result;
+        return multiGet(keys, RedisEncodings::decode);
     }
 
-    public Map<String, byte[]> multiGetBytes(String... keys) {
+    public <T> Map<String, T> multiGet(String[] keys, BlobDecoder<T> decoder) {
         var watch = new StopWatch();
         validate("keys", keys);
-        Map<String, byte[]> values = Maps.newLinkedHashMapWithExpectedSize(keys.length);
+        Map<String, T> values = Maps.newLinkedHashMapWithExpectedSize(keys.length);
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
             RedisConnection connection = item.resource;
             connection.writeKeysCommand(MGET, keys);
-            Object[] response = connection.readArray();
-            for (int i = 0; i < response.length; i++) {
-                byte[] value = (byte[]) response[i];
+            List<T> response = connection.readBlobs(decoder);
+            for (int i = 0; i < response.size(); i++) {
+                T value = response.get(i);
                 if (value != null) values.put(keys[i], value);
             }
             return values;
@@ -248,7 +304,7 @@ public final class RedisImpl implements Redis {
         } finally {
             pool.returnItem(item);
             long elapsed = watch.elapsed();
-            logger.debug("mget, keys={}, size={}, returnedValues={}, elapsed={}", new ArrayLogParam(keys), keys.length, new BytesMapLogParam(values), elapsed);
+            logger.debug("mget, keys={}, size={}, returnedValues={}, elapsed={}", new ArrayLogParam(keys), keys.length, values, elapsed);
             ActionLogContext.track("redis", elapsed, values.size(), 0);
         }
     }
@@ -257,6 +313,7 @@ public final class RedisImpl implements Redis {
     public void multiSet(Map<String, String> values) {
         var watch = new StopWatch();
         validate("values", values);
+        if (tracking != null) tracking.invalidate(values.keySet().toArray(String[]::new));
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
             RedisConnection connection = item.resource;
@@ -284,6 +341,7 @@ public final class RedisImpl implements Redis {
         var watch = new StopWatch();
         validate("values", values);
         byte[] expirationValue = expirationValue(expiration);
+        if (tracking != null) tracking.invalidate(values.keySet().toArray(String[]::new));
         int size = values.size();
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
@@ -309,6 +367,31 @@ public final class RedisImpl implements Redis {
         }
     }
 
+    @Override
+    public void publish(String channel, String message) {
+        validate("channel", channel);
+        validate("message", message);
+        publish(channel, encode(message));
+    }
+
+    public void publish(String channel, byte[] message) {
+        var watch = new StopWatch();
+        PoolItem<RedisConnection> item = pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeKeyArgumentCommand(PUBLISH, channel, message);
+            connection.readLong();
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("publish, channel={}, message={}, elapsed={}", channel, new BytesLogParam(message), elapsed);
+            ActionLogContext.track("redis", elapsed, 0, 1);
+        }
+    }
+
     @Override
     public RedisHash hash() {
         return redisHash;
@@ -324,46 +407,15 @@ public final class RedisImpl implements Redis {
         return redisSortedSet;
     }
 
+    @Override
+    public RedisStream stream() {
+        return redisStream;
+    }
+
     @Override
     public void forEach(String pattern, Consumer<String> consumer) {
-        var watch = new StopWatch();
         if (pattern == null) throw new Error("pattern must not be null");
-        long start = System.nanoTime();
-        long redisTook = 0;
-        PoolItem<RedisConnection> item = pool.borrowItem();
-        int returnedKeys = 0;
-        try {
-            RedisConnection connection = item.resource;
-            byte[] batchSize = encode("500"); // use 500 as batch
-            String cursor = "0";
-            do {
-                connection.writeArray(6);
-                connection.writeBlobString(SCAN);
-                connection.writeBlobString(encode(cursor));
-                connection.writeBlobString(MATCH);
-                connection.writeBlobString(encode(pattern));
-                connection.writeBlobString(COUNT);
-                connection.writeBlobString(batchSize);
-                connection.flush();
-                Object[] response = connection.readArray();
-                cursor = decode((byte[]) response[0]);
-                Object[] keys = (Object[]) response[1];
-                returnedKeys += keys.length;
-                redisTook += System.nanoTime() - start;
-                for (Object key : keys) {
-                    consumer.accept(decode((byte[]) key));
-                }
-                start = System.nanoTime();
-            } while (!"0".equals(cursor));
-        } catch (IOException e) {
-            item.broken = true;
-            throw new UncheckedIOException(e);
-        } finally {
-            pool.returnItem(item);
-            long elapsed = watch.elapsed();
-            logger.debug("scan, pattern={}, returnedKeys={}, redisTook={}, elapsed={}", pattern, returnedKeys, redisTook, elapsed);
-            ActionLogContext.track("redis", redisTook, returnedKeys, 0);
-        }
+        scan.scanKeys(pattern, consumer);
     }
 
     @Override
@@ -376,9 +428,22 @@ public final class RedisImpl implements Redis {
         return redisHyperLogLog;
     }
 
+    @Override
+    public Object eval(RedisScript script, List<String> keys, Object... arguments) {
+        return scripts.eval(script, keys, arguments);
+    }
+
+    @Override
+    public RedisPipeline pipeline() {
+        return new RedisPipelineImpl(this);
+    }
+
     private byte[] expirationValue(Duration expiration) {
         long expirationTime = expiration.toMillis();
         if (expirationTime <= 0) throw new Error("expiration time must be longer than 0ms");
         return encode(expirationTime);
     }
+
+    public record ExpirableValue<T>(T value, long ttl) {
+    }
 }
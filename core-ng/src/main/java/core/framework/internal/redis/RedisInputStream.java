@@ -47,6 +47,10 @@ class RedisInputStream {
         return response;
     }
 
+    void readCRLF() throws IOException {
+        if (readByte() != '\r' || readByte() != '\n') throw new IOException("unexpected character");
+    }
+
     long readLong() throws IOException {
         fill();
         boolean negative = buffer[position] == '-';
@@ -86,6 +90,43 @@ class RedisInputStream {
         return response;
     }
 
+    <T> T readBlob(int length, BlobDecoder<T> decoder) throws IOException {
+        if (length <= buffer.length) {
+            fill(length);
+            T value;
+            try {
+                value = decoder.decode(buffer, position, length);
+            } finally {
+                position += length;
+            }
+            readCRLF();
+            return value;
+        }
+        var blob = new BlobInputStream(length);
+        T value;
+        try {
+            value = decoder.decode(blob, length);
+        } finally {
+            blob.skipRemaining();   // decoder may not consume all, e.g. json with trailing spaces
+        }
+        readCRLF();
+        return value;
+    }
+
+    // make sure buffer holds next length bytes, move remaining bytes to beginning of buffer if needed
+    private void fill(int length) throws IOException {
+        if (limit - position >= length) return;
+        int remaining = Math.max(limit - position, 0);
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+        while (limit < length) {
+            int read = stream.read(buffer, limit, buffer.length - limit);
+            if (read == -1) throw new IOException("unexpected end of stream");
+            limit += read;
+        }
+    }
+
     private void fill() throws IOException {
         if (position >= limit) {
             limit = stream.read(buffer);
@@ -95,4 +136,46 @@ class RedisInputStream {
             }
         }
     }
+
+    private final class BlobInputStream extends InputStream {
+        private int remaining;
+
+        BlobInputStream(int length) {
+            remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) return -1;
+            fill();
+            remaining--;
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) return 0;
+            if (remaining == 0) return -1;
+            int readLength;
+            if (position < limit) {
+                readLength = Math.min(Math.min(limit - position, length), remaining);
+                System.arraycopy(buffer, position, bytes, offset, readLength);
+                position += readLength;
+            } else {    // buffer is drained, read from socket into target directly
+                readLength = stream.read(bytes, offset, Math.min(length, remaining));
+                if (readLength == -1) throw new IOException("unexpected end of stream");
+            }
+            remaining -= readLength;
+            return readLength;
+        }
+
+        void skipRemaining() throws IOException {
+            while (remaining > 0) {
+                fill();
+                int skipLength = Math.min(limit - position, remaining);
+                position += skipLength;
+                remaining -= skipLength;
+            }
+        }
+    }
 }
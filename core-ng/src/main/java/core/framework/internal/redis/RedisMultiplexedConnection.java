@@ -0,0 +1,96 @@
+package core.framework.internal.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * lightweight connection borrowed from pool by each caller, commands are buffered until flush, then submitted to shared connection of multiplexer
+ *
+ * @author neo
+ */
+final class RedisMultiplexedConnection extends RedisConnection {
+    private final RedisMultiplexer multiplexer;
+    private final int timeoutInMs;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final Queue<CompletableFuture<Object>> replies = new ArrayDeque<>();
+    private int commands;
+
+    RedisMultiplexedConnection(RedisMultiplexer multiplexer, int timeoutInMs) {
+        this.multiplexer = multiplexer;
+        this.timeoutInMs = timeoutInMs;
+        outputStream = new RedisOutputStream(buffer, 8192);
+    }
+
+    @Override
+    void writeArray(int length) throws IOException {
+        commands++;     // each command is written as one array
+        super.writeArray(length);
+    }
+
+    @Override
+    void flush() throws IOException {
+        outputStream.flush();
+        List<CompletableFuture<Object>> results = multiplexer.submit(buffer.toByteArray(), commands);
+        replies.addAll(results);
+        buffer.reset();
+        commands = 0;
+    }
+
+    @Override
+    void readTimeout(int timeoutInMs) {
+        throw new Error("multiplexed connection does not support changing read timeout");
+    }
+
+    @Override
+    <T> T readBlob(BlobDecoder<T> decoder) throws IOException {    // reply is already parsed by reader of shared connection
+        byte[] value = (byte[]) read();
+        return value == null ? null : decoder.decode(value, 0, value.length);
+    }
+
+    @Override
+    <T> List<T> readBlobs(BlobDecoder<T> decoder) throws IOException {
+        Object[] values = (Object[]) read();
+        if (values == null) return null;
+        List<T> results = new ArrayList<>(values.length);
+        for (Object value : values) {
+            results.add(value instanceof byte[] bytes ? decoder.decode(bytes, 0, bytes.length) : null);
+        }
+        return results;
+    }
+
+    @Override
+    Object read() throws IOException {      // all other read methods call this
+        CompletableFuture<Object> reply = replies.poll();
+        if (reply == null) throw new Error("no command submitted");
+        try {
+            return reply.get(timeoutInMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(reply);
+            throw new IOException("read timed out", e);   // same as SocketTimeoutException of pooled connection
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RedisException redisException) throw redisException;
+            if (cause instanceof IOException ioException) throw ioException;
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            throw new IOException("interrupted", e);
+        }
+    }
+
+    // mark remaining replies of this caller abandoned, shared connection keeps serving other callers
+    private void abandon(CompletableFuture<Object> reply) {
+        reply.cancel(false);
+        CompletableFuture<Object> remaining;
+        while ((remaining = replies.poll()) != null) {
+            remaining.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.Pool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * share few connections among all callers, commands submitted concurrently are coalesced and written with one flush by writer thread,
+ * and reader thread completes replies in FIFO order, as redis replies in same order of commands on one connection,
+ * commands are auto pipelined without holding whole connection per caller,
+ * caller timeout only abandons its own replies, shared connection is reset only on IO or protocol error
+ *
+ * @author neo
+ */
+public final class RedisMultiplexer implements AutoCloseable {
+    private final Logger logger = LoggerFactory.getLogger(RedisMultiplexer.class);
+    private final RedisConnectionFactory factory;
+    private final Channel[] channels;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile boolean closed;
+
+    RedisMultiplexer(RedisConnectionFactory factory, int connections) {
+        this.factory = factory;
+        channels = new Channel[connections];
+        for (int i = 0; i < connections; i++) {
+            channels[i] = new Channel(i);
+        }
+    }
+
+    RedisConnection connection() {
+        return new RedisMultiplexedConnection(this, factory.timeoutInMs);
+    }
+
+    // returns one future per command, in the order of commands
+    List<CompletableFuture<Object>> submit(byte[] commands, int size) {
+        if (closed) throw new Error("redis multiplexer is closed");
+        var request = new Request(commands, size);
+        Channel channel = channels[Math.floorMod(next.getAndIncrement(), channels.length)];
+        channel.submit(request);
+        return request.replies;
+    }
+
+    @Override
+    public void close() {
+        logger.info("close redis multiplexer");
+        closed = true;
+        for (Channel channel : channels) {
+            Link link = channel.link;
+            if (link != null) link.fail(new IOException("redis multiplexer is closed"));
+        }
+    }
+
+    static final class Request {
+        final byte[] commands;
+        final List<CompletableFuture<Object>> replies;
+
+        Request(byte[] commands, int size) {
+            this.commands = commands;
+            replies = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                replies.add(new CompletableFuture<>());
+            }
+        }
+
+        void fail(IOException e) {
+            for (CompletableFuture<Object> reply : replies) {
+                reply.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final class Channel {
+        final int index;
+        volatile Link link;
+
+        Channel(int index) {
+            this.index = index;
+        }
+
+        void submit(Request request) {
+            Link link = link();
+            link.pending.add(request);
+            if (link.closed) request.fail(new IOException("redis connection is closed"));     // in case link failed before adding request
+        }
+
+        private Link link() {
+            Link link = this.link;
+            if (link != null && !link.closed) return link;
+            synchronized (this) {
+                link = this.link;
+                if (link == null || link.closed) {
+                    link = new Link(factory.connect(), index);
+                    this.link = link;
+                }
+                return link;
+            }
+        }
+    }
+
+    // one physical connection, replaced by new link once failed
+    final class Link {
+        final BlockingQueue<Request> pending = new LinkedBlockingQueue<>();
+        final Queue<CompletableFuture<Object>> inflight = new ConcurrentLinkedQueue<>();
+        private final RedisConnection connection;
+        private final Thread writer;
+        volatile boolean closed;
+
+        Link(RedisConnection connection, int index) {
+            this.connection = connection;
+            try {
+                connection.readTimeout(0);  // reader waits for replies all the time, timeout is checked by each caller
+            } catch (IOException e) {
+                Pool.closeQuietly(connection);
+                throw new UncheckedIOException(e);
+            }
+            writer = Thread.ofVirtual().name("redis-multiplexer-writer-" + index).start(this::write);
+            Thread.ofVirtual().name("redis-multiplexer-reader-" + index).start(this::read);
+        }
+
+        private void write() {
+            List<Request> batch = new ArrayList<>();
+            try {
+                while (!closed) {
+                    batch.add(pending.take());
+                    pending.drainTo(batch);
+                    for (Request request : batch) {
+                        inflight.addAll(request.replies);     // register replies before writing, so reader can always find them
+                        connection.outputStream.write(request.commands);
+                    }
+                    connection.flush();
+                    batch.clear();
+                }
+            } catch (IOException e) {
+                for (Request request : batch) {
+                    request.fail(e);
+                }
+                fail(e);
+            } catch (InterruptedException e) {
+                fail(new IOException("interrupted", e));
+            }
+        }
+
+        private void read() {
+            try {
+                while (!closed) {
+                    Object response;
+                    try {
+                        response = connection.read();
+                    } catch (RedisException e) {
+                        response = e;
+                    }
+                    CompletableFuture<Object> reply = inflight.poll();
+                    if (reply == null) {
+                        fail(new IOException("unexpected redis reply"));
+                        return;
+                    }
+                    // reply abandoned by timed out caller is cancelled, completing it is no-op, so late reply is discarded and only that caller fails
+                    if (response instanceof RedisException e) reply.completeExceptionally(e);
+                    else reply.complete(response);
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        void fail(IOException e) {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+            }
+            if (!RedisMultiplexer.this.closed) logger.warn(errorCode("REDIS_CONNECTION_FAILED"), "redis multiplexed connection failed, error={}", e.getMessage(), e);
+            Pool.closeQuietly(connection);  // also unblocks reader
+            writer.interrupt();     // unblock writer waiting for requests
+            CompletableFuture<Object> reply;
+            while ((reply = inflight.poll()) != null) {
+                reply.completeExceptionally(e);
+            }
+            Request request;
+            while ((request = pending.poll()) != null) {
+                request.fail(e);
+            }
+        }
+    }
+}
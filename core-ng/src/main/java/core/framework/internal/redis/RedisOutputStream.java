@@ -44,6 +44,20 @@ class RedisOutputStream {
         buffer[position++] = '\n';
     }
 
+    // write encoded commands as is, used by multiplexer to coalesce commands from callers
+    void write(byte[] bytes) throws IOException {
+        int length = bytes.length;
+        if (length > buffer.length - position) {
+            flush();
+            if (length > buffer.length) {
+                stream.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, length);
+        position += length;
+    }
+
     void flush() throws IOException {
         if (position > 0) {
             stream.write(buffer, 0, position);
@@ -0,0 +1,278 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisPipeline;
+import core.framework.util.Maps;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static core.framework.internal.redis.Protocol.Command.DEL;
+import static core.framework.internal.redis.Protocol.Command.GET;
+import static core.framework.internal.redis.Protocol.Command.HGET;
+import static core.framework.internal.redis.Protocol.Command.HGETALL;
+import static core.framework.internal.redis.Protocol.Command.HINCRBY;
+import static core.framework.internal.redis.Protocol.Command.HSET;
+import static core.framework.internal.redis.Protocol.Command.INCRBY;
+import static core.framework.internal.redis.Protocol.Command.PEXPIRE;
+import static core.framework.internal.redis.Protocol.Command.PTTL;
+import static core.framework.internal.redis.Protocol.Command.RPUSH;
+import static core.framework.internal.redis.Protocol.Command.SADD;
+import static core.framework.internal.redis.Protocol.Command.SET;
+import static core.framework.internal.redis.Protocol.Command.SISMEMBER;
+import static core.framework.internal.redis.Protocol.Command.ZINCRBY;
+import static core.framework.internal.redis.Protocol.Keyword.PX;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static core.framework.internal.redis.RedisEncodings.validate;
+
+/**
+ * @author neo
+ */
+public final class RedisPipelineImpl implements RedisPipeline {
+    private final Logger logger = LoggerFactory.getLogger(RedisPipelineImpl.class);
+    private final RedisImpl redis;
+    private final List<Command<?>> commands = new ArrayList<>();
+    private final List<String> writtenKeys = new ArrayList<>();     // local values of written keys are dropped on execute, refer to RedisTracking
+    private int readEntries;
+    private int writeEntries;
+
+    RedisPipelineImpl(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public Supplier<String> get(String key) {
+        validate("key", key);
+        readEntries++;
+        return add(response -> decode((byte[]) response), GET, encode(key));
+    }
+
+    <T> Supplier<T> get(String key, BlobDecoder<T> decoder) {
+        readEntries++;
+        return addCommand(connection -> connection.readBlob(decoder), GET, encode(key));
+    }
+
+    // remaining ttl in ms, -1 if key has no expiration, -2 if key doesn't exist
+    Supplier<Long> ttl(String key) {
+        return add(response -> (Long) response, PTTL, encode(key));
+    }
+
+    @Override
+    public void set(String key, String value, @Nullable Duration expiration) {
+        validate("key", key);
+        validate("value", value);
+        writeEntries++;
+        writtenKeys.add(key);
+        if (expiration == null) add(null, SET, encode(key), encode(value));
+        else add(null, SET, encode(key), encode(value), PX, encode(expiration.toMillis()));
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        validate("key", key);
+        writeEntries++;
+        writtenKeys.add(key);
+        add(null, PEXPIRE, encode(key), encode(duration.toMillis()));
+    }
+
+    @Override
+    public void del(String... keys) {
+        validate("keys", keys);
+        writeEntries += keys.length;
+        writtenKeys.addAll(Arrays.asList(keys));
+        byte[][] arguments = new byte[keys.length + 1][];
+        arguments[0] = DEL;
+        for (int i = 0; i < keys.length; i++) {
+            arguments[i + 1] = encode(keys[i]);
+        }
+        add(null, arguments);
+    }
+
+    @Override
+    public Supplier<Long> increaseBy(String key, long increment) {
+        validate("key", key);
+        writeEntries++;
+        writtenKeys.add(key);
+        return add(response -> (Long) response, INCRBY, encode(key), encode(increment));
+    }
+
+    @Override
+    public Supplier<String> hashGet(String key, String field) {
+        validate("key", key);
+        validate("field", field);
+        readEntries++;
+        return add(response -> decode((byte[]) response), HGET, encode(key), encode(field));
+    }
+
+    @Override
+    public Supplier<Map<String, String>> hashGetAll(String key) {
+        validate("key", key);
+        readEntries++;
+        return add(response -> {
+            Object[] values = (Object[]) response;
+            Map<String, String> results = Maps.newHashMapWithExpectedSize(values.length / 2);
+            for (int i = 0; i + 1 < values.length; i += 2) {
+                results.put(decode((byte[]) values[i]), decode((byte[]) values[i + 1]));
+            }
+            return results;
+        }, HGETALL, encode(key));
+    }
+
+    @Override
+    public void hashSet(String key, String field, String value) {
+        validate("key", key);
+        validate("field", field);
+        validate("value", value);
+        writeEntries++;
+        writtenKeys.add(key);
+        add(null, HSET, encode(key), encode(field), encode(value));
+    }
+
+    @Override
+    public Supplier<Long> hashIncreaseBy(String key, String field, long increment) {
+        validate("key", key);
+        validate("field", field);
+        writeEntries++;
+        writtenKeys.add(key);
+        return add(response -> (Long) response, HINCRBY, encode(key), encode(field), encode(increment));
+    }
+
+    @Override
+    public void setAdd(String key, String... values) {
+        validate("key", key);
+        validate("values", values);
+        writeEntries += values.length;
+        writtenKeys.add(key);
+        add(null, keyValues(SADD, key, values));
+    }
+
+    @Override
+    public Supplier<Boolean> setIsMember(String key, String value) {
+        validate("key", key);
+        validate("value", value);
+        readEntries++;
+        return add(response -> (long) response == 1, SISMEMBER, encode(key), encode(value));
+    }
+
+    @Override
+    public Supplier<Long> sortedSetIncreaseScoreBy(String key, String value, long increment) {
+        validate("key", key);
+        validate("value", value);
+        writeEntries++;
+        writtenKeys.add(key);
+        return add(response -> (long) Double.parseDouble(decode((byte[]) response)), ZINCRBY, encode(key), encode(increment), encode(value));
+    }
+
+    @Override
+    public void listPush(String key, String... values) {
+        validate("key", key);
+        validate("values", values);
+        writeEntries += values.length;
+        writtenKeys.add(key);
+        add(null, keyValues(RPUSH, key, values));
+    }
+
+    @Override
+    public void execute() {
+        if (commands.isEmpty()) return;
+        var watch = new StopWatch();
+        int size = commands.size();
+        if (redis.tracking != null && !writtenKeys.isEmpty()) redis.tracking.invalidate(writtenKeys.toArray(String[]::new));
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            for (Command<?> command : commands) {
+                connection.writeArray(command.arguments.length);
+                for (byte[] argument : command.arguments) {
+                    connection.writeBlobString(argument);
+                }
+            }
+            connection.flush();
+            for (Command<?> command : commands) {
+                command.complete(connection);
+            }
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("pipeline, commands={}, elapsed={}", size, elapsed);
+            ActionLogContext.track("redis", elapsed, readEntries, writeEntries);
+            commands.clear();
+            writtenKeys.clear();
+            readEntries = 0;
+            writeEntries = 0;
+        }
+    }
+
+    private byte[][] keyValues(byte[] command, String key, String... values) {
+        byte[][] arguments = new byte[values.length + 2][];
+        arguments[0] = command;
+        arguments[1] = encode(key);
+        for (int i = 0; i < values.length; i++) {
+            arguments[i + 2] = encode(values[i]);
+        }
+        return arguments;
+    }
+
+    private <T> Command<T> add(@Nullable Function<Object, T> decoder, byte[]... arguments) {
+        return addCommand(connection -> {
+            Object response = connection.read();
+            return decoder == null ? null : decoder.apply(response);
+        }, arguments);
+    }
+
+    private <T> Command<T> addCommand(Reader<T> reader, byte[]... arguments) {
+        var command = new Command<>(arguments, reader);
+        commands.add(command);
+        return command;
+    }
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(RedisConnection connection) throws IOException;
+    }
+
+    static final class Command<T> implements Supplier<T> {
+        final byte[][] arguments;
+        private final Reader<T> reader;
+        private boolean completed;
+        private T result;
+        private RedisException error;
+
+        Command(byte[][] arguments, Reader<T> reader) {
+            this.arguments = arguments;
+            this.reader = reader;
+        }
+
+        void complete(RedisConnection connection) throws IOException {
+            try {
+                result = reader.read(connection);
+            } catch (RedisException e) {
+                error = e;  // error reply of one command doesn't fail others, it's thrown when getting result
+            }
+            completed = true;
+        }
+
+        @Override
+        public T get() {
+            if (!completed) throw new Error("pipeline is not executed");
+            if (error != null) throw error;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.util.ASCII;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import static core.framework.internal.redis.Protocol.Command.SCAN;
+import static core.framework.internal.redis.Protocol.Command.SSCAN;
+import static core.framework.internal.redis.Protocol.Keyword.COUNT;
+import static core.framework.internal.redis.Protocol.Keyword.MATCH;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static core.framework.internal.redis.RedisEncodings.validate;
+
+/**
+ * iterate keyspace by SCAN, or members of large hash/set/sorted set by HSCAN/SSCAN/ZSCAN cursor on one borrowed connection, each batch is passed to handler once read,
+ * COUNT is only hint, redis returns all members in one batch if collection is small enough to be encoded as listpack
+ *
+ * @author neo
+ */
+final class RedisScan {
+    private final Logger logger = LoggerFactory.getLogger(RedisScan.class);
+    private final RedisImpl redis;
+
+    RedisScan(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    @SuppressWarnings("PMD.ExceptionAsFlowControl") // intentional, simplest way to unify control flow
+    void scan(byte[] command, String key, int batchSize, BatchHandler handler) {
+        var watch = new StopWatch();
+        validate("key", key);
+        if (batchSize <= 0) throw new Error("batchSize must be greater than 0, batchSize=" + batchSize);
+        int entrySize = command == SSCAN ? 1 : 2;   // HSCAN returns field and value, ZSCAN returns member and score
+        long start = System.nanoTime();
+        long redisTook = 0;
+        int returnedEntries = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            byte[] count = encode(batchSize);
+            String cursor = "0";
+            do {
+                connection.writeArray(5);
+                connection.writeBlobString(command);
+                connection.writeBlobString(encode(key));
+                connection.writeBlobString(encode(cursor));
+                connection.writeBlobString(COUNT);
+                connection.writeBlobString(count);
+                connection.flush();
+                Object[] response = connection.readArray();
+                cursor = decode((byte[]) response[0]);
+                Object[] values = (Object[]) response[1];
+                if (values.length % entrySize != 0) throw new IOException("unexpected length of array, length=" + values.length);
+                returnedEntries += values.length / entrySize;
+                redisTook += System.nanoTime() - start;
+                if (values.length > 0) handler.handle(values);
+                start = System.nanoTime();
+            } while (!"0".equals(cursor));
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("{}, key={}, batchSize={}, returnedEntries={}, redisTook={}, elapsed={}", ASCII.toLowerCase(decode(command)), key, batchSize, returnedEntries, redisTook, elapsed);
+            ActionLogContext.track("redis", redisTook, returnedEntries, 0);
+        }
+    }
+
+    // iterate keys of whole keyspace by SCAN MATCH pattern
+    void scanKeys(String pattern, Consumer<String> consumer) {
+        var watch = new StopWatch();
+        long start = System.nanoTime();
+        long redisTook = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        int returnedKeys = 0;
+        try {
+            RedisConnection connection = item.resource;
+            byte[] batchSize = encode("500"); // use 500 as batch
+            String cursor = "0";
+            do {
+                connection.writeArray(6);
+                connection.writeBlobString(SCAN);
+                connection.writeBlobString(encode(cursor));
+                connection.writeBlobString(MATCH);
+                connection.writeBlobString(encode(pattern));
+                connection.writeBlobString(COUNT);
+                connection.writeBlobString(batchSize);
+                connection.flush();
+                Object[] response = connection.readArray();
+                cursor = decode((byte[]) response[0]);
+                Object[] keys = (Object[]) response[1];
+                returnedKeys += keys.length;
+                redisTook += System.nanoTime() - start;
+                for (Object key : keys) {
+                    consumer.accept(decode((byte[]) key));
+                }
+                start = System.nanoTime();
+            } while (!"0".equals(cursor));
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("scan, pattern={}, returnedKeys={}, redisTook={}, elapsed={}", pattern, returnedKeys, redisTook, elapsed);
+            ActionLogContext.track("redis", redisTook, returnedKeys, 0);
+        }
+    }
+
+    @FunctionalInterface
+    interface BatchHandler {
+        void handle(Object[] values) throws IOException;
+    }
+}
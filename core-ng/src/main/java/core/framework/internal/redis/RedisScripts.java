@@ -0,0 +1,133 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.filter.ArrayLogParam;
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisScript;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static core.framework.internal.redis.Protocol.Command.EVAL;
+import static core.framework.internal.redis.Protocol.Command.EVALSHA;
+import static core.framework.internal.redis.Protocol.Command.SCRIPT;
+import static core.framework.internal.redis.Protocol.Keyword.LOAD;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * scripts are called by EVALSHA to avoid sending script body every time, and fall back to EVAL if redis doesn't have it, e.g. redis restarted or failed over,
+ * EVAL also caches script on redis, so following EVALSHA calls succeed
+ *
+ * @author neo
+ */
+public final class RedisScripts {
+    private final List<RedisScript> scripts = new ArrayList<>();
+    private final Logger logger = LoggerFactory.getLogger(RedisScripts.class);
+    private final RedisImpl redis;
+
+    RedisScripts(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    public void add(RedisScript script) {
+        scripts.add(script);
+    }
+
+    public List<RedisScript> scripts() {
+        return scripts;
+    }
+
+    // preload registered scripts, it's optional as eval falls back to EVAL, so failure won't stop startup
+    public void load() {
+        if (scripts.isEmpty()) return;
+        var watch = new StopWatch();
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            for (RedisScript script : scripts) {
+                connection.writeArray(3);
+                connection.writeBlobString(SCRIPT);
+                connection.writeBlobString(LOAD);
+                connection.writeBlobString(encode(script.script));
+            }
+            connection.flush();
+            connection.readAll(scripts.size());
+        } catch (IOException e) {
+            item.broken = true;
+            logger.warn(errorCode("REDIS_SCRIPT_LOAD_FAILED"), "failed to load redis scripts, error={}", e.getMessage(), e);
+        } catch (RedisException e) {
+            logger.warn(errorCode("REDIS_SCRIPT_LOAD_FAILED"), "failed to load redis scripts, error={}", e.getMessage(), e);
+        } finally {
+            redis.pool.returnItem(item);
+            logger.info("load redis scripts, scripts={}, elapsed={}", scripts, watch.elapsed());
+        }
+    }
+
+    Object eval(RedisScript script, List<String> keys, Object... arguments) {
+        var watch = new StopWatch();
+        byte[][] values = new byte[keys.size() + arguments.length][];
+        for (int i = 0; i < keys.size(); i++) {
+            values[i] = encode(keys.get(i));
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            values[keys.size() + i] = encode(arguments[i]);
+        }
+        if (redis.tracking != null) redis.tracking.invalidate(keys.toArray(String[]::new));     // script may write any of keys
+        Object result = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            try {
+                write(connection, EVALSHA, encode(script.sha), keys.size(), values);
+                result = connection.read();
+            } catch (RedisException e) {
+                if (e.getMessage() == null || !e.getMessage().startsWith("NOSCRIPT")) throw e;
+                logger.debug("script not found on redis, fall back to eval, sha={}", script.sha);
+                write(connection, EVAL, encode(script.script), keys.size(), values);
+                result = connection.read();
+            }
+            result = decodeReply(result);
+            return result;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("evalsha, sha={}, keys={}, arguments={}, returnedValue={}, elapsed={}", script.sha, keys, new ArrayLogParam(Arrays.stream(arguments).map(String::valueOf).toArray(String[]::new)), result, elapsed);
+            ActionLogContext.track("redis", elapsed, keys.size(), 0);
+        }
+    }
+
+    private void write(RedisConnection connection, byte[] command, byte[] script, int numberOfKeys, byte[][] values) throws IOException {
+        connection.writeArray(3 + values.length);
+        connection.writeBlobString(command);
+        connection.writeBlobString(script);
+        connection.writeBlobString(encode(numberOfKeys));
+        for (byte[] value : values) {
+            connection.writeBlobString(value);
+        }
+        connection.flush();
+    }
+
+    // lua number is returned as Long, string as String, table as List, nil/false as null
+    static Object decodeReply(Object reply) {
+        if (reply instanceof byte[] value) return decode(value);
+        if (reply instanceof Object[] values) {
+            List<Object> results = new ArrayList<>(values.length);
+            for (Object value : values) {
+                results.add(decodeReply(value));
+            }
+            return results;
+        }
+        return reply;
+    }
+}
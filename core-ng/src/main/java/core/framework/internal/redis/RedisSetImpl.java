@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static core.framework.internal.redis.Protocol.Command.SADD;
 import static core.framework.internal.redis.Protocol.Command.SCARD;
@@ -19,6 +20,7 @@ import static core.framework.internal.redis.Protocol.Command.SISMEMBER;
 import static core.framework.internal.redis.Protocol.Command.SMEMBERS;
 import static core.framework.internal.redis.Protocol.Command.SPOP;
 import static core.framework.internal.redis.Protocol.Command.SREM;
+import static core.framework.internal.redis.Protocol.Command.SSCAN;
 import static core.framework.internal.redis.RedisEncodings.decode;
 import static core.framework.internal.redis.RedisEncodings.encode;
 import static core.framework.internal.redis.RedisEncodings.validate;
@@ -29,9 +31,11 @@ import static core.framework.internal.redis.RedisEncodings.validate;
 public final class RedisSetImpl implements RedisSet {
     private final Logger logger = LoggerFactory.getLogger(RedisSetImpl.class);
     private final RedisImpl redis;
+    private final RedisScan scan;
 
     RedisSetImpl(RedisImpl redis) {
         this.redis = redis;
+        scan = new RedisScan(redis);
     }
 
     @Override
@@ -181,4 +185,15 @@ public final class RedisSetImpl implements RedisSet {
             ActionLogContext.track("redis", elapsed, 1, 0);
         }
     }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<Set<String>> consumer) {
+        scan.scan(SSCAN, key, batchSize, values -> {
+            Set<String> batch = Sets.newHashSetWithExpectedSize(values.length);
+            for (Object value : values) {
+                batch.add(decode((byte[]) value));
+            }
+            consumer.accept(batch);
+        });
+    }
 }
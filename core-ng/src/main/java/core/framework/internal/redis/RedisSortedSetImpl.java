@@ -12,12 +12,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static core.framework.internal.redis.Protocol.Command.ZADD;
 import static core.framework.internal.redis.Protocol.Command.ZINCRBY;
 import static core.framework.internal.redis.Protocol.Command.ZPOPMIN;
 import static core.framework.internal.redis.Protocol.Command.ZRANGE;
 import static core.framework.internal.redis.Protocol.Command.ZREM;
+import static core.framework.internal.redis.Protocol.Command.ZSCAN;
 import static core.framework.internal.redis.Protocol.Keyword.BYSCORE;
 import static core.framework.internal.redis.Protocol.Keyword.LIMIT;
 import static core.framework.internal.redis.Protocol.Keyword.NX;
@@ -32,9 +34,11 @@ import static core.framework.internal.redis.RedisEncodings.validate;
 public class RedisSortedSetImpl implements RedisSortedSet {
     private final Logger logger = LoggerFactory.getLogger(RedisSortedSetImpl.class);
     private final RedisImpl redis;
+    private final RedisScan scan;
 
     RedisSortedSetImpl(RedisImpl redis) {
         this.redis = redis;
+        scan = new RedisScan(redis);
     }
 
     @Override
@@ -258,6 +262,11 @@ public class RedisSortedSetImpl implements RedisSortedSet {
         }
     }
 
+    @Override
+    public void forEach(String key, int batchSize, Consumer<Map<String, Long>> consumer) {
+        scan.scan(ZSCAN, key, batchSize, values -> consumer.accept(valuesWithScores(values)));
+    }
+
     private Map<String, Long> valuesWithScores(Object[] response) throws IOException {
         if (response.length % 2 != 0) throw new IOException("unexpected length of array, length=" + response.length);
         Map<String, Long> values = Maps.newLinkedHashMapWithExpectedSize(response.length / 2);
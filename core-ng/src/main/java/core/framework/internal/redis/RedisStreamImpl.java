@@ -0,0 +1,129 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.filter.ArrayLogParam;
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisStream;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import static core.framework.internal.redis.Protocol.Command.XACK;
+import static core.framework.internal.redis.Protocol.Command.XADD;
+import static core.framework.internal.redis.Protocol.Command.XLEN;
+import static core.framework.internal.redis.Protocol.Keyword.APPROXIMATELY;
+import static core.framework.internal.redis.Protocol.Keyword.AUTO_ID;
+import static core.framework.internal.redis.Protocol.Keyword.MAXLEN;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static core.framework.internal.redis.RedisEncodings.validate;
+
+/**
+ * @author neo
+ */
+public final class RedisStreamImpl implements RedisStream {
+    private final Logger logger = LoggerFactory.getLogger(RedisStreamImpl.class);
+    private final RedisImpl redis;
+
+    RedisStreamImpl(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public String add(String key, Map<String, String> fields, long maxLength) {
+        var watch = new StopWatch();
+        validate("key", key);
+        validate("fields", fields);
+        if (maxLength == 0 || maxLength < -1) throw new Error("maxLength must be greater than 0 or -1, maxLength=" + maxLength);
+        String id = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(3 + (maxLength > 0 ? 3 : 0) + fields.size() * 2);
+            connection.writeBlobString(XADD);
+            connection.writeBlobString(encode(key));
+            if (maxLength > 0) {    // approximate trimming is much more efficient, redis only removes whole macro nodes
+                connection.writeBlobString(MAXLEN);
+                connection.writeBlobString(APPROXIMATELY);
+                connection.writeBlobString(encode(maxLength));
+            }
+            connection.writeBlobString(AUTO_ID);
+            for (Map.Entry<String, String> entry : fields.entrySet()) {
+                connection.writeBlobString(encode(entry.getKey()));
+                connection.writeBlobString(encode(entry.getValue()));
+            }
+            connection.flush();
+            id = decode(connection.readBlobString());
+            return id;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("xadd, key={}, fields={}, maxLength={}, id={}, elapsed={}", key, fields, maxLength, id, elapsed);
+            ActionLogContext.track("redis", elapsed, 0, 1);
+        }
+    }
+
+    @Override
+    public long length(String key) {
+        var watch = new StopWatch();
+        validate("key", key);
+        long length = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeKeyCommand(XLEN, key);
+            length = connection.readLong();
+            return length;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("xlen, key={}, length={}, elapsed={}", key, length, elapsed);
+            ActionLogContext.track("redis", elapsed, 1, 0);
+        }
+    }
+
+    @Override
+    public long acknowledge(String key, String group, String... ids) {
+        var watch = new StopWatch();
+        validate("key", key);
+        validate("group", group);
+        validate("ids", ids);
+        long acknowledged = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            writeAcknowledge(connection, key, group, ids);
+            acknowledged = connection.readLong();
+            return acknowledged;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("xack, key={}, group={}, ids={}, acknowledged={}, elapsed={}", key, group, new ArrayLogParam(ids), acknowledged, elapsed);
+            ActionLogContext.track("redis", elapsed, 0, (int) acknowledged);
+        }
+    }
+
+    static void writeAcknowledge(RedisConnection connection, String key, String group, String... ids) throws IOException {
+        connection.writeArray(3 + ids.length);
+        connection.writeBlobString(XACK);
+        connection.writeBlobString(encode(key));
+        connection.writeBlobString(encode(group));
+        for (String id : ids) {
+            connection.writeBlobString(encode(id));
+        }
+        connection.flush();
+    }
+}
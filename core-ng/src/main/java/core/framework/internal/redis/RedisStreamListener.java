@@ -0,0 +1,142 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.ActionLog;
+import core.framework.internal.log.LogManager;
+import core.framework.redis.BulkRedisStreamHandler;
+import core.framework.redis.RedisStreamHandler;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.util.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * consume redis streams with consumer group, similar to kafka listener, each batch is handled in virtual threads, and acknowledged once all handled,
+ * failed message is logged and acknowledged same as kafka, pending messages of crashed consumer are claimed by other consumers once idle for claimIdleTime
+ *
+ * @author neo
+ */
+public final class RedisStreamListener {
+    final Map<String, Object> handlers = new LinkedHashMap<>();     // stream -> RedisStreamHandler or BulkRedisStreamHandler
+    final AtomicLong consumed = new AtomicLong();
+    final AtomicLong failures = new AtomicLong();
+    final AtomicLong claimed = new AtomicLong();
+    final RedisImpl redis;
+    private final Logger logger = LoggerFactory.getLogger(RedisStreamListener.class);
+    private final LogManager logManager;
+    private final long maxProcessTimeInNano;
+
+    public String group = LogManager.APP_NAME;
+    public String consumer = Network.LOCAL_HOST_NAME;   // consumer name must be unique within group, to track pending messages of each consumer
+    public int concurrency = Runtime.getRuntime().availableProcessors() * 16;
+    public int batchSize = 100;
+    public Duration claimIdleTime = Duration.ofMinutes(5);
+    public long longConsumerDelayThresholdInNano = Duration.ofSeconds(30).toNanos();
+    volatile long maxLag;   // max entries not delivered to group yet among all streams, requires redis 7+
+    RedisStreamListenerThread thread;
+
+    public RedisStreamListener(RedisImpl redis, LogManager logManager, long maxProcessTimeInNano) {
+        this.redis = redis;
+        this.logManager = logManager;
+        this.maxProcessTimeInNano = maxProcessTimeInNano;
+    }
+
+    public void subscribe(String stream, Object handler) {
+        if (thread != null) throw new Error("redis stream listener is started, please subscribe during configuration");
+        Object previous = handlers.putIfAbsent(stream, handler);
+        if (previous != null) throw new Error("found duplicate stream, stream=" + stream + ", previousHandler=" + previous.getClass().getCanonicalName());
+    }
+
+    public void start() {
+        // listener reads all streams on one dedicated connection, which can't be routed to multiple nodes
+        if (redis.connectionFactory.cluster != null) throw new Error("redis stream listener does not support redis cluster");
+        thread = new RedisStreamListenerThread("redis-stream-listener", this);
+        thread.start();
+        logger.info("redis stream listener started, streams={}, group={}, consumer={}", handlers.keySet(), group, consumer);
+    }
+
+    public void shutdown() {
+        if (thread == null) return;
+        logger.info("shutting down redis stream listener, streams={}", handlers.keySet());
+        thread.shutdown();
+    }
+
+    public void awaitTermination(long timeoutInMs) throws InterruptedException {
+        if (thread == null) return;
+        thread.join(timeoutInMs);
+        if (thread.isAlive()) {
+            thread.close();
+            logger.error(errorCode("FAILED_TO_STOP"), "failed to terminate redis stream listener");
+        } else {
+            logger.info("redis stream listener stopped");
+        }
+    }
+
+    void handle(String stream, RedisStreamHandler handler, RedisStreamMessage message) {
+        ActionLog actionLog = logManager.begin("=== redis stream message handling begin ===", null);
+        try {
+            initAction(actionLog, stream, handler);
+            actionLog.track("redis", 0, 1, 0);
+            actionLog.context.put("id", List.of(message.id));
+            logger.debug("[message] id={}, fields={}", message.id, message.fields);
+            checkConsumerDelay(actionLog, timestamp(message.id));
+
+            handler.handle(message.id, message.fields);
+        } catch (Throwable e) {
+            failures.incrementAndGet();
+            logManager.logError(e);
+        } finally {
+            logManager.end("=== redis stream message handling end ===");
+        }
+    }
+
+    void handleBulk(String stream, BulkRedisStreamHandler handler, List<RedisStreamMessage> messages) {
+        ActionLog actionLog = logManager.begin("=== redis stream message handling begin ===", null);
+        try {
+            initAction(actionLog, stream, handler);
+            actionLog.track("redis", 0, messages.size(), 0);
+            long minTimestamp = Long.MAX_VALUE;
+            for (RedisStreamMessage message : messages) {
+                logger.debug("[message] id={}, fields={}", message.id, message.fields);
+                minTimestamp = Math.min(minTimestamp, timestamp(message.id));
+            }
+            checkConsumerDelay(actionLog, minTimestamp);
+
+            handler.handle(messages);
+        } catch (Throwable e) {
+            failures.incrementAndGet();
+            logManager.logError(e);
+        } finally {
+            logManager.end("=== redis stream message handling end ===");
+        }
+    }
+
+    private void initAction(ActionLog actionLog, String stream, Object handler) {
+        actionLog.action("stream:" + stream);
+        actionLog.warningContext.maxProcessTimeInNano(maxProcessTimeInNano);
+        actionLog.context.put("stream", List.of(stream));
+        actionLog.context.put("handler", List.of(handler.getClass().getName()));     // handler can be lambda, which has no canonical name
+    }
+
+    void checkConsumerDelay(ActionLog actionLog, long timestamp) {
+        long delay = (actionLog.date.toEpochMilli() - timestamp) * 1_000_000;     // convert to nanoseconds
+        logger.debug("consumerDelay={}", Duration.ofNanos(delay));
+        actionLog.stats.put("consumer_delay", (double) delay);
+        if (delay > longConsumerDelayThresholdInNano) {
+            logger.warn(errorCode("LONG_CONSUMER_DELAY"), "consumer delay is too long, delay={}", Duration.ofNanos(delay));
+        }
+    }
+
+    // id is in format of "${timestampInMs}-${sequence}"
+    static long timestamp(String id) {
+        int index = id.indexOf('-');
+        return Long.parseLong(index < 0 ? id : id.substring(0, index));
+    }
+}
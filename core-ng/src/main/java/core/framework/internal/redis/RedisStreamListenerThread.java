@@ -0,0 +1,269 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.async.ThreadPools;
+import core.framework.internal.async.VirtualThread;
+import core.framework.internal.resource.Pool;
+import core.framework.redis.BulkRedisStreamHandler;
+import core.framework.redis.RedisStreamHandler;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.util.Maps;
+import core.framework.util.StopWatch;
+import core.framework.util.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import static core.framework.internal.redis.Protocol.Command.XAUTOCLAIM;
+import static core.framework.internal.redis.Protocol.Command.XGROUP;
+import static core.framework.internal.redis.Protocol.Command.XINFO;
+import static core.framework.internal.redis.Protocol.Command.XREADGROUP;
+import static core.framework.internal.redis.Protocol.Keyword.BLOCK;
+import static core.framework.internal.redis.Protocol.Keyword.COUNT;
+import static core.framework.internal.redis.Protocol.Keyword.CREATE;
+import static core.framework.internal.redis.Protocol.Keyword.GROUP;
+import static core.framework.internal.redis.Protocol.Keyword.GROUPS;
+import static core.framework.internal.redis.Protocol.Keyword.LAST_ID;
+import static core.framework.internal.redis.Protocol.Keyword.MKSTREAM;
+import static core.framework.internal.redis.Protocol.Keyword.STREAMS;
+import static core.framework.internal.redis.Protocol.Keyword.UNDELIVERED;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * listener holds dedicated connection for blocking XREADGROUP, and uses same connection to acknowledge and claim between reads
+ *
+ * @author neo
+ */
+final class RedisStreamListenerThread extends Thread {
+    static final int BLOCK_TIME_IN_MS = 5000;   // wake up regularly to check shutdown and claim pending messages
+    private static final long MAINTENANCE_INTERVAL_IN_MS = Duration.ofSeconds(30).toMillis();
+
+    private final Logger logger = LoggerFactory.getLogger(RedisStreamListenerThread.class);
+    private final RedisStreamListener listener;
+    private final String[] streams;
+    private final Semaphore semaphore;
+    private final int concurrency;
+    private final Builder.OfVirtual thread;
+    private volatile boolean shutdown;
+    private volatile RedisConnection connection;
+    private long lastMaintenanceTime;
+
+    RedisStreamListenerThread(String name, RedisStreamListener listener) {
+        super(name);
+        this.listener = listener;
+        streams = listener.handlers.keySet().toArray(String[]::new);
+        concurrency = listener.concurrency;
+        semaphore = new Semaphore(concurrency);
+        thread = ThreadPools.virtualThreadBuilder(name + "-");
+    }
+
+    @Override
+    public void run() {
+        while (!shutdown) {
+            try {
+                connection = listener.redis.connectionFactory.connect();
+                connection.readTimeout(listener.redis.connectionFactory.timeoutInMs + BLOCK_TIME_IN_MS);
+                createGroups(connection);
+                process(connection);
+            } catch (Throwable e) {
+                if (!shutdown) {
+                    logger.warn(errorCode("REDIS_STREAM_FAILED"), "failed to consume redis streams, retry in 10 seconds, streams={}", Arrays.toString(streams), e);
+                    Threads.sleepRoughly(Duration.ofSeconds(10));
+                }
+            } finally {
+                Pool.closeQuietly(connection);
+            }
+        }
+        logger.info("redis stream listener thread stopped, streams={}", Arrays.toString(streams));
+    }
+
+    private void process(RedisConnection connection) throws IOException, InterruptedException {
+        while (!shutdown) {
+            long now = System.currentTimeMillis();
+            if (now - lastMaintenanceTime >= MAINTENANCE_INTERVAL_IN_MS) {
+                claim(connection);
+                updateLag(connection);
+                lastMaintenanceTime = now;
+            }
+            Map<String, List<RedisStreamMessage>> messages = read(connection);
+            if (!messages.isEmpty()) handleAll(connection, messages);
+        }
+    }
+
+    void shutdown() {
+        shutdown = true;    // blocking read returns within BLOCK_TIME_IN_MS
+    }
+
+    void close() {
+        shutdown = true;
+        RedisConnection connection = this.connection;
+        if (connection != null) Pool.closeQuietly(connection);     // unblock reading
+    }
+
+    // create group from latest entry if not exists, MKSTREAM creates empty stream if key not exists
+    void createGroups(RedisConnection connection) throws IOException {
+        for (String stream : streams) {
+            connection.writeArray(6);
+            connection.writeBlobString(XGROUP);
+            connection.writeBlobString(CREATE);
+            connection.writeBlobString(encode(stream));
+            connection.writeBlobString(encode(listener.group));
+            connection.writeBlobString(LAST_ID);
+            connection.writeBlobString(MKSTREAM);
+            connection.flush();
+            try {
+                connection.readSimpleString();
+            } catch (RedisException e) {
+                if (e.getMessage() == null || !e.getMessage().startsWith("BUSYGROUP")) throw e;     // group already exists
+            }
+        }
+    }
+
+    Map<String, List<RedisStreamMessage>> read(RedisConnection connection) throws IOException {
+        connection.writeArray(9 + streams.length * 2);
+        connection.writeBlobString(XREADGROUP);
+        connection.writeBlobString(GROUP);
+        connection.writeBlobString(encode(listener.group));
+        connection.writeBlobString(encode(listener.consumer));
+        connection.writeBlobString(COUNT);
+        connection.writeBlobString(encode(listener.batchSize));
+        connection.writeBlobString(BLOCK);
+        connection.writeBlobString(encode(BLOCK_TIME_IN_MS));
+        connection.writeBlobString(STREAMS);
+        for (String stream : streams) {
+            connection.writeBlobString(encode(stream));
+        }
+        for (int i = 0; i < streams.length; i++) {
+            connection.writeBlobString(UNDELIVERED);
+        }
+        connection.flush();
+        Object[] response = connection.readArray();     // nil if no message within block time
+        Map<String, List<RedisStreamMessage>> messages = new LinkedHashMap<>();
+        if (response == null) return messages;
+        for (Object value : response) {
+            Object[] streamEntries = (Object[]) value;      // [stream, entries]
+            List<RedisStreamMessage> entries = messages((Object[]) streamEntries[1]);
+            if (!entries.isEmpty()) messages.put(decode((byte[]) streamEntries[0]), entries);
+        }
+        return messages;
+    }
+
+    // claim messages pending longer than claimIdleTime, which are delivered to crashed or removed consumers
+    void claim(RedisConnection connection) throws IOException, InterruptedException {
+        for (String stream : streams) {
+            connection.writeArray(8);
+            connection.writeBlobString(XAUTOCLAIM);
+            connection.writeBlobString(encode(stream));
+            connection.writeBlobString(encode(listener.group));
+            connection.writeBlobString(encode(listener.consumer));
+            connection.writeBlobString(encode(listener.claimIdleTime.toMillis()));
+            connection.writeBlobString(encode("0-0"));
+            connection.writeBlobString(COUNT);
+            connection.writeBlobString(encode(listener.batchSize));
+            connection.flush();
+            Object[] response = connection.readArray();     // [next cursor, entries, deleted ids]
+            List<RedisStreamMessage> messages = messages((Object[]) response[1]);
+            if (!messages.isEmpty()) {
+                logger.warn(errorCode("REDIS_STREAM_CLAIMED"), "claimed pending messages, stream={}, count={}", stream, messages.size());
+                listener.claimed.addAndGet(messages.size());
+                handleAll(connection, Map.of(stream, messages));
+            }
+        }
+    }
+
+    // lag is number of entries not delivered to group yet, it's nil if redis can't tell, e.g. entries were trimmed or deleted
+    void updateLag(RedisConnection connection) throws IOException {
+        long maxLag = 0;
+        for (String stream : streams) {
+            connection.writeArray(3);
+            connection.writeBlobString(XINFO);
+            connection.writeBlobString(GROUPS);
+            connection.writeBlobString(encode(stream));
+            connection.flush();
+            Object[] groups = connection.readArray();
+            for (Object group : groups) {
+                Map<String, Object> info = info((Object[]) group);
+                if (listener.group.equals(info.get("name")) && info.get("lag") instanceof Long lag) maxLag = Math.max(maxLag, lag);
+            }
+        }
+        listener.maxLag = maxLag;
+    }
+
+    void handleAll(RedisConnection connection, Map<String, List<RedisStreamMessage>> messages) throws IOException, InterruptedException {
+        var watch = new StopWatch();
+        int count = 0;
+        for (Map.Entry<String, List<RedisStreamMessage>> entry : messages.entrySet()) {
+            dispatch(entry.getKey(), entry.getValue());
+            count += entry.getValue().size();
+        }
+        listener.consumed.addAndGet(count);
+
+        semaphore.acquire(concurrency);     // wait until all handled
+        semaphore.release(concurrency);
+
+        for (Map.Entry<String, List<RedisStreamMessage>> entry : messages.entrySet()) {
+            String[] ids = entry.getValue().stream().map(message -> message.id).toArray(String[]::new);
+            RedisStreamImpl.writeAcknowledge(connection, entry.getKey(), listener.group, ids);
+            connection.readLong();
+        }
+        logger.info("process redis stream messages, count={}, elapsed={}", count, watch.elapsed());
+    }
+
+    private void dispatch(String stream, List<RedisStreamMessage> messages) throws InterruptedException {
+        Object handler = listener.handlers.get(stream);
+        if (handler instanceof BulkRedisStreamHandler bulkHandler) {
+            start(() -> listener.handleBulk(stream, bulkHandler, messages));
+        } else {
+            for (RedisStreamMessage message : messages) {
+                start(() -> listener.handle(stream, (RedisStreamHandler) handler, message));
+            }
+        }
+    }
+
+    private void start(Runnable task) throws InterruptedException {
+        semaphore.acquire();
+        thread.start(() -> {
+            VirtualThread.COUNT.increase();
+            try {
+                task.run();
+            } finally {
+                VirtualThread.COUNT.decrease();
+                semaphore.release();
+            }
+        });
+    }
+
+    // entry is in format of [id, [field1, value1, ...]], fields is nil if entry was deleted but still pending
+    static List<RedisStreamMessage> messages(Object[] entries) {
+        List<RedisStreamMessage> messages = new ArrayList<>(entries.length);
+        for (Object value : entries) {
+            Object[] entry = (Object[]) value;
+            Object[] fields = (Object[]) entry[1];
+            if (fields == null) continue;
+            Map<String, String> values = Maps.newLinkedHashMapWithExpectedSize(fields.length / 2);
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                values.put(decode((byte[]) fields[i]), decode((byte[]) fields[i + 1]));
+            }
+            messages.add(new RedisStreamMessage(decode((byte[]) entry[0]), values));
+        }
+        return messages;
+    }
+
+    private Map<String, Object> info(Object[] values) {
+        Map<String, Object> info = Maps.newHashMapWithExpectedSize(values.length / 2);
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            Object value = values[i + 1];
+            info.put(decode((byte[]) values[i]), value instanceof byte[] bytes ? decode(bytes) : value);
+        }
+        return info;
+    }
+}
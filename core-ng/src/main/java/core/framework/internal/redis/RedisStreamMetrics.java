@@ -0,0 +1,23 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+/**
+ * @author neo
+ */
+public class RedisStreamMetrics implements Metrics {
+    private final RedisStreamListener listener;
+
+    public RedisStreamMetrics(RedisStreamListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        stats.put("redis_stream_consumed", listener.consumed.getAndSet(0));
+        stats.put("redis_stream_failures", listener.failures.getAndSet(0));
+        stats.put("redis_stream_claimed", listener.claimed.getAndSet(0));
+        stats.put("redis_stream_max_lag", listener.maxLag);
+    }
+}
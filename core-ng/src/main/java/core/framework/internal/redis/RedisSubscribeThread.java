@@ -0,0 +1,82 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.Pool;
+import core.framework.util.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static core.framework.internal.redis.Protocol.Command.SUBSCRIBE;
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * subscriber holds dedicated connection, redis doesn't allow other commands on subscribed connection,
+ * it reconnects and subscribes again once connection failed, messages published during reconnecting are lost, as redis pub/sub delivers at most once
+ *
+ * @author neo
+ */
+public final class RedisSubscribeThread extends Thread {
+    final AtomicLong reconnects = new AtomicLong();
+    private final Logger logger = LoggerFactory.getLogger(RedisSubscribeThread.class);
+    private final RedisImpl redis;
+    private final Collection<String> channels;
+    private final BiConsumer<String, byte[]> listener;
+    private volatile boolean shutdown;
+    private volatile RedisConnection connection;
+
+    public RedisSubscribeThread(String name, RedisImpl redis, Collection<String> channels, BiConsumer<String, byte[]> listener) {
+        super(name);
+        this.redis = redis;
+        this.channels = channels;
+        this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+        while (!shutdown) {
+            try {
+                connection = redis.connectionFactory.connect();
+                connection.readTimeout(0);  // subscriber waits for messages, it must not time out on idle
+                connection.writeKeysCommand(SUBSCRIBE, channels.toArray(String[]::new));
+                for (int i = 0; i < channels.size(); i++) {
+                    connection.readArray();     // subscribe confirmation of each channel, e.g. ["subscribe", channel, 1]
+                }
+                logger.info("subscribed to redis channels, channels={}", channels);
+                process(connection);
+            } catch (Throwable e) {
+                if (!shutdown) {
+                    logger.warn(errorCode("REDIS_SUBSCRIBE_FAILED"), "failed to subscribe redis channels, retry in 10 seconds, channels={}", channels, e);
+                    reconnects.incrementAndGet();
+                    Threads.sleepRoughly(Duration.ofSeconds(10));
+                }
+            } finally {
+                Pool.closeQuietly(connection);
+            }
+        }
+        logger.info("redis subscriber stopped, channels={}", channels);
+    }
+
+    void process(RedisConnection connection) throws IOException {
+        while (!shutdown) {
+            Protocol.Message message = Protocol.parseMessage(connection.readArray());
+            if (message == null) continue;
+            try {
+                listener.accept(message.channel(), message.payload());
+            } catch (Throwable e) {
+                logger.warn("failed to process redis message, channel={}", message.channel(), e);
+            }
+        }
+    }
+
+    public void close() {
+        logger.info("stop redis subscriber, channels={}", channels);
+        shutdown = true;
+        RedisConnection connection = this.connection;
+        if (connection != null) Pool.closeQuietly(connection);     // unblock reading
+    }
+}
@@ -0,0 +1,152 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.async.ThreadPools;
+import core.framework.internal.async.VirtualThread;
+import core.framework.internal.log.ActionLog;
+import core.framework.internal.log.LogManager;
+import core.framework.internal.log.filter.BytesLogParam;
+import core.framework.redis.RedisMessageHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * messages are handled in virtual threads with their own action log, so slow handler doesn't block subscriber connection,
+ * messages of same channel are handled one by one in the order of publishing, different channels are handled concurrently,
+ * so concurrency is bounded by number of channels, and pending messages of slow channel are queued in memory
+ *
+ * @author neo
+ */
+public final class RedisSubscriber {
+    final Map<String, RedisMessageHandler> handlers = new LinkedHashMap<>();
+    final Map<String, ChannelQueue> queues = new HashMap<>();
+    final AtomicLong messages = new AtomicLong();
+    final AtomicLong failures = new AtomicLong();
+    final LongAccumulator maxDelay = new LongAccumulator(Math::max, 0);   // from message received to handler started, in nanoseconds
+    private final Logger logger = LoggerFactory.getLogger(RedisSubscriber.class);
+    private final RedisImpl redis;
+    private final LogManager logManager;
+    private final long maxProcessTimeInNano;
+    ExecutorService executor;
+    RedisSubscribeThread thread;
+
+    public RedisSubscriber(RedisImpl redis, LogManager logManager, long maxProcessTimeInNano) {
+        this.redis = redis;
+        this.logManager = logManager;
+        this.maxProcessTimeInNano = maxProcessTimeInNano;
+    }
+
+    public void subscribe(String channel, RedisMessageHandler handler) {
+        if (thread != null) throw new Error("redis subscriber is started, please subscribe during configuration");
+        RedisMessageHandler previous = handlers.putIfAbsent(channel, handler);
+        if (previous != null) throw new Error("found duplicate channel, channel=" + channel + ", previousHandler=" + previous.getClass().getCanonicalName());
+        queues.put(channel, new ChannelQueue(channel));
+    }
+
+    public void start() {
+        executor = ThreadPools.virtualThreadExecutor("redis-subscriber-");
+        thread = new RedisSubscribeThread("redis-subscriber", redis, handlers.keySet(), this::dispatch);
+        thread.start();
+    }
+
+    public void shutdown() {
+        if (thread == null) return;
+        thread.close();
+        executor.shutdown();
+    }
+
+    public void awaitTermination(long timeoutInMs) throws InterruptedException {
+        if (executor == null) return;
+        boolean success = executor.awaitTermination(timeoutInMs, TimeUnit.MILLISECONDS);
+        if (!success) {
+            executor.shutdownNow();
+            logger.error(errorCode("FAILED_TO_STOP"), "failed to terminate redis subscriber");
+        }
+        logger.info("redis subscriber stopped");
+    }
+
+    // called by subscribe thread
+    void dispatch(String channel, byte[] message) {
+        messages.incrementAndGet();
+        ChannelQueue queue = queues.get(channel);
+        queue.messages.offer(new Message(message, System.nanoTime()));
+        queue.schedule();
+    }
+
+    void handle(String channel, byte[] message, long delay) {
+        maxDelay.accumulate(delay);
+        RedisMessageHandler handler = handlers.get(channel);
+        ActionLog actionLog = logManager.begin("=== redis message handling begin ===", null);
+        try {
+            actionLog.action("channel:" + channel);
+            actionLog.warningContext.maxProcessTimeInNano(maxProcessTimeInNano);
+            actionLog.context.put("channel", List.of(channel));
+            actionLog.context.put("handler", List.of(handler.getClass().getName()));     // handler can be lambda, which has no canonical name
+            actionLog.track("redis", 0, 1, 0);
+            actionLog.stats.put("dispatch_delay", (double) delay);
+            logger.debug("[message] channel={}, message={}, dispatchDelay={}", channel, new BytesLogParam(message), Duration.ofNanos(delay));
+
+            handler.handle(channel, decode(message));
+        } catch (Throwable e) {
+            failures.incrementAndGet();
+            logManager.logError(e);
+        } finally {
+            logManager.end("=== redis message handling end ===");
+        }
+    }
+
+    record Message(byte[] body, long receivedTime) {
+    }
+
+    // only one task drains queue of channel at time, it keeps handling until queue is empty
+    final class ChannelQueue {
+        final Queue<Message> messages = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final String channel;
+
+        ChannelQueue(String channel) {
+            this.channel = channel;
+        }
+
+        void schedule() {
+            if (!scheduled.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.warn(errorCode("MESSAGE_REJECTED"), "redis message is rejected due to server is shutting down, channel={}", channel);
+            }
+        }
+
+        void drain() {
+            VirtualThread.COUNT.increase();
+            try {
+                do {
+                    Message message;
+                    while ((message = messages.poll()) != null) {
+                        handle(channel, message.body, System.nanoTime() - message.receivedTime);
+                    }
+                    scheduled.set(false);
+                    // message offered after last poll but before releasing, its dispatch failed to schedule, so continue draining
+                } while (!messages.isEmpty() && scheduled.compareAndSet(false, true));
+            } finally {
+                VirtualThread.COUNT.decrease();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+/**
+ * @author neo
+ */
+public class RedisSubscriberMetrics implements Metrics {
+    private final RedisSubscriber subscriber;
+
+    public RedisSubscriberMetrics(RedisSubscriber subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        stats.put("redis_subscriber_messages", subscriber.messages.getAndSet(0));
+        stats.put("redis_subscriber_failures", subscriber.failures.getAndSet(0));
+        stats.put("redis_subscriber_max_delay", subscriber.maxDelay.getThenReset());
+        RedisSubscribeThread thread = subscriber.thread;
+        if (thread != null) stats.put("redis_subscriber_reconnects", thread.reconnects.getAndSet(0));
+    }
+}
@@ -0,0 +1,229 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.Pool;
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.util.Maps;
+import core.framework.util.StopWatch;
+import core.framework.util.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static core.framework.internal.redis.Protocol.Command.CLIENT;
+import static core.framework.internal.redis.Protocol.Command.GET;
+import static core.framework.internal.redis.Protocol.Command.HGETALL;
+import static core.framework.internal.redis.Protocol.Keyword.ID;
+import static core.framework.internal.redis.Protocol.Keyword.ON;
+import static core.framework.internal.redis.Protocol.Keyword.REDIRECT;
+import static core.framework.internal.redis.Protocol.Keyword.TRACKING;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * client side caching, values read by get() and hash().getAll() are kept in local memory,
+ * redis tracks keys read by each connection and redirects invalidations to tracker connection, which uses RESP3 to receive invalidations as push,
+ * all local values are dropped once tracker connection is lost, as invalidations may be missed, and reads go to redis until reconnected
+ *
+ * @author neo
+ */
+public final class RedisTracking {
+    final Map<String, Object> values;
+    private final Logger logger = LoggerFactory.getLogger(RedisTracking.class);
+    private final Map<String, Long> pendingReads = new HashMap<>();   // key -> read token, value read before invalidation arrives must not be cached
+    private final ReentrantLock lock = new ReentrantLock();
+    private final RedisImpl redis;
+    volatile long clientId = -1;    // client id of tracker connection, -1 if not connected
+    private volatile boolean shutdown;
+    private volatile RedisConnection connection;
+    private long sequence;
+
+    public RedisTracking(RedisImpl redis, int maxSize) {
+        if (redis.connectionFactory.multiplexer != null) throw new Error("client side caching does not support multiplexed connections");
+        if (redis.connectionFactory.cluster != null) throw new Error("client side caching does not support redis cluster");
+        this.redis = redis;
+        values = new LinkedHashMap<>(16, 0.75f, true) {     // access order, to evict least recently used
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public void start() {
+        Thread.ofPlatform().name("redis-tracking").start(this::process);
+    }
+
+    public void close() {
+        logger.info("stop redis tracking");
+        shutdown = true;
+        RedisConnection connection = this.connection;
+        if (connection != null) Pool.closeQuietly(connection);     // unblock reading
+    }
+
+    String get(String key) {
+        return read(key, GET, response -> decode((byte[]) response));
+    }
+
+    Map<String, String> hashGetAll(String key) {
+        Map<String, String> values = read(key, HGETALL, response -> {
+            Object[] fields = (Object[]) response;
+            Map<String, String> results = Maps.newHashMapWithExpectedSize(fields.length / 2);
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                results.put(decode((byte[]) fields[i]), decode((byte[]) fields[i + 1]));
+            }
+            return results;
+        });
+        return new HashMap<>(values);   // copy, as caller may modify returned map
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(String key, byte[] command, Function<Object, T> decoder) {
+        var watch = new StopWatch();
+        T value = (T) cachedValue(key);
+        if (value != null) {
+            logger.debug("read from local, command={}, key={}", decode(command), key);
+            return value;
+        }
+        long token = beginRead(key);
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            track(connection);
+            connection.writeKeyCommand(command, key);
+            value = decoder.apply(connection.read());
+            endRead(key, token, value);
+            return value;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            logger.debug("{}, key={}, returnedValue={}, elapsed={}", decode(command), key, value, elapsed);
+            ActionLogContext.track("redis", elapsed, 1, 0);
+        }
+    }
+
+    // redis tracks keys read by connection after tracking is on, and sends invalidation to the redirected client when keys change
+    private void track(RedisConnection connection) throws IOException {
+        long clientId = this.clientId;
+        if (clientId < 0 || connection.trackingClientId == clientId) return;
+        connection.writeArray(5);
+        connection.writeBlobString(CLIENT);
+        connection.writeBlobString(TRACKING);
+        connection.writeBlobString(ON);
+        connection.writeBlobString(REDIRECT);
+        connection.writeBlobString(encode(clientId));
+        connection.flush();
+        connection.readSimpleString();
+        connection.trackingClientId = clientId;
+    }
+
+    private Object cachedValue(String key) {
+        lock.lock();
+        try {
+            return values.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long beginRead(String key) {
+        lock.lock();
+        try {
+            if (clientId < 0) return -1;
+            sequence++;
+            pendingReads.put(key, sequence);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void endRead(String key, long token, Object value) {
+        if (token < 0) return;
+        lock.lock();
+        try {
+            if (pendingReads.remove(key, token) && value != null) values.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // invalidate on write by this client, so following read gets new value, redis also pushes invalidation later
+    void invalidate(String... keys) {
+        lock.lock();
+        try {
+            for (String key : keys) {
+                values.remove(key);
+                pendingReads.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invalidateAll() {
+        lock.lock();
+        try {
+            values.clear();
+            pendingReads.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void process() {
+        while (!shutdown) {
+            try {
+                connection = redis.connectionFactory.connectRESP3();
+                connection.writeArray(2);
+                connection.writeBlobString(CLIENT);
+                connection.writeBlobString(ID);
+                connection.flush();
+                long id = connection.readLong();
+                connection.readTimeout(0);  // wait for invalidations, it must not time out on idle
+                clientId = id;
+                logger.info("redis tracking started, clientId={}", id);
+                while (!shutdown) {
+                    handlePush(connection.readPush());
+                }
+            } catch (Throwable e) {
+                if (!shutdown) {
+                    logger.warn(errorCode("REDIS_TRACKING_FAILED"), "redis tracking connection failed, retry in 10 seconds", e);
+                    Threads.sleepRoughly(Duration.ofSeconds(10));
+                }
+            } finally {
+                clientId = -1;
+                invalidateAll();
+                Pool.closeQuietly(connection);
+            }
+        }
+        logger.info("redis tracking stopped");
+    }
+
+    // invalidation push is in format of ["invalidate", [keys]], keys is null if all keys are invalidated, e.g. FLUSHDB
+    void handlePush(Object[] push) {
+        if (push.length != 2 || !"invalidate".equals(decode((byte[]) push[0]))) return;
+        if (push[1] == null) {
+            invalidateAll();
+            return;
+        }
+        Object[] keys = (Object[]) push[1];
+        String[] invalidatedKeys = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            invalidatedKeys[i] = decode((byte[]) keys[i]);
+        }
+        invalidate(invalidatedKeys);
+    }
+}
@@ -1,15 +1,20 @@
 package core.framework.internal.resource;
 
+import core.framework.internal.async.ThreadPools;
 import core.framework.util.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.TimeUnit;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
 import static core.framework.log.Markers.errorCode;
@@ -38,20 +43,27 @@ public class Pool<T extends AutoCloseable> {
         }
     }
 
-    final BlockingDeque<PoolItem<T>> idleItems = new LinkedBlockingDeque<>();
+    final Deque<PoolItem<T>> idleItems = new ConcurrentLinkedDeque<>();    // lock free stack, most recently returned item on top
+    final Queue<Waiter<T>> waiters = new ConcurrentLinkedQueue<>();     // FIFO, returned item is handed to longest waiting borrower
     final String name;
-    final AtomicInteger size = new AtomicInteger(0);
+    final AtomicInteger size = new AtomicInteger(0);     // include items being created
+    final WaitTimeHistogram waitTime = new WaitTimeHistogram();
+    final AtomicLong timeouts = new AtomicLong();
+    final AtomicLong createFailures = new AtomicLong();
     private final Supplier<T> factory;
+    private final Thread.Builder.OfVirtual creator;
     public Duration maxIdleTime = Duration.ofMinutes(30);
     private int minSize = 1;
     private int maxSize = 50;
-    private long checkoutTimeoutInMs = Duration.ofSeconds(30).toMillis();
+    private long checkoutTimeoutInNanos = Duration.ofSeconds(30).toNanos();
     private ResourceValidator<T> validator;
     private long aliveWindowInMs;    // not to validate if last return time within the window
+    private volatile boolean closed;
 
     public Pool(Supplier<T> factory, String name) {
         this.factory = factory;
         this.name = name;
+        creator = ThreadPools.virtualThreadBuilder("pool-" + name + "-creator-");
     }
 
     public void size(int minSize, int maxSize) {
@@ -60,7 +72,7 @@ public class Pool<T extends AutoCloseable> {
     }
 
     public void checkoutTimeout(Duration timeout) {
-        checkoutTimeoutInMs = timeout.toMillis();
+        checkoutTimeoutInNanos = timeout.toNanos();
     }
 
     public void validator(ResourceValidator<T> validator, Duration aliveWindow) {
@@ -69,18 +81,15 @@ public class Pool<T extends AutoCloseable> {
     }
 
     public PoolItem<T> borrowItem() {
-        while (true) {
-            PoolItem<T> item = idleItems.poll();
-            if (item != null) {
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                PoolItem<T> item = idleItems.poll();
+                if (item == null) return waitNextAvailableItem();
                 if (validate(item)) return item;
-                else continue;
-            }
-
-            if (size.get() < maxSize) {
-                return createNewItem();         // do not need to check newly created resource
-            } else {
-                return waitNextAvailableItem(); // do not need to check valid since it's just returned resource
             }
+        } finally {
+            waitTime.record(System.nanoTime() - start);
         }
     }
 
@@ -108,26 +117,121 @@ public class Pool<T extends AutoCloseable> {
             closeItem(item);
         } else {
             item.returnTime = System.currentTimeMillis();
-            idleItems.push(item);
+            release(item);
+        }
+    }
+
+    private void release(PoolItem<T> item) {
+        if (closed) {
+            closeItem(item);
+            return;
+        }
+        Waiter<T> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.complete(item)) return;      // waiter may be timed out
+        }
+        idleItems.push(item);
+        transfer();
+    }
+
+    // borrower enqueues then checks idle items, returner pushes then checks waiters, so either side sees the other if they race
+    private void transfer() {
+        while (!waiters.isEmpty()) {
+            PoolItem<T> item = idleItems.poll();
+            if (item == null) return;
+            Waiter<T> waiter = waiters.poll();
+            if (waiter == null || !waiter.complete(item)) {
+                idleItems.push(item);
+                if (waiter == null) return;
+            }
         }
     }
 
+    // if pool is not full, create new item in background, and take whichever comes first, new item or returned item,
+    // borrower who triggered creation waits until creation completes, others wait up to checkout timeout same as before
     private PoolItem<T> waitNextAvailableItem() {
         var watch = new StopWatch();
+        var waiter = new Waiter<T>();
+        waiters.add(waiter);
+        boolean creating = reserve();
+        if (creating) {
+            creator.start(() -> create(waiter));
+        }
+        transfer();
         try {
-            PoolItem<T> item = idleItems.poll(checkoutTimeoutInMs, TimeUnit.MILLISECONDS);
-            if (item == null) throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
-            return item;
-        } catch (InterruptedException e) {
-            throw new Error("interrupted during waiting for next available resource", e);
+            return await(waiter, creating);
         } finally {
             LOGGER.debug("wait for next available resource, pool={}, elapsed={}", name, watch.elapsed());
         }
     }
 
+    private PoolItem<T> await(Waiter<T> waiter, boolean creating) {
+        long deadline = System.nanoTime() + checkoutTimeoutInNanos;
+        while (true) {
+            Object result = waiter.get();
+            if (result != null) return result(result);
+            if (Thread.interrupted()) {
+                if (waiter.cancel()) {
+                    waiters.remove(waiter);
+                    throw new Error("interrupted during waiting for next available resource");
+                }
+                Thread.currentThread().interrupt();     // result is handed over concurrently, keep interrupted status to caller
+                continue;
+            }
+            if (creating) {
+                LockSupport.park(this);
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    if (!waiter.cancel()) continue;
+                    waiters.remove(waiter);
+                    timeouts.incrementAndGet();
+                    throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private PoolItem<T> result(Object result) {
+        if (result instanceof PoolItem<?> item) return (PoolItem<T>) item;
+        if (result instanceof RuntimeException e) throw e;
+        if (result instanceof Error e) throw e;
+        throw new Error((Throwable) result);
+    }
+
+    private void create(Waiter<T> waiter) {
+        PoolItem<T> item;
+        try {
+            item = createNewItem();
+        } catch (Throwable e) {
+            createFailures.incrementAndGet();
+            if (waiter.complete(e)) {
+                waiters.remove(waiter);
+            } else {
+                LOGGER.warn(errorCode("POOL_CREATE_FAILED"), "failed to create resource, pool={}", name, e);
+            }
+            return;
+        }
+        if (waiter.complete(item)) {
+            waiters.remove(waiter);
+        } else {
+            release(item);  // waiter got returned item first, or gave up
+        }
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = size.get();
+            if (closed || current >= maxSize) return false;
+            if (size.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    // size must be reserved before creating
     private PoolItem<T> createNewItem() {
         var watch = new StopWatch();
-        size.incrementAndGet();
         PoolItem<T> item = null;
         try {
             item = new PoolItem<>(factory.get());
@@ -146,7 +250,7 @@ public class Pool<T extends AutoCloseable> {
         replenish();
     }
 
-    int activeCount() {
+    public int activeCount() {
         return totalCount() - idleItems.size();
     }
 
@@ -162,7 +266,7 @@ public class Pool<T extends AutoCloseable> {
         while (iterator.hasNext()) {
             PoolItem<T> item = iterator.next();
             if (now - item.returnTime >= maxIdleTimeInMs) {
-                boolean removed = idleItems.remove(item);
+                boolean removed = idleItems.removeLastOccurrence(item);
                 if (!removed) return;
                 closeItem(item);
             } else {
@@ -172,8 +276,13 @@ public class Pool<T extends AutoCloseable> {
     }
 
     private void replenish() {
-        while (size.get() < minSize) {
-            returnItem(createNewItem());
+        while (size.get() < minSize && reserve()) {
+            try {
+                release(createNewItem());
+            } catch (Throwable e) {
+                createFailures.incrementAndGet();
+                throw e;
+            }
         }
     }
 
@@ -192,11 +301,29 @@ public class Pool<T extends AutoCloseable> {
     }
 
     public void close() {
-        size.set(maxSize);   // make sure no more new resource will be created
+        closed = true;   // make sure no more new resource will be created, and returned resource will be closed
         while (true) {
             PoolItem<T> item = idleItems.poll();
             if (item == null) return;
-            closeResource(item);
+            closeItem(item);
+        }
+    }
+
+    // result is PoolItem or exception of creation, parked borrower is woken up once completed
+    static final class Waiter<T> extends AtomicReference<Object> {
+        private static final Object CANCELLED = new Object();
+        private static final long serialVersionUID = 4086384717497406337L;
+
+        private final transient Thread thread = Thread.currentThread();
+
+        boolean complete(Object result) {
+            if (!compareAndSet(null, result)) return false;
+            LockSupport.unpark(thread);
+            return true;
+        }
+
+        boolean cancel() {
+            return compareAndSet(null, CANCELLED);
         }
     }
 }
@@ -17,6 +17,13 @@ public class PoolMetrics implements Metrics {
     public void collect(Stats stats) {
         stats.put(statName("total_count"), pool.totalCount());
         stats.put(statName("active_count"), pool.activeCount());
+
+        long[] waitTime = pool.waitTime.snapshot();
+        stats.put(statName("checkout_wait_p50"), WaitTimeHistogram.percentile(waitTime, 0.5));
+        stats.put(statName("checkout_wait_p99"), WaitTimeHistogram.percentile(waitTime, 0.99));
+        stats.put(statName("checkout_wait_max"), WaitTimeHistogram.max(waitTime));
+        stats.put(statName("checkout_timeouts"), pool.timeouts.getAndSet(0));
+        stats.put(statName("create_failures"), pool.createFailures.getAndSet(0));
     }
 
     String statName(String statName) {
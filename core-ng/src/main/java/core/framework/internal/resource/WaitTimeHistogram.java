@@ -0,0 +1,66 @@
+package core.framework.internal.resource;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * lock free histogram of wait time in nanoseconds, each power of 2 range is split into 8 buckets, so percentile error is within 12.5%,
+ * recording only increments one bucket, which is cheap enough for every checkout
+ *
+ * @author neo
+ */
+final class WaitTimeHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) Math.max(value, 0);
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // max value of bucket, to report percentile conservatively
+    static long value(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(Long.MAX_VALUE) + 1);
+
+    void record(long elapsedInNanos) {
+        counts.incrementAndGet(index(elapsedInNanos));
+    }
+
+    // return values recorded since last snapshot
+    long[] snapshot() {
+        var values = new long[counts.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counts.getAndSet(i, 0);
+        }
+        return values;
+    }
+
+    static long percentile(long[] snapshot, double percentile) {
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percentile);
+        long current = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            current += snapshot[i];
+            if (current >= rank && snapshot[i] > 0) return value(i);
+        }
+        return 0;   // not reachable
+    }
+
+    static long max(long[] snapshot) {
+        for (int i = snapshot.length - 1; i >= 0; i--) {
+            if (snapshot[i] > 0) return value(i);
+        }
+        return 0;
+    }
+}
@@ -34,6 +34,14 @@ public class LocalSessionStore implements SessionStore {
         return sessionValues;
     }
 
+    @Override
+    public void refresh(String sessionId, String domain, Duration timeout) {
+        values.computeIfPresent(sessionId, (key, sessionValue) -> {
+            if (Instant.now().isAfter(sessionValue.expirationTime)) return null;
+            return new SessionValue(expirationTime(timeout), sessionValue.values);
+        });
+    }
+
     @Override
     public void save(String sessionId, String domain, Map<String, String> values, Set<String> changedFields, Duration timeout) {
         Map<String, String> updatedValues = Maps.newHashMapWithExpectedSize(values.size());
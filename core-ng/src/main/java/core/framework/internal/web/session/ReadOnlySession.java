@@ -12,6 +12,8 @@ public final class ReadOnlySession implements Session {
     @Nullable
     public static ReadOnlySession of(@Nullable Session session) {
         if (session == null) return null;
+        // load eagerly, as readonly session is used by websocket/sse channel after request ends, and may be accessed by other threads concurrently
+        if (session instanceof SessionImpl impl) impl.load();
         return new ReadOnlySession(session);
     }
 
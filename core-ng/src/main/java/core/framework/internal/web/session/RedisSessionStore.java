@@ -3,6 +3,7 @@ package core.framework.internal.web.session;
 import core.framework.crypto.Hash;
 import core.framework.internal.redis.RedisException;
 import core.framework.redis.Redis;
+import core.framework.redis.RedisScript;
 import core.framework.util.Lists;
 import core.framework.util.Maps;
 import core.framework.util.Strings;
@@ -10,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,9 +22,57 @@ import static core.framework.log.Markers.errorCode;
  * @author neo
  */
 public class RedisSessionStore implements SessionStore {
+    // load and refresh expiration in one round trip, skip PEXPIRE if remaining ttl (ARGV[2]) shows it was refreshed recently, to save writes on redis,
+    // returns [refreshed flag, field, value, ...], or empty if session not found,
+    // all scripts only access KEYS[1], to follow redis scripting contract and work with redis cluster, so session and index are updated by separate scripts
+    public static final RedisScript GET_AND_REFRESH = new RedisScript("""
+        local values = redis.call('HGETALL', KEYS[1])
+        if #values == 0 then
+            return values
+        end
+        local refreshed = '0'
+        if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) then
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            refreshed = '1'
+        end
+        table.insert(values, 1, refreshed)
+        return values""");
+    // refresh expiration same as GET_AND_REFRESH without loading values, returns values of indexed fields (ARGV[3..]) if refreshed, or nil if not refreshed or session not found
+    public static final RedisScript REFRESH = new RedisScript("""
+        if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) and redis.call('PEXPIRE', KEYS[1], ARGV[1]) == 1 then
+            if #ARGV > 2 then
+                return redis.call('HMGET', KEYS[1], unpack(ARGV, 3, #ARGV))
+            end
+            return {}
+        end
+        return nil""");
+    // ARGV is in format of [timeout, min ttl, number of deleted fields, deleted fields..., updated field, value, ...],
+    // expiration is refreshed same as GET_AND_REFRESH, so index is only updated along with it, returns 1 if refreshed, or 0 if not
+    public static final RedisScript SAVE = new RedisScript("""
+        local deleted = tonumber(ARGV[3])
+        if deleted > 0 then
+            redis.call('HDEL', KEYS[1], unpack(ARGV, 4, 3 + deleted))
+        end
+        if #ARGV > 3 + deleted then
+            redis.call('HSET', KEYS[1], unpack(ARGV, 4 + deleted, #ARGV))
+        end
+        if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) and redis.call('PEXPIRE', KEYS[1], ARGV[1]) == 1 then
+            return 1
+        end
+        return 0""");
+    // add session key (ARGV[2]) to index with expiration time (ARGV[1]) as score, purge entries expired before ARGV[3], and extend index expiration to timeout (ARGV[4])
+    public static final RedisScript INDEX = new RedisScript("""
+        redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])
+        redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, ARGV[3])
+        redis.call('PEXPIRE', KEYS[1], ARGV[4])
+        return 1""");
+
     private final Logger logger = LoggerFactory.getLogger(RedisSessionStore.class);
 
     private final Redis redis;
+    private final List<String> indexedFields = new ArrayList<>();
+    public double refreshThreshold = 0.1;     // skip refreshing expiration if it was refreshed within this fraction of timeout
+    public boolean script = true;     // use plain commands if false, for redis without lua support, e.g. MockRedis
 
     public RedisSessionStore(Redis redis) {
         this.redis = redis;
@@ -32,9 +82,23 @@ public class RedisSessionStore implements SessionStore {
     public Map<String, String> getAndRefresh(String sessionId, String domain, Duration timeout) {
         String key = sessionKey(sessionId, domain);
         try {
-            Map<String, String> sessionValues = redis.hash().getAll(key);
-            if (sessionValues.isEmpty()) return null;
-            redis.expire(key, timeout);
+            if (!script) {
+                Map<String, String> sessionValues = redis.hash().getAll(key);
+                if (sessionValues.isEmpty()) return null;
+                redis.expire(key, timeout);
+                index(key, sessionValues, indexedFields, timeout);
+                return sessionValues;
+            }
+            long timeoutInMs = timeout.toMillis();
+            long minTTL = (long) (timeoutInMs * (1 - refreshThreshold));
+            @SuppressWarnings("unchecked")
+            List<String> values = (List<String>) redis.eval(GET_AND_REFRESH, List.of(key), timeoutInMs, minTTL);
+            if (values == null || values.isEmpty()) return null;
+            Map<String, String> sessionValues = Maps.newHashMapWithExpectedSize(values.size() / 2);
+            for (int i = 1; i + 1 < values.size(); i += 2) {
+                sessionValues.put(values.get(i), values.get(i + 1));
+            }
+            if ("1".equals(values.getFirst())) index(key, sessionValues, indexedFields, timeout);
             return sessionValues;
         } catch (RedisException e) {
             // gracefully handle invalid data in redis, either legacy old format value, or invalid value/key type inserted manually,
@@ -43,20 +107,90 @@ public class RedisSessionStore implements SessionStore {
         }
     }
 
+    @Override
+    public void refresh(String sessionId, String domain, Duration timeout) {
+        if (!script) {
+            getAndRefresh(sessionId, domain, timeout);
+            return;
+        }
+        String key = sessionKey(sessionId, domain);
+        long timeoutInMs = timeout.toMillis();
+        long minTTL = (long) (timeoutInMs * (1 - refreshThreshold));
+        List<Object> arguments = new ArrayList<>(2 + indexedFields.size());
+        arguments.add(timeoutInMs);
+        arguments.add(minTTL);
+        arguments.addAll(indexedFields);
+        @SuppressWarnings("unchecked")
+        List<String> values = (List<String>) redis.eval(REFRESH, List.of(key), arguments.toArray());
+        if (values == null || values.isEmpty()) return;
+        Map<String, String> indexedValues = Maps.newHashMapWithExpectedSize(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            indexedValues.put(indexedFields.get(i), values.get(i));
+        }
+        index(key, indexedValues, indexedFields, timeout);
+    }
+
     @Override
     public void save(String sessionId, String domain, Map<String, String> values, Set<String> changedFields, Duration timeout) {
         String key = sessionKey(sessionId, domain);
 
         List<String> deletedFields = Lists.newArrayList();
-        Map<String, String> updatedValues = Maps.newHashMap();
+        List<String> updatedValues = Lists.newArrayList();
         for (String changedSessionField : changedFields) {
             String value = values.get(changedSessionField);
-            if (value == null) deletedFields.add(changedSessionField);
-            else updatedValues.put(changedSessionField, value);
+            if (value == null) {
+                deletedFields.add(changedSessionField);
+            } else {
+                updatedValues.add(changedSessionField);
+                updatedValues.add(value);
+            }
+        }
+        boolean refreshed = true;
+        if (script) {
+            long timeoutInMs = timeout.toMillis();
+            List<Object> arguments = new ArrayList<>(3 + deletedFields.size() + updatedValues.size());
+            arguments.add(timeoutInMs);
+            arguments.add((long) (timeoutInMs * (1 - refreshThreshold)));
+            arguments.add(deletedFields.size());
+            arguments.addAll(deletedFields);
+            arguments.addAll(updatedValues);
+            refreshed = Long.valueOf(1).equals(redis.eval(SAVE, List.of(key), arguments.toArray()));
+        } else {
+            if (!deletedFields.isEmpty()) redis.hash().del(key, deletedFields.toArray(new String[0]));
+            if (!updatedValues.isEmpty()) redis.hash().multiSet(key, updatedValues(updatedValues));
+            redis.expire(key, timeout);
         }
-        if (!deletedFields.isEmpty()) redis.hash().del(key, deletedFields.toArray(new String[0]));
-        if (!updatedValues.isEmpty()) redis.hash().multiSet(key, updatedValues);
-        redis.expire(key, timeout);
+        // if expiration is not refreshed, only index changed fields, as index of unchanged fields was updated along with last refresh
+        index(key, values, refreshed ? indexedFields : indexedFields.stream().filter(changedFields::contains).toList(), timeout);
+    }
+
+    // index is sorted set of session keys scored by expiration time, it's updated whenever session expiration is refreshed or indexed field is changed,
+    // expired entries are purged on adding, and index key expires with last added session,
+    // session is not removed from index of previous value, as invalidateByKey checks current value of session
+    private void index(String sessionKey, Map<String, String> values, List<String> fields, Duration timeout) {
+        if (fields.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        long timeoutInMs = timeout.toMillis();
+        for (String field : fields) {
+            String value = values.get(field);
+            if (value == null) continue;
+            String indexKey = indexKey(field, value);
+            if (script) {
+                redis.eval(INDEX, List.of(indexKey), now + timeoutInMs, sessionKey, now, timeoutInMs);
+            } else {
+                redis.sortedSet().add(indexKey, sessionKey, now + timeoutInMs);
+                redis.sortedSet().popByScore(indexKey, 0, now);
+                redis.expire(indexKey, timeout);
+            }
+        }
+    }
+
+    private Map<String, String> updatedValues(List<String> values) {
+        Map<String, String> results = Maps.newHashMapWithExpectedSize(values.size() / 2);
+        for (int i = 0; i + 1 < values.size(); i += 2) {
+            results.put(values.get(i), values.get(i + 1));
+        }
+        return results;
     }
 
     @Override
@@ -65,9 +199,30 @@ public class RedisSessionStore implements SessionStore {
         redis.del(key);
     }
 
-    // use naive solution, generally invalidate by key/value is used to kick out login user, it happens rarely and will be handled by message handler which is in background
+    // maintain index of session keys by value of field, to invalidate sessions by key/value without scanning all sessions,
+    // sessions saved before index is enabled are added to index once refreshed or saved
+    public void index(String field) {
+        if (indexedFields.contains(field)) throw new Error("field is already indexed, field=" + field);
+        indexedFields.add(field);
+    }
+
+    // generally invalidate by key/value is used to kick out login user, it happens rarely and will be handled by message handler which is in background
     @Override
     public void invalidateByKey(String key, String value) {
+        if (indexedFields.contains(key)) {
+            String indexKey = indexKey(key, value);
+            // delete sessions one by one, as session keys may be in different slots of redis cluster
+            String[] sessionKeys = redis.sortedSet().range(indexKey).keySet().toArray(String[]::new);
+            for (String sessionKey : sessionKeys) {
+                if (Strings.equals(value, redis.hash().get(sessionKey, key))) {
+                    redis.del(sessionKey);
+                }
+            }
+            // only remove processed entries, not to lose sessions added to index meanwhile
+            if (sessionKeys.length > 0) redis.sortedSet().remove(indexKey, sessionKeys);
+            return;
+        }
+        logger.info("field is not indexed, scan all sessions, field={}", key);
         redis.forEach("session:*", sessionKey -> {
             String valueInSession = redis.hash().get(sessionKey, key);
             if (Strings.equals(value, valueInSession)) {
@@ -76,6 +231,10 @@ public class RedisSessionStore implements SessionStore {
         });
     }
 
+    String indexKey(String field, String value) {
+        return "session-index:" + field + ':' + value;
+    }
+
     // make sure sessionId can only be used for specific domain, as different webapp may share one session redis, this way to prevent session hijacking by manually reuse sessionId from one site to another
     String sessionKey(String sessionId, String domain) {
         return "session:" + Hash.sha256Hex(domain + ":" + sessionId);
@@ -23,6 +23,7 @@ public class SessionImpl implements Session {
     String hash;
     boolean invalidated;
     boolean saved;
+    Runnable loader;    // load values from store on first access, null if loaded or no session id in request
 
     public SessionImpl(String domain) {
         this.domain = domain;
@@ -30,11 +31,13 @@ public class SessionImpl implements Session {
 
     @Override
     public Optional<String> get(String key) {
+        load();
         return Optional.ofNullable(values.get(key));
     }
 
     @Override
     public void set(String key, String value) {
+        load();
         String previousValue = values.put(key, value);
         if (!Strings.equals(previousValue, value)) {
             changedFields.add(key);
@@ -43,9 +46,18 @@ public class SessionImpl implements Session {
 
     @Override
     public void invalidate() {
+        load();     // to get session id if session exists in store
         invalidated = true;
     }
 
+    void load() {
+        Runnable loader = this.loader;
+        if (loader != null) {
+            this.loader = null;     // only attempt once, even if store throws exception
+            loader.run();
+        }
+    }
+
     void id(String id) {
         this.id = id;
         hash = Hash.md5Hex(id);
@@ -33,27 +33,42 @@ public class SessionManager implements SessionContext {
         String domain = domain(request);
         var session = new SessionImpl(domain);
         sessionId(request).ifPresent(sessionId -> {
-            Map<String, String> values = store.getAndRefresh(sessionId, session.domain, timeout);
-            if (values != null) {
-                session.id(sessionId);
-                actionLog.context.put("session_hash", List.of(session.hash));
-                session.values.putAll(values);
-            }
-            logger.debug("load session, domain={}, sessionHash={}", domain, session.hash);  // session.hash can be null if session is not found
+            // defer loading until controller accesses session, to skip loading values for requests carrying session cookie but not using session, e.g. assets or health check,
+            // session_loads is 0 if load is skipped, then expiration is refreshed on save without loading values, which still calls store and is tracked as session_refreshes
+            actionLog.stats.put("session_loads", 0d);
+            session.loader = () -> load(session, sessionId, actionLog);
         });
         return session;
     }
 
+    private void load(SessionImpl session, String sessionId, ActionLog actionLog) {
+        actionLog.stat("session_loads", 1);
+        Map<String, String> values = store.getAndRefresh(sessionId, session.domain, timeout);
+        if (values != null) {
+            session.id(sessionId);
+            actionLog.context.put("session_hash", List.of(session.hash));
+            session.values.putAll(values);
+        }
+        logger.debug("load session, domain={}, sessionHash={}", session.domain, session.hash);  // session.hash can be null if session is not found
+    }
+
     public void save(RequestImpl request, Response response, ActionLog actionLog) {
         // request.session can be null or ReadOnlySession for websocket, only regular http request may generate session
         if (request.session instanceof SessionImpl session && !session.saved) {
-            save(session, response, actionLog);
+            save(request, session, response, actionLog);
         }
     }
 
-    private void save(SessionImpl session, Response response, ActionLog actionLog) {
+    private void save(Request request, SessionImpl session, Response response, ActionLog actionLog) {
         session.saved = true;   // it will try to save session on both normal and exception flows, here is to only attempt once in case of store throws exception
-        if (session.invalidated) {
+        if (session.loader != null) {
+            // session is not accessed by request, refresh expiration without loading values, to keep session alive as long as client keeps sending requests
+            session.loader = null;
+            sessionId(request).ifPresent(sessionId -> {
+                actionLog.stat("session_refreshes", 1);
+                store.refresh(sessionId, session.domain, timeout);
+            });
+        } else if (session.invalidated) {
             if (session.id != null) {
                 logger.debug("invalidate session, domain={}, sessionHash={}", session.domain, session.hash);
                 store.invalidate(session.id, session.domain);
@@ -10,6 +10,9 @@ import java.util.Set;
 public interface SessionStore {
     Map<String, String> getAndRefresh(String sessionId, String domain, Duration timeout);
 
+    // extend expiration without loading values, for requests carrying session id but not accessing session
+    void refresh(String sessionId, String domain, Duration timeout);
+
     void save(String sessionId, String domain, Map<String, String> values, Set<String> changedFields, Duration timeout);
 
     void invalidate(String sessionId, String domain);
@@ -2,6 +2,10 @@ package core.framework.internal.web.sys;
 
 import core.framework.http.ContentType;
 import core.framework.internal.cache.CacheImpl;
+import core.framework.internal.cache.CacheStoreStats;
+import core.framework.internal.cache.LocalCacheStore;
+import core.framework.internal.cache.OffHeapCacheStore;
+import core.framework.internal.cache.RedisCacheStore;
 import core.framework.internal.web.http.IPv4AccessControl;
 import core.framework.json.JSON;
 import core.framework.util.Strings;
@@ -9,6 +13,7 @@ import core.framework.web.Request;
 import core.framework.web.Response;
 import core.framework.web.exception.NotFoundException;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -18,6 +23,9 @@ import java.util.stream.Collectors;
 public class CacheController {
     private final Map<String, CacheImpl<?>> caches;
     private final IPv4AccessControl accessControl = new IPv4AccessControl();
+    public LocalCacheStore localCacheStore;
+    public RedisCacheStore redisCacheStore;
+    public OffHeapCacheStore offHeapCacheStore;
 
     public CacheController(Map<String, CacheImpl<?>> caches) {
         this.caches = caches;
@@ -45,6 +53,10 @@ public class CacheController {
         accessControl.validate(request.clientIP());
         var response = new ListCacheResponse();
         response.caches = caches.values().stream().map(this::view).collect(Collectors.toList());
+        response.stores = new ArrayList<>(3);
+        if (localCacheStore != null) response.stores.add(view("local", localCacheStore.stats));
+        if (redisCacheStore != null) response.stores.add(view("redis", redisCacheStore.stats));
+        if (offHeapCacheStore != null) response.stores.add(view("off_heap", offHeapCacheStore.stats));
         return Response.text(JSON.toJSON(response)).contentType(ContentType.APPLICATION_JSON);
     }
 
@@ -61,4 +73,12 @@ public class CacheController {
         view.duration = (int) cache.duration.getSeconds();
         return view;
     }
+
+    private ListCacheResponse.Store view(String name, CacheStoreStats stats) {
+        var view = new ListCacheResponse.Store();
+        view.name = name;
+        view.hits = stats.hits();
+        view.misses = stats.misses();
+        return view;
+    }
 }
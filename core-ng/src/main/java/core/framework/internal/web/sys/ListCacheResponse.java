@@ -10,6 +10,8 @@ import java.util.List;
 public class ListCacheResponse {
     @Property(name = "caches")
     public List<Cache> caches;
+    @Property(name = "stores")
+    public List<Store> stores;
 
     public static class Cache {
         @Property(name = "name")
@@ -19,4 +21,13 @@ public class ListCacheResponse {
         @Property(name = "duration")
         public Integer duration;
     }
+
+    public static class Store {
+        @Property(name = "name")
+        public String name;
+        @Property(name = "hits")
+        public Long hits;
+        @Property(name = "misses")
+        public Long misses;
+    }
 }
@@ -1,5 +1,6 @@
 package core.framework.module;
 
+import core.framework.async.Executor;
 import core.framework.cache.Cache;
 import core.framework.http.HTTPMethod;
 import core.framework.internal.cache.CacheClassValidator;
@@ -7,11 +8,15 @@ import core.framework.internal.cache.CacheImpl;
 import core.framework.internal.cache.CacheStore;
 import core.framework.internal.cache.LocalCacheMetrics;
 import core.framework.internal.cache.LocalCacheStore;
+import core.framework.internal.cache.OffHeapCacheMetrics;
+import core.framework.internal.cache.OffHeapCacheStore;
 import core.framework.internal.cache.RedisCacheStore;
+import core.framework.internal.cache.RedisLocalCacheStore;
 import core.framework.internal.module.Config;
 import core.framework.internal.module.ModuleContext;
 import core.framework.internal.module.ShutdownHook;
 import core.framework.internal.redis.RedisImpl;
+import core.framework.internal.redis.RedisSubscribeThread;
 import core.framework.internal.resource.PoolMetrics;
 import core.framework.internal.web.sys.CacheController;
 import core.framework.util.ASCII;
@@ -21,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,16 +37,22 @@ public class CacheConfig extends Config {
     Map<String, CacheImpl<?>> caches;
 
     private ModuleContext context;
+    private CacheController controller;
     private LocalCacheStore localCacheStore;
-    private CacheStore redisCacheStore;
+    private LocalCacheMetrics localCacheMetrics;
+    private RedisImpl redis;
+    private RedisCacheStore redisCacheStore;
+    private RedisLocalCacheStore redisLocalCacheStore;
+    private OffHeapCacheStore offHeapCacheStore;
     private int maxLocalSize;
+    private long maxOffHeapSize;
 
     @Override
     protected void initialize(ModuleContext context, String name) {
         this.context = context;
 
         caches = new HashMap<>();
-        var controller = new CacheController(caches);
+        controller = new CacheController(caches);
         context.route(HTTPMethod.GET, "/_sys/cache", (LambdaController) controller::list, true);
         context.route(HTTPMethod.GET, "/_sys/cache/:name/:key", (LambdaController) controller::get, true);
         context.route(HTTPMethod.DELETE, "/_sys/cache/:name/:key", (LambdaController) controller::delete, true);
@@ -55,6 +67,9 @@ public class CacheConfig extends Config {
         if (maxLocalSize > 0 && localCacheStore != null) {
             localCacheStore.maxSize = maxLocalSize;
         }
+        if (maxOffHeapSize > 0 && offHeapCacheStore != null) {
+            offHeapCacheStore.maxSize = maxOffHeapSize;
+        }
     }
 
     public void local() {
@@ -85,11 +100,23 @@ public class CacheConfig extends Config {
         return new CacheStoreConfig(cache, this);
     }
 
+    // share given number of redis connections with auto pipelining, must be called after redis(host)
+    public void multiplexRedis(int connections) {
+        if (redis == null) throw new Error("redis cache store is not configured, please configure first");
+        if (connections <= 0) throw new Error("connections must be greater than 0, connections=" + connections);
+        redis.multiplex(connections);
+    }
+
     // number of objects to cache
     public void maxLocalSize(int size) {
         maxLocalSize = size;
     }
 
+    // max off heap memory in bytes, shared by all off heap caches
+    public void maxOffHeapSize(long size) {
+        maxOffHeapSize = size;
+    }
+
     String cacheName(Class<?> cacheClass) {
         return ASCII.toLowerCase(cacheClass.getSimpleName());
     }
@@ -105,7 +132,9 @@ public class CacheConfig extends Config {
         context.shutdownHook.add(ShutdownHook.STAGE_6, timeout -> redis.close());
         context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
         context.collector.metrics.add(new PoolMetrics(redis.pool));
+        this.redis = redis;
         redisCacheStore = new RedisCacheStore(redis);
+        controller.redisCacheStore = redisCacheStore;
     }
 
     LocalCacheStore localCacheStore() {
@@ -113,9 +142,41 @@ public class CacheConfig extends Config {
             logger.info("create local cache store");
             var localCacheStore = new LocalCacheStore();
             context.backgroundTask().scheduleWithFixedDelay(localCacheStore::cleanup, Duration.ofMinutes(5));
-            context.collector.metrics.add(new LocalCacheMetrics(localCacheStore));
+            localCacheMetrics = new LocalCacheMetrics(localCacheStore);
+            context.collector.metrics.add(localCacheMetrics);
+            controller.localCacheStore = localCacheStore;
             this.localCacheStore = localCacheStore;
         }
         return localCacheStore;
     }
+
+    OffHeapCacheStore offHeapCacheStore() {
+        if (offHeapCacheStore == null) {
+            logger.info("create off heap cache store");
+            var offHeapCacheStore = new OffHeapCacheStore();
+            context.backgroundTask().scheduleWithFixedDelay(offHeapCacheStore::cleanup, Duration.ofMinutes(5));
+            context.shutdownHook.add(ShutdownHook.STAGE_6, timeout -> offHeapCacheStore.close());
+            context.collector.metrics.add(new OffHeapCacheMetrics(offHeapCacheStore));
+            controller.offHeapCacheStore = offHeapCacheStore;
+            this.offHeapCacheStore = offHeapCacheStore;
+        }
+        return offHeapCacheStore;
+    }
+
+    Executor executor() {
+        return (Executor) context.beanFactory.bean(Executor.class, null);
+    }
+
+    CacheStore redisLocalCacheStore() {
+        if (redisLocalCacheStore == null) {
+            logger.info("create redis local cache store");
+            var store = new RedisLocalCacheStore(localCacheStore(), redisCacheStore, redis);
+            var subscriber = new RedisSubscribeThread("cache-invalidator", redis, List.of(RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE), (channel, message) -> store.invalidate(message));
+            context.startupHook.start.add(subscriber::start);
+            context.shutdownHook.add(ShutdownHook.STAGE_0, timeout -> subscriber.close());
+            localCacheMetrics.redisCacheStore = redisCacheStore;
+            redisLocalCacheStore = store;
+        }
+        return redisLocalCacheStore;
+    }
 }
@@ -3,6 +3,8 @@ package core.framework.module;
 import core.framework.internal.cache.CacheImpl;
 import core.framework.internal.cache.RedisCacheStore;
 
+import java.time.Duration;
+
 /**
  * @author neo
  */
@@ -23,4 +25,37 @@ public class CacheStoreConfig {
             cache.cacheStore = config.localCacheStore();
         }
     }
+
+    // for hot keys which are read much more than written, serve from local cache and fall back to redis,
+    // local copies on all nodes are evicted via redis pub/sub when value is put or evicted
+    public void nearCache() {
+        if (cache.cacheStore instanceof RedisCacheStore) {
+            cache.cacheStore = config.redisLocalCacheStore();
+        }
+    }
+
+    // for large and rarely changed reference data, store serialized values off heap to reduce gc pressure, it costs deserialization on every get
+    public void offHeap() {
+        if (cache.cacheStore instanceof RedisCacheStore) {
+            cache.cacheStore = config.offHeapCacheStore();
+        }
+    }
+
+    // cache not existed keys when loader returns null, with shorter duration, e.g. for unknown coupon code or probed ids,
+    // then cache.get() returns null and cache.getAll() excludes the key
+    public void cacheAbsent(Duration duration) {
+        cache.cacheAbsent(duration);
+    }
+
+    // compress value in redis if json is larger than threshold, e.g. 4096 for large objects like catalog tree, trade cpu for less memory and network
+    // smaller value is still stored as json, and both formats are readable, so entries written before turning it on still hit
+    public void compress(int thresholdInBytes) {
+        cache.compress(thresholdInBytes);
+    }
+
+    // reload value in background when it's read after ratio of duration passed, e.g. 0.8 means refresh within last 20% of duration,
+    // hot keys never expire on read path, and concurrent readers of same missing key always share one load
+    public void refreshAhead(double ratio) {
+        cache.refreshAhead(config.executor(), ratio);
+    }
 }
@@ -10,11 +10,13 @@ import core.framework.internal.db.cloud.GCloudAuthProvider;
 import core.framework.internal.module.Config;
 import core.framework.internal.module.ModuleContext;
 import core.framework.internal.module.ShutdownHook;
+import core.framework.internal.resource.Pool;
 import core.framework.internal.resource.PoolMetrics;
 import core.framework.util.Lists;
 import core.framework.util.Strings;
 import core.framework.util.Types;
 
+import java.sql.Connection;
 import java.time.Duration;
 import java.util.List;
 
@@ -61,6 +63,14 @@ public class DBConfig extends Config {
         return url;
     }
 
+    // reads outside transaction are routed to replicas, writes and transactions always go to primary, replica pools are closed with database
+    public void replica(String url) {
+        if (this.url == null) throw new Error("db url must be configured first, name=" + name);
+        Pool<Connection> replica = database.replica(databaseURL(url));
+        context.backgroundTask().scheduleWithFixedDelay(replica::refresh, Duration.ofMinutes(10));
+        context.collector.metrics.add(new PoolMetrics(replica));
+    }
+
     public void user(String user) {
         if (user.startsWith("iam/")) {
             CloudAuthProvider provider = CloudAuthProvider.Provider.get();
@@ -93,7 +103,7 @@ public class DBConfig extends Config {
     }
 
     public void poolSize(int minSize, int maxSize) {
-        database.pool.size(minSize, maxSize);
+        database.poolSize(minSize, maxSize);
     }
 
     public void isolationLevel(IsolationLevel level) {
@@ -1,15 +1,28 @@
 package core.framework.module;
 
+import core.framework.internal.inject.InjectValidator;
 import core.framework.internal.module.Config;
 import core.framework.internal.module.ModuleContext;
 import core.framework.internal.module.ShutdownHook;
+import core.framework.internal.redis.RedisCluster;
+import core.framework.internal.redis.RedisClusterMetrics;
 import core.framework.internal.redis.RedisImpl;
+import core.framework.internal.redis.RedisStreamListener;
+import core.framework.internal.redis.RedisStreamMetrics;
+import core.framework.internal.redis.RedisSubscriber;
+import core.framework.internal.redis.RedisSubscriberMetrics;
+import core.framework.internal.redis.RedisTracking;
 import core.framework.internal.resource.PoolMetrics;
+import core.framework.redis.BulkRedisStreamHandler;
 import core.framework.redis.Redis;
+import core.framework.redis.RedisMessageHandler;
+import core.framework.redis.RedisScript;
+import core.framework.redis.RedisStreamHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * @author neo
@@ -20,6 +33,9 @@ public class RedisConfig extends Config {
     private Redis redis;
     private String name;
     private String host;
+    private RedisSubscriber subscriber;
+    private RedisCluster cluster;
+    private RedisStreamListener streamListener;
 
     @Override
     protected void initialize(ModuleContext context, String name) {
@@ -54,19 +70,112 @@ public class RedisConfig extends Config {
         context.probe.hostURIs.add(host);
     }
 
+    // connect to redis cluster by seed hosts, other nodes are discovered by CLUSTER SLOTS, poolSize() applies to pool of each node
+    public void cluster(String... hosts) {
+        if (hosts.length == 0) throw new Error("hosts must not be empty");
+        setCluster(hosts);
+        host = hosts[0];
+    }
+
+    void setCluster(String... hosts) {
+        RedisImpl redis = (RedisImpl) this.redis;
+        RedisCluster cluster = redis.cluster(List.of(hosts));
+        context.probe.hostURIs.addAll(List.of(hosts));
+        context.backgroundTask().scheduleWithFixedDelay(cluster::refresh, Duration.ofMinutes(5));
+        context.collector.metrics.add(new RedisClusterMetrics(cluster));
+        this.cluster = cluster;
+    }
+
     public void password(String password) {
         RedisImpl redis = (RedisImpl) this.redis;
         redis.password(password);
     }
 
     public void poolSize(int minSize, int maxSize) {
-        ((RedisImpl) redis).pool.size(minSize, maxSize);
+        if (cluster != null) cluster.size(minSize, maxSize);    // pooled cluster connections are lightweight
+        else ((RedisImpl) redis).pool.size(minSize, maxSize);
     }
 
     public void timeout(Duration timeout) {
         ((RedisImpl) redis).timeout(timeout);
     }
 
+    // share given number of connections with auto pipelining, for high concurrency with small commands, subscribers still use dedicated connections
+    public void multiplex(int connections) {
+        if (connections <= 0) throw new Error("connections must be greater than 0, connections=" + connections);
+        RedisImpl redis = (RedisImpl) this.redis;
+        if (redis.tracking != null) throw new Error("client side caching does not support multiplexed connections");
+        redis.multiplex(connections);
+    }
+
+    // handler is called in virtual thread, messages of same channel are handled sequentially in order, redis pub/sub delivers at most once, messages published during reconnecting are lost
+    public void subscribe(String channel, RedisMessageHandler handler) {
+        logger.info("subscribe, channel={}, handler={}, name={}", channel, handler.getClass().getCanonicalName(), name);
+        if (subscriber == null) {
+            var subscriber = new RedisSubscriber((RedisImpl) redis, context.logManager, context.shutdownHook.shutdownTimeoutInNano);
+            context.startupHook.start.add(subscriber::start);
+            context.shutdownHook.add(ShutdownHook.STAGE_0, timeout -> subscriber.shutdown());
+            context.shutdownHook.add(ShutdownHook.STAGE_1, subscriber::awaitTermination);
+            context.collector.metrics.add(new RedisSubscriberMetrics(subscriber));
+            this.subscriber = subscriber;
+        }
+        subscriber.subscribe(channel, handler);
+    }
+
+    // consume stream with consumer group, handler is called in virtual thread per message, messages are acknowledged once handled, requires redis 7+
+    public void consume(String stream, RedisStreamHandler handler) {
+        logger.info("consume, stream={}, handler={}, name={}", stream, handler.getClass().getCanonicalName(), name);
+        new InjectValidator(handler).validate();
+        streamListener().subscribe(stream, handler);
+    }
+
+    public void consume(String stream, BulkRedisStreamHandler handler) {
+        logger.info("consume, stream={}, handler={}, name={}", stream, handler.getClass().getCanonicalName(), name);
+        new InjectValidator(handler).validate();
+        streamListener().subscribe(stream, handler);
+    }
+
+    // by default stream listener uses AppName as consumer group, use Network.LOCAL_HOST_NAME to make every pod receives all messages
+    public void streamGroup(String group) {
+        streamListener().group = group;
+    }
+
+    public void streamConcurrency(int concurrency) {
+        if (concurrency <= 0) throw new Error("concurrency must be greater than 0, concurrency=" + concurrency);
+        streamListener().concurrency = concurrency;
+    }
+
+    private RedisStreamListener streamListener() {
+        if (streamListener == null) {
+            var listener = new RedisStreamListener((RedisImpl) redis, context.logManager, context.shutdownHook.shutdownTimeoutInNano);
+            context.startupHook.start.add(listener::start);
+            context.shutdownHook.add(ShutdownHook.STAGE_0, timeout -> listener.shutdown());
+            context.shutdownHook.add(ShutdownHook.STAGE_1, listener::awaitTermination);
+            context.collector.metrics.add(new RedisStreamMetrics(listener));
+            streamListener = listener;
+        }
+        return streamListener;
+    }
+
+    // keep values read by get() and hash().getAll() in local memory, redis pushes invalidation when keys change, requires redis 6+
+    public void clientSideCache(int maxSize) {
+        logger.info("enable client side caching, maxSize={}, name={}", maxSize, name);
+        RedisImpl redis = (RedisImpl) this.redis;
+        if (redis.tracking != null) throw new Error("client side caching is already enabled, name=" + name);
+        var tracking = new RedisTracking(redis, maxSize);
+        context.startupHook.start.add(tracking::start);
+        context.shutdownHook.add(ShutdownHook.STAGE_6, timeout -> tracking.close());
+        redis.tracking = tracking;
+    }
+
+    // load script on startup, so first call uses EVALSHA without sending script body
+    public void script(RedisScript script) {
+        logger.info("add redis script, sha={}, name={}", script.sha, name);
+        RedisImpl redis = (RedisImpl) this.redis;
+        if (redis.scripts.scripts().isEmpty()) context.startupHook.initialize.add(redis.scripts::load);
+        redis.scripts.add(script);
+    }
+
     public Redis client() {
         return redis;
     }
@@ -18,6 +18,7 @@ import java.time.Duration;
 public class SessionConfig extends Config {
     private final Logger logger = LoggerFactory.getLogger(SessionConfig.class);
     private ModuleContext context;
+    private RedisSessionStore redisSessionStore;
 
     @Override
     protected void initialize(ModuleContext context, String name) {
@@ -54,8 +55,33 @@ public class SessionConfig extends Config {
         context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
         context.collector.metrics.add(new PoolMetrics(redis.pool));
 
+        redis.scripts.add(RedisSessionStore.GET_AND_REFRESH);
+        redis.scripts.add(RedisSessionStore.REFRESH);
+        redis.scripts.add(RedisSessionStore.SAVE);
+        redis.scripts.add(RedisSessionStore.INDEX);
+        context.startupHook.initialize.add(redis.scripts::load);
+
         context.probe.hostURIs.add(host);
         context.shutdownHook.add(ShutdownHook.STAGE_6, timeout -> redis.close());
-        context.httpServer.siteManager.sessionManager.store(new RedisSessionStore(redis));
+        redisSessionStore(new RedisSessionStore(redis));
+    }
+
+    void redisSessionStore(RedisSessionStore store) {
+        redisSessionStore = store;
+        context.httpServer.siteManager.sessionManager.store(store);
+    }
+
+    // redis session expiration is only refreshed if it was not refreshed within given fraction of timeout, to save redis writes,
+    // e.g. 0.1 with 30 mins timeout refreshes at most every 3 mins, session may expire up to 3 mins earlier than last access + timeout
+    public void refreshThreshold(double fraction) {
+        if (fraction < 0 || fraction >= 1) throw new Error("fraction must be in [0, 1), fraction=" + fraction);
+        if (redisSessionStore == null) throw new Error("redis session store must be configured first");
+        redisSessionStore.refreshThreshold = fraction;
+    }
+
+    // index sessions by value of field, e.g. user id, to make sessionContext.invalidate(key, value) delete sessions without scanning all sessions in redis
+    public void index(String field) {
+        if (redisSessionStore == null) throw new Error("redis session store must be configured first");
+        redisSessionStore.index(field);
     }
 }
@@ -2,6 +2,7 @@ package core.framework.redis;
 
 import javax.annotation.Nullable;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -42,7 +43,19 @@ public interface Redis {
 
     RedisSortedSet sortedSet();
 
+    RedisStream stream();
+
     RedisAdmin admin();
 
     RedisHyperLogLog hyperLogLog();
+
+    // fire and forget, message is delivered to current subscribers only, use redisConfig.subscribe() to receive
+    void publish(String channel, String message);
+
+    // run script atomically in one round trip, number is returned as Long, string as String, table as List, nil/false as null
+    @Nullable
+    Object eval(RedisScript script, List<String> keys, Object... arguments);
+
+    // send multiple commands in one round trip
+    RedisPipeline pipeline();
 }
@@ -3,6 +3,7 @@ package core.framework.redis;
 import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -13,6 +14,9 @@ public interface RedisHash {
 
     Map<String, String> getAll(String key);
 
+    // iterate large hash by HSCAN in batches of about batchSize fields, to avoid blocking redis and loading all fields into memory as getAll()
+    void forEach(String key, int batchSize, Consumer<Map<String, String>> consumer);
+
     void set(String key, String field, String value);
 
     void multiSet(String key, Map<String, String> values);
@@ -0,0 +1,9 @@
+package core.framework.redis;
+
+/**
+ * @author neo
+ */
+@FunctionalInterface
+public interface RedisMessageHandler {
+    void handle(String channel, String message) throws Exception;
+}
@@ -0,0 +1,41 @@
+package core.framework.redis;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * commands are queued and sent in one round trip by execute(), returned supplier only can be called after execute()
+ *
+ * @author neo
+ */
+public interface RedisPipeline {
+    Supplier<String> get(String key);
+
+    void set(String key, String value, @Nullable Duration expiration);
+
+    void expire(String key, Duration duration);
+
+    void del(String... keys);
+
+    Supplier<Long> increaseBy(String key, long increment);
+
+    Supplier<String> hashGet(String key, String field);
+
+    Supplier<Map<String, String>> hashGetAll(String key);
+
+    void hashSet(String key, String field, String value);
+
+    Supplier<Long> hashIncreaseBy(String key, String field, long increment);
+
+    void setAdd(String key, String... values);
+
+    Supplier<Boolean> setIsMember(String key, String value);
+
+    Supplier<Long> sortedSetIncreaseScoreBy(String key, String value, long increment);
+
+    void listPush(String key, String... values);
+
+    void execute();
+}
@@ -0,0 +1,25 @@
+package core.framework.redis;
+
+import core.framework.crypto.Hash;
+
+/**
+ * lua script runs atomically on redis server, to replace multiple round trips of read-check-write,
+ * define as constant and register by redisConfig.script() to load on startup, KEYS and ARGV are passed by redis.eval()
+ *
+ * @author neo
+ */
+public final class RedisScript {
+    public final String script;
+    public final String sha;    // redis caches loaded script by sha1
+
+    public RedisScript(String script) {
+        if (script == null || script.isBlank()) throw new Error("script must not be blank");
+        this.script = script;
+        sha = Hash.sha1Hex(script);
+    }
+
+    @Override
+    public String toString() {
+        return sha;
+    }
+}
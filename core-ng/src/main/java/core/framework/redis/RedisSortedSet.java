@@ -3,6 +3,7 @@ package core.framework.redis;
 import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author tempo
@@ -46,4 +47,7 @@ public interface RedisSortedSet {
     Map<String, Long> popMin(String key, long limit);
 
     long remove(String key, String... values);
+
+    // iterate large sorted set by ZSCAN in batches of about batchSize members with scores, members are not returned in order of score
+    void forEach(String key, int batchSize, Consumer<Map<String, Long>> consumer);
 }
@@ -0,0 +1,20 @@
+package core.framework.redis;
+
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+public interface RedisStream {
+    default String add(String key, Map<String, String> fields) {
+        return add(key, fields, -1);
+    }
+
+    // return id of added entry, stream is trimmed to about maxLength entries (MAXLEN ~), trimming is skipped if maxLength is -1
+    String add(String key, Map<String, String> fields, long maxLength);
+
+    long length(String key);
+
+    // listener acknowledges after handling, this is for entries read by other means
+    long acknowledge(String key, String group, String... ids);
+}
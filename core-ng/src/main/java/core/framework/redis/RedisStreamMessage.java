@@ -0,0 +1,16 @@
+package core.framework.redis;
+
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+public final class RedisStreamMessage {
+    public final String id;
+    public final Map<String, String> fields;
+
+    public RedisStreamMessage(String id, Map<String, String> fields) {
+        this.id = id;
+        this.fields = fields;
+    }
+}
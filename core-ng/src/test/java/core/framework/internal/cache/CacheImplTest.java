@@ -1,5 +1,7 @@
 package core.framework.internal.cache;
 
+import core.framework.async.Executor;
+import core.framework.async.Task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -19,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -57,6 +61,81 @@ class CacheImplTest {
         verify(cacheStore).put("name:key", value, Duration.ofHours(1), cache.context);
     }
 
+    @Test
+    void getWhenLoading() {
+        var value = cacheItem("value");
+        cache.loadings.put("name:key", CompletableFuture.completedFuture(value));
+
+        TestCache result = cache.get("key", key -> {
+            throw new Error("loader should not be called");
+        });
+        assertThat(result).isSameAs(value);
+        verify(cacheStore, never()).put(any(), any(), any(), any());
+    }
+
+    @Test
+    void getWhenLoadingTimedOut() {
+        cache.maxLoadWaitInMs = 10;
+        cache.loadings.put("name:key", new CompletableFuture<>());
+
+        TestCache result = cache.get("key", key -> cacheItem("value"));
+        assertThat(result.stringField).isEqualTo("value");
+        verify(cacheStore).put("name:key", result, Duration.ofHours(1), cache.context);
+    }
+
+    @Test
+    void getWhenLoadingFailed() {
+        cache.loadings.put("name:key", CompletableFuture.failedFuture(new IllegalStateException("failed to load")));
+
+        assertThatThrownBy(() -> cache.get("key", key -> cacheItem("value")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("failed to load");
+    }
+
+    @Test
+    void getWhenMissWithLoaderFailure() {
+        assertThatThrownBy(() -> cache.get("key", key -> {
+            throw new IllegalStateException("failed to load");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.loadings).isEmpty();
+    }
+
+    @Test
+    void getWithRefreshAhead() {
+        Executor executor = mock(Executor.class);
+        cache.refreshAhead(executor, 0.5);
+        var value = cacheItem("value");
+        when(cacheStore.getExpirable("name:key", cache.context))
+            .thenReturn(new CacheStore.Expirable<>(value, System.currentTimeMillis() + Duration.ofMinutes(10).toMillis()));
+
+        TestCache result = cache.get("key", key -> cacheItem("newValue"));
+        assertThat(result).isSameAs(value);
+        verify(executor).submit(eq("refreshCache"), any(Task.class));
+        assertThat(cache.loadings).containsKey("name:key");
+
+        cache.get("key", key -> cacheItem("newValue"));     // refresh is in-flight, not submit again
+        verify(executor).submit(eq("refreshCache"), any(Task.class));
+    }
+
+    @Test
+    void getWithRefreshAheadWhenNotDue() {
+        Executor executor = mock(Executor.class);
+        cache.refreshAhead(executor, 0.5);
+        var value = cacheItem("value");
+        when(cacheStore.getExpirable("name:key", cache.context))
+            .thenReturn(new CacheStore.Expirable<>(value, System.currentTimeMillis() + Duration.ofMinutes(50).toMillis()));
+
+        assertThat(cache.get("key", key -> cacheItem("newValue"))).isSameAs(value);
+        verify(executor, never()).submit(any(), any(Task.class));
+    }
+
+    @Test
+    void refreshAheadWithInvalidRatio() {
+        assertThatThrownBy(() -> cache.refreshAhead(mock(Executor.class), 1))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("ratio must be between 0 and 1");
+    }
+
     @Test
     void get() {
         TestCache item = cacheItem("value");
@@ -91,6 +170,45 @@ class CacheImplTest {
         verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && "v2".equals(argument.getFirst().value().stringField)), eq(Duration.ofHours(1)), eq(cache.context));
     }
 
+    @Test
+    void getWithCacheAbsent() {
+        cache.cacheAbsent(Duration.ofMinutes(1));
+        when(cacheStore.get("name:key", cache.context)).thenReturn(null);
+
+        assertThat(cache.get("key", key -> null)).isNull();
+        verify(cacheStore).put(eq("name:key"), eq(CacheStore.ABSENT), eq(Duration.ofMinutes(1)), any());
+    }
+
+    @Test
+    void getWhenAbsentHit() {
+        when((Object) cacheStore.get("name:key", cache.context)).thenReturn(CacheStore.ABSENT);
+
+        assertThat(cache.get("key", key -> cacheItem("value"))).isNull();
+        assertThat(cache.get("key")).isEmpty();
+    }
+
+    @Test
+    void getAllWithCacheAbsent() {
+        cache.cacheAbsent(Duration.ofMinutes(1));
+        when((Object) cacheStore.getAll(new String[]{"name:key1", "name:key2", "name:key3"}, cache.context)).thenReturn(Map.of("name:key1", CacheStore.ABSENT));
+
+        Map<String, TestCache> results = cache.getAll(Arrays.asList("key1", "key2", "key3"), key -> "key2".equals(key) ? cacheItem("v2") : null);
+        assertThat(results).containsOnlyKeys("key2");
+
+        verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && "name:key2".equals(argument.getFirst().key())), eq(Duration.ofHours(1)), eq(cache.context));
+        verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && argument.getFirst().value() == CacheStore.ABSENT), eq(Duration.ofMinutes(1)), eq(cache.context));
+    }
+
+    @Test
+    void getAllInBatchWithCacheAbsent() {
+        cache.cacheAbsent(Duration.ofMinutes(1));
+        when(cacheStore.getAll(new String[]{"name:key1", "name:key2"}, cache.context)).thenReturn(Map.of());
+
+        Map<String, TestCache> results = cache.getAllInBatch(List.of("key1", "key2"), keys -> Map.of("key1", cacheItem("v1")));
+        assertThat(results).containsOnlyKeys("key1");
+        verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && "name:key2".equals(argument.getFirst().key())), eq(Duration.ofMinutes(1)), eq(cache.context));
+    }
+
     @Test
     void getAllWhenHit() {
         var values = Map.of("name:key1", cacheItem("v1"),
@@ -103,6 +221,43 @@ class CacheImplTest {
         verify(cacheStore, never()).putAll(any(), any(), any());
     }
 
+    @Test
+    void getAllInBatch() {
+        var values = Map.of("name:key1", cacheItem("v1"));
+        when(cacheStore.getAll(new String[]{"name:key1", "name:key2", "name:key3"}, cache.context)).thenReturn(values);
+
+        Map<String, TestCache> results = cache.getAllInBatch(Arrays.asList("key1", "key2", "key3"), keys -> {
+            assertThat(keys).containsExactly("key2", "key3");
+            return Map.of("key2", cacheItem("v2"), "key3", cacheItem("v3"));
+        });
+        assertThat(results).containsOnlyKeys("key1", "key2", "key3");
+        assertThat(results.get("key1").stringField).isEqualTo("v1");
+        assertThat(results.get("key3").stringField).isEqualTo("v3");
+
+        verify(cacheStore).putAll(argThat(argument -> argument.size() == 2 && "name:key2".equals(argument.getFirst().key())), eq(Duration.ofHours(1)), eq(cache.context));
+    }
+
+    @Test
+    void getAllInBatchWhenHit() {
+        var values = Map.of("name:key1", cacheItem("v1"));
+        when(cacheStore.getAll(new String[]{"name:key1"}, cache.context)).thenReturn(values);
+
+        Map<String, TestCache> results = cache.getAllInBatch(List.of("key1"), keys -> {
+            throw new Error("loader should not be called");
+        });
+        assertThat(results).containsOnlyKeys("key1");
+        verify(cacheStore, never()).putAll(any(), any(), any());
+    }
+
+    @Test
+    void getAllInBatchWithMissingValue() {
+        when(cacheStore.getAll(new String[]{"name:key1", "name:key2"}, cache.context)).thenReturn(Map.of());
+
+        assertThatThrownBy(() -> cache.getAllInBatch(List.of("key1", "key2"), keys -> Map.of("key1", cacheItem("v1"))))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("value must not be null, key=key2");
+    }
+
     @Test
     void put() {
         TestCache item = cacheItem("v1");
@@ -0,0 +1,72 @@
+package core.framework.internal.cache;
+
+import core.framework.util.Strings;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class CacheValueCodecTest {
+    @Test
+    void encodeWithoutCompression() {
+        byte[] json = Strings.bytes("{\"stringField\":\"value\"}");
+        assertThat(CacheValueCodec.encode(json, -1)).isSameAs(json);
+        assertThat(CacheValueCodec.encode(json, 1024)).isSameAs(json);
+    }
+
+    @Test
+    void encodeWithCompression() throws IOException {
+        byte[] json = Strings.bytes("{\"listField\":[" + "\"value\",".repeat(500) + "\"value\"]}");
+        byte[] value = CacheValueCodec.encode(json, 1024);
+        assertThat(value[0]).isEqualTo(CacheValueCodec.MAGIC);
+        assertThat(value[1]).isEqualTo(CacheValueCodec.FORMAT_DEFLATE);
+        assertThat(value.length).isLessThan(json.length / 10);
+
+        assertThat(CacheValueCodec.decode(value)).isEqualTo(json);
+    }
+
+    @Test
+    void inflate() throws IOException {
+        byte[] json = Strings.bytes("{\"stringField\":\"" + "value".repeat(100) + "\"}");
+        byte[] value = CacheValueCodec.encode(json, 64);
+        byte[] buffer = new byte[value.length + 10];
+        System.arraycopy(value, 0, buffer, 5, value.length);
+
+        assertThat(CacheValueCodec.plain(buffer, 5, value.length)).isFalse();
+        assertThat(CacheValueCodec.inflate(buffer, 5, value.length)).isEqualTo(json);
+        assertThat(CacheValueCodec.plain(json, 0, json.length)).isTrue();
+    }
+
+    @Test
+    void encodeWithIncompressibleValue() {
+        byte[] json = Strings.bytes("{\"a\":1}");
+        assertThat(CacheValueCodec.encode(json, 1)).isSameAs(json);
+    }
+
+    @Test
+    void absent() {
+        assertThat(CacheValueCodec.absent(CacheValueCodec.absent())).isTrue();
+        assertThat(CacheValueCodec.absent(Strings.bytes("{}"))).isFalse();
+    }
+
+    @Test
+    void decodeJSON() throws IOException {
+        byte[] json = Strings.bytes("{\"stringField\":\"value\"}");
+        assertThat(CacheValueCodec.decode(json)).isSameAs(json);
+    }
+
+    @Test
+    void decodeWithInvalidValue() {
+        assertThatThrownBy(() -> CacheValueCodec.decode(new byte[]{0, 9, 0, 0, 0, 1}))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("unknown cache value format");
+
+        assertThatThrownBy(() -> CacheValueCodec.decode(new byte[]{0, 1, 0, 0, 0, 10, 1}))
+            .isInstanceOf(IOException.class);
+    }
+}
@@ -46,6 +46,17 @@ class LocalCacheStoreTest {
         assertThat(item.hits).isEqualTo(2);
     }
 
+    @Test
+    void getExpirable() {
+        assertThat(cacheStore.getExpirable("key1", null)).isNull();
+
+        var value = new TestCache();
+        cacheStore.put("key1", value, Duration.ofMinutes(1), null);
+        CacheStore.Expirable<TestCache> result = cacheStore.getExpirable("key1", null);
+        assertThat(result.value()).isSameAs(value);
+        assertThat(result.expirationTime()).isEqualTo(cacheStore.caches.get("key1").expirationTime);
+    }
+
     @Test
     void getWithExpiredKey() {
         var value = new TestCache();
@@ -65,17 +76,62 @@ class LocalCacheStoreTest {
     }
 
     @Test
-    void cleanupWithEviction() {
-        cacheStore.maxSize = 1;
+    void cleanupWithReplacedItems() {
+        cacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), null);
+        cacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), null);
+        cacheStore.put("key2", new TestCache(), Duration.ofMinutes(1), null);
+        cacheStore.delete("key2");
+        assertThat(cacheStore.evictionQueue).hasSize(3);
+
+        cacheStore.cleanup();
+        assertThat(cacheStore.evictionQueue).hasSize(1);
+    }
+
+    @Test
+    void evictOnPut() {
+        cacheStore.maxSize = 2;
+        cacheStore.put("k1", new TestCache(), Duration.ofHours(1), null);
+        cacheStore.put("k2", new TestCache(), Duration.ofHours(1), null);
+        cacheStore.put("k3", new TestCache(), Duration.ofHours(1), null);
+
+        assertThat(cacheStore.caches).containsOnlyKeys("k2", "k3");
+    }
+
+    @Test
+    void evictLeastFrequentlyUsedItems() {
+        cacheStore.maxSize = 2;
         cacheStore.put("k1", new TestCache(), Duration.ofHours(1), null);
         cacheStore.put("k2", new TestCache(), Duration.ofHours(1), null);
+        cacheStore.get("k1", null);
+        cacheStore.get("k1", null);
+
         cacheStore.put("k3", new TestCache(), Duration.ofHours(1), null);
+        assertThat(cacheStore.caches).containsOnlyKeys("k1", "k3");
+
+        cacheStore.putAll(List.of(new CacheStore.Entry<>("k4", new TestCache()), new CacheStore.Entry<>("k5", new TestCache())), Duration.ofHours(1), null);
+        assertThat(cacheStore.caches).hasSize(2);
+    }
+
+    @Test
+    void evictExpiredItems() {
+        cacheStore.maxSize = 2;
+        cacheStore.put("k1", new TestCache(), Duration.ofHours(1), null);
+        cacheStore.put("k2", new TestCache(), Duration.ZERO, null);
         cacheStore.get("k1", null);
-        cacheStore.get("k2", null);
-        cacheStore.get("k2", null);
 
-        cacheStore.cleanup();
-        assertThat(cacheStore.caches).containsOnlyKeys("k2");
+        cacheStore.put("k3", new TestCache(), Duration.ofHours(1), null);
+        assertThat(cacheStore.caches).containsOnlyKeys("k1", "k3");
+    }
+
+    @Test
+    void compactEvictionQueue() {
+        cacheStore.maxSize = 2;
+        for (int i = 0; i < 10; i++) {
+            cacheStore.put("k1", new TestCache(), Duration.ofHours(1), null);
+        }
+
+        assertThat(cacheStore.caches).containsOnlyKeys("k1");
+        assertThat(cacheStore.evictionQueue).hasSizeLessThanOrEqualTo(4);
     }
 
     @Test
@@ -100,8 +156,10 @@ class LocalCacheStoreTest {
 
     @Test
     void clear() {
+        cacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), null);
         cacheStore.clear();
 
         assertThat(cacheStore.caches).isEmpty();
+        assertThat(cacheStore.evictionQueue).isEmpty();
     }
 }
@@ -0,0 +1,52 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.stat.Stats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class OffHeapCacheMetricsTest {
+    private OffHeapCacheMetrics metrics;
+    private OffHeapCacheStore cacheStore;
+
+    @BeforeEach
+    void createOffHeapCacheMetrics() {
+        cacheStore = new OffHeapCacheStore();
+        metrics = new OffHeapCacheMetrics(cacheStore);
+    }
+
+    @AfterEach
+    void closeOffHeapCacheStore() {
+        cacheStore.close();
+    }
+
+    @Test
+    void collect() {
+        var stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats)
+                .containsEntry("cache_off_heap_size", 0.0d)
+                .containsEntry("cache_off_heap_allocated", 0.0d)
+                .containsEntry("cache_off_heap_fragmentation", 0.0d);
+
+        var context = new CacheContext<>(TestCache.class, Duration.ofHours(1));
+        cacheStore.put("key", new TestCache(), Duration.ofMinutes(1), context);
+        cacheStore.get("key", context);
+
+        stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats)
+                .containsEntry("cache_off_heap_size", 1.0d)
+                .containsEntry("cache_off_heap_allocated", (double) OffHeapCacheStore.SLAB_SIZE)
+                .containsEntry("cache_off_heap_hits", 1.0d);
+        assertThat(stats.stats.get("cache_off_heap_used")).isGreaterThan(0);
+        assertThat(stats.stats.get("cache_off_heap_fragmentation")).isGreaterThan(0.99);
+    }
+}
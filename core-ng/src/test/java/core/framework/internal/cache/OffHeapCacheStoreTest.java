@@ -0,0 +1,210 @@
+package core.framework.internal.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class OffHeapCacheStoreTest {
+    private OffHeapCacheStore cacheStore;
+    private CacheContext<TestCache> context;
+
+    @BeforeEach
+    void createOffHeapCacheStore() {
+        cacheStore = new OffHeapCacheStore();
+        context = new CacheContext<>(TestCache.class, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void closeOffHeapCacheStore() {
+        cacheStore.close();
+    }
+
+    @Test
+    void sizeClass() {
+        assertThat(OffHeapCacheStore.sizeClass(1)).isEqualTo(0);
+        assertThat(OffHeapCacheStore.sizeClass(64)).isEqualTo(0);
+        assertThat(OffHeapCacheStore.sizeClass(65)).isEqualTo(1);
+        assertThat(OffHeapCacheStore.sizeClass(128)).isEqualTo(1);
+        assertThat(OffHeapCacheStore.sizeClass(OffHeapCacheStore.SLAB_SIZE)).isEqualTo(14);
+    }
+
+    @Test
+    void get() {
+        assertThat(cacheStore.get("key1", context)).isNull();
+
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        assertThat(cacheStore.get("key1", context).stringField).isEqualTo("value1");
+        assertThat(cacheStore.stats.hits()).isEqualTo(1);
+        assertThat(cacheStore.stats.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void getWithExpiredKey() {
+        cacheStore.put("key1", value("value1"), Duration.ZERO, context);
+        assertThat(cacheStore.get("key1", context)).isNull();
+
+        cacheStore.cleanup();
+        assertThat(cacheStore.size()).isZero();
+        assertThat(cacheStore.usedBytes()).isZero();
+    }
+
+    @Test
+    void getExpirable() {
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        CacheStore.Expirable<TestCache> result = cacheStore.getExpirable("key1", context);
+        assertThat(result.value().stringField).isEqualTo("value1");
+        assertThat(result.expirationTime()).isEqualTo(cacheStore.items.get("key1").expirationTime);
+    }
+
+    @Test
+    void putWithSameKey() {
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        cacheStore.put("key1", value("value2"), Duration.ofMinutes(1), context);
+
+        assertThat(cacheStore.get("key1", context).stringField).isEqualTo("value2");
+        assertThat(cacheStore.size()).isEqualTo(1);
+        assertThat(cacheStore.slabs).hasSize(1);
+    }
+
+    @Test
+    void putWithDifferentSizeClasses() {
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        cacheStore.put("key2", value("v".repeat(1000)), Duration.ofMinutes(1), context);
+
+        assertThat(cacheStore.slabs).hasSize(2);
+        assertThat(cacheStore.get("key2", context).stringField).hasSize(1000);
+        assertThat(cacheStore.allocatedBytes()).isEqualTo(2L * OffHeapCacheStore.SLAB_SIZE);
+    }
+
+    @Test
+    void putWhenFull() {
+        cacheStore.maxSize = OffHeapCacheStore.SLAB_SIZE;
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        cacheStore.put("key2", value("v".repeat(1000)), Duration.ofMinutes(1), context);    // key1 is evicted to free slab for other size class
+
+        assertThat(cacheStore.get("key2", context)).isNotNull();
+        assertThat(cacheStore.get("key1", context)).isNull();
+        assertThat(cacheStore.slabs).hasSize(1);
+    }
+
+    @Test
+    void putWhenFullWithSameKey() {
+        cacheStore.maxSize = OffHeapCacheStore.SLAB_SIZE;
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        cacheStore.put("key1", value("v".repeat(1000)), Duration.ofMinutes(1), context);    // update with larger value must not delete key
+
+        assertThat(cacheStore.get("key1", context).stringField).hasSize(1000);
+    }
+
+    @Test
+    void putWhenFullWithReferencedItems() {
+        cacheStore.maxSize = OffHeapCacheStore.SLAB_SIZE;
+        cacheStore.put("key0", value("value"), Duration.ofMinutes(1), context);
+        int chunks = OffHeapCacheStore.SLAB_SIZE / (OffHeapCacheStore.MIN_CHUNK_SIZE << OffHeapCacheStore.sizeClass((int) cacheStore.usedBytes()));
+        for (int i = 1; i < chunks; i++) {
+            cacheStore.put("key" + i, value("value"), Duration.ofMinutes(1), context);
+        }
+        cacheStore.get("key0", context);
+        cacheStore.put("key" + chunks, value("value"), Duration.ofMinutes(1), context);    // key0 is read, so key1 is evicted
+
+        assertThat(cacheStore.get("key0", context)).isNotNull();
+        assertThat(cacheStore.get("key1", context)).isNull();
+        assertThat(cacheStore.get("key" + chunks, context)).isNotNull();
+        assertThat(cacheStore.size()).isEqualTo(chunks);
+    }
+
+    @Test
+    void putWhenFullWithMixedSizeClasses() {
+        cacheStore.maxSize = 2L * OffHeapCacheStore.SLAB_SIZE;
+        int smallChunks = fill("small", "value");
+        int largeChunks = fill("large", "v".repeat(1000));
+        assertThat(cacheStore.slabs).hasSize(2);
+
+        cacheStore.put("large" + largeChunks, value("v".repeat(1000)), Duration.ofMinutes(1), context);   // only oldest item of same size class is evicted
+        assertThat(cacheStore.get("large0", context)).isNull();
+        assertThat(cacheStore.get("large" + largeChunks, context)).isNotNull();
+        assertThat(cacheStore.get("small0", context)).isNotNull();
+        assertThat(cacheStore.size()).isEqualTo(smallChunks + largeChunks);
+    }
+
+    @Test
+    void putWhenFullWithNewSizeClass() {
+        cacheStore.maxSize = 2L * OffHeapCacheStore.SLAB_SIZE;
+        int smallChunks = fill("small", "value");
+        cacheStore.put("large", value("v".repeat(1000)), Duration.ofMinutes(1), context);
+
+        cacheStore.put("medium", value("v".repeat(200)), Duration.ofMinutes(1), context);   // least used slab is reassigned, small items are kept
+        assertThat(cacheStore.get("large", context)).isNull();
+        assertThat(cacheStore.get("medium", context)).isNotNull();
+        assertThat(cacheStore.size()).isEqualTo(smallChunks + 1);
+        assertThat(cacheStore.slabs).hasSize(2);
+    }
+
+    @Test
+    void putWhenFullWithExpiredItems() {
+        cacheStore.maxSize = OffHeapCacheStore.SLAB_SIZE;
+        cacheStore.put("key1", value("value1"), Duration.ZERO, context);
+        cacheStore.put("key2", value("v".repeat(1000)), Duration.ofMinutes(1), context);    // expired key1 is purged and empty slab is reused by other size class
+
+        assertThat(cacheStore.get("key2", context)).isNotNull();
+        assertThat(cacheStore.items).doesNotContainKey("key1");
+        assertThat(cacheStore.slabs).hasSize(1);
+    }
+
+    @Test
+    void putAbsent() {
+        cacheStore.put("key1", CacheStore.ABSENT, Duration.ofMinutes(1), (CacheContext) context);
+        assertThat((Object) cacheStore.get("key1", context)).isSameAs(CacheStore.ABSENT);
+    }
+
+    @Test
+    void putAll() {
+        cacheStore.putAll(List.of(new CacheStore.Entry<>("key1", value("value1")), new CacheStore.Entry<>("key2", value("value2"))), Duration.ofMinutes(1), context);
+
+        Map<String, TestCache> values = cacheStore.getAll(new String[]{"key1", "key2", "key3"}, context);
+        assertThat(values).containsOnlyKeys("key1", "key2");
+        assertThat(values.get("key2").stringField).isEqualTo("value2");
+    }
+
+    @Test
+    void delete() {
+        assertThat(cacheStore.delete("key1")).isFalse();
+
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        assertThat(cacheStore.delete("key1", "key2")).isTrue();
+        assertThat(cacheStore.get("key1", context)).isNull();
+        assertThat(cacheStore.usedBytes()).isZero();
+
+        cacheStore.put("key2", value("value2"), Duration.ofMinutes(1), context);
+        cacheStore.put("key3", value("value3"), Duration.ofMinutes(1), context);
+        cacheStore.delete("key2");
+        cacheStore.put("key4", value("value4"), Duration.ofMinutes(1), context);   // reuse freed chunk
+        assertThat(cacheStore.items.get("key4").offset).isZero();
+        assertThat(cacheStore.slabs).hasSize(1);
+    }
+
+    // fill one slab with values of same size class, returns number of items
+    private int fill(String prefix, String stringField) {
+        cacheStore.put(prefix + 0, value(stringField), Duration.ofMinutes(1), context);
+        int chunks = OffHeapCacheStore.SLAB_SIZE / (OffHeapCacheStore.MIN_CHUNK_SIZE << OffHeapCacheStore.sizeClass(cacheStore.items.get(prefix + 0).length));
+        for (int i = 1; i < chunks; i++) {
+            cacheStore.put(prefix + i, value(stringField), Duration.ofMinutes(1), context);
+        }
+        return chunks;
+    }
+
+    private TestCache value(String stringField) {
+        var value = new TestCache();
+        value.stringField = stringField;
+        return value;
+    }
+}
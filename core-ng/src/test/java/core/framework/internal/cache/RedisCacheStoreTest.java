@@ -1,19 +1,26 @@
 package core.framework.internal.cache;
 
+import core.framework.internal.redis.BlobDecoder;
 import core.framework.internal.redis.RedisException;
 import core.framework.internal.redis.RedisImpl;
 import core.framework.util.Strings;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -32,49 +39,99 @@ class RedisCacheStoreTest {
 
     @BeforeEach
     void createRedisCacheStore() {
-        context = new CacheContext<>(TestCache.class);
+        context = new CacheContext<>(TestCache.class, Duration.ofHours(1));
         cacheStore = new RedisCacheStore(redis);
     }
 
     @Test
     void get() {
-        when(redis.getBytes("key")).thenReturn(Strings.bytes("{\"stringField\":\"value\"}"));
+        when(redis.get(eq("key"), any())).thenAnswer(decode(Strings.bytes("{\"stringField\":\"value\"}")));
         assertThat(cacheStore.get("key", context).stringField).isEqualTo("value");
     }
 
+    @Test
+    void getWithLargeValue() throws IOException {
+        var value = new TestCache();
+        value.stringField = "value".repeat(5000);
+        byte[] json = context.writer.toJSON(value);
+        var decoder = ArgumentCaptor.forClass(BlobDecoder.class);
+        when(redis.get(eq("key"), decoder.capture())).thenReturn(null);
+        cacheStore.get("key", context);
+
+        var result = (TestCache) decoder.getValue().decode(new ByteArrayInputStream(json), json.length);
+        assertThat(result.stringField).isEqualTo(value.stringField);
+
+        assertThat(decoder.getValue().decode(new ByteArrayInputStream(Strings.bytes("{\"listField\": 1}")), 15)).isNull();
+    }
+
     @Test
     void getWithStaleData() {
-        when(redis.getBytes("key")).thenReturn(Strings.bytes("{}"));
+        when(redis.get(eq("key"), any())).thenAnswer(decode(Strings.bytes("{}")));
         assertThat(cacheStore.get("key", context)).isNull();
     }
 
     @Test
     void getWithInvalidJSON() {
-        when(redis.getBytes("key")).thenReturn(Strings.bytes("{\"listField\": 1}"));
+        when(redis.get(eq("key"), any())).thenAnswer(decode(Strings.bytes("{\"listField\": 1}")));
         assertThat(cacheStore.get("key", context)).isNull();
     }
 
     @Test
     void getWithFailure() {
-        when(redis.getBytes("key")).thenThrow(new RedisException("unexpected"));
+        when(redis.get(eq("key"), any())).thenThrow(new RedisException("unexpected"));
         assertThat(cacheStore.get("key", context)).isNull();
     }
 
+    @Test
+    void getExpirable() {
+        when(redis.getExpirable(eq("key"), any())).thenAnswer(invocation -> {
+            BlobDecoder<?> decoder = invocation.getArgument(1);
+            byte[] value = Strings.bytes("{\"stringField\":\"value\"}");
+            return new RedisImpl.ExpirableValue<>(decoder.decode(value, 0, value.length), 60000);
+        });
+        CacheStore.Expirable<TestCache> result = cacheStore.getExpirable("key", context);
+        assertThat(result.value().stringField).isEqualTo("value");
+        assertThat(result.expirationTime()).isGreaterThan(System.currentTimeMillis());
+
+        when(redis.getExpirable(eq("key"), any())).thenReturn(new RedisImpl.ExpirableValue<>(null, -2));
+        assertThat(cacheStore.getExpirable("key", context)).isNull();
+    }
+
+    @Test
+    void getExpirableWithFailure() {
+        when(redis.getExpirable(eq("key"), any())).thenThrow(new RedisException("unexpected"));
+        assertThat(cacheStore.getExpirable("key", context)).isNull();
+    }
+
     @Test
     void getAll() {
         Map<String, byte[]> values = Map.of("key", Strings.bytes("{\"stringField\":\"value\"}"));
-        when(redis.multiGetBytes("key")).thenReturn(values);
+        when(redis.multiGet(eq(new String[]{"key"}), any())).thenAnswer(decode(values));
         Map<String, TestCache> results = cacheStore.getAll(new String[]{"key"}, context);
         assertThat(results).hasSize(1);
         assertThat(results.get("key").stringField).isEqualTo("value");
     }
 
+    @Test
+    void getAllExpirable() {
+        when(redis.multiGetExpirable(eq(new String[]{"key1", "key2"}), any())).thenAnswer(invocation -> {
+            BlobDecoder<?> decoder = invocation.getArgument(1);
+            byte[] value = Strings.bytes("{\"stringField\":\"value\"}");
+            return Map.of("key1", new RedisImpl.ExpirableValue<>(decoder.decode(value, 0, value.length), 60000),
+                "key2", new RedisImpl.ExpirableValue<>(decoder.decode(value, 0, value.length), -1));
+        });
+        Map<String, CacheStore.Expirable<TestCache>> results = cacheStore.getAllExpirable(new String[]{"key1", "key2"}, context);
+        assertThat(results.get("key1").value().stringField).isEqualTo("value");
+        assertThat(results.get("key1").expirationTime()).isBetween(System.currentTimeMillis(), System.currentTimeMillis() + 60000);
+        assertThat(results.get("key2").expirationTime()).isEqualTo(Long.MAX_VALUE);
+    }
+
     @Test
     void getAllWithStaleAndInvalidData() {
         Map<String, byte[]> values = Map.of("key1", Strings.bytes("{\"stringField\":\"value\"}"),
                 "key2", Strings.bytes("{}"),
                 "key3", Strings.bytes("{\"listField\": 1}"));
-        when(redis.multiGetBytes("key1", "key2", "key3")).thenReturn(values);
+        when(redis.multiGet(eq(new String[]{"key1", "key2", "key3"}), any())).thenAnswer(decode(values));
         Map<String, TestCache> results = cacheStore.getAll(new String[]{"key1", "key2", "key3"}, context);
         assertThat(results).hasSize(1);
         assertThat(results.get("key1").stringField).isEqualTo("value");
@@ -82,7 +139,7 @@ class RedisCacheStoreTest {
 
     @Test
     void getAllWithFailure() {
-        when(redis.multiGetBytes("key")).thenThrow(new RedisException("unexpected"));
+        when(redis.multiGet(eq(new String[]{"key"}), any())).thenThrow(new RedisException("unexpected"));
         assertThat(cacheStore.getAll(new String[]{"key"}, context)).isEmpty();
     }
 
@@ -94,6 +151,31 @@ class RedisCacheStoreTest {
         verify(redis).set("key", context.writer.toJSON(value), expiration, false);
     }
 
+    @Test
+    void putAndGetWithCompression() {
+        context.compressionThreshold = 64;
+        var value = new TestCache();
+        value.stringField = "value".repeat(100);
+        cacheStore.put("key", value, Duration.ofHours(1), context);
+
+        var captor = ArgumentCaptor.forClass(byte[].class);
+        verify(redis).set(eq("key"), captor.capture(), eq(Duration.ofHours(1)), eq(false));
+        byte[] compressedValue = captor.getValue();
+        assertThat(compressedValue[0]).isEqualTo(CacheValueCodec.MAGIC);
+
+        when(redis.get(eq("key"), any())).thenAnswer(decode(compressedValue));
+        assertThat(cacheStore.get("key", context).stringField).isEqualTo(value.stringField);
+    }
+
+    @Test
+    void putAndGetAbsent() {
+        cacheStore.put("key", CacheStore.ABSENT, Duration.ofMinutes(1), (CacheContext) context);
+        verify(redis).set("key", CacheValueCodec.absent(), Duration.ofMinutes(1), false);
+
+        when(redis.get(eq("key"), any())).thenAnswer(decode(CacheValueCodec.absent()));
+        assertThat((Object) cacheStore.get("key", context)).isSameAs(CacheStore.ABSENT);
+    }
+
     @Test
     void putWithFailure() {
         var value = new TestCache();
@@ -133,4 +215,23 @@ class RedisCacheStoreTest {
         when(redis.del("key")).thenThrow(new RedisException("unexpected"));
         assertThat(cacheStore.delete("key")).isFalse();
     }
+
+    private Answer<Object> decode(byte[] value) {
+        return invocation -> {
+            BlobDecoder<?> decoder = invocation.getArgument(1);
+            return decoder.decode(value, 0, value.length);
+        };
+    }
+
+    private Answer<Object> decode(Map<String, byte[]> values) {
+        return invocation -> {
+            BlobDecoder<?> decoder = invocation.getArgument(1);
+            Map<String, Object> results = new HashMap<>();
+            for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+                Object value = decoder.decode(entry.getValue(), 0, entry.getValue().length);
+                if (value != null) results.put(entry.getKey(), value);
+            }
+            return results;
+        };
+    }
 }
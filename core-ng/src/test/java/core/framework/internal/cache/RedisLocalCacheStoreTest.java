@@ -0,0 +1,181 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.redis.RedisImpl;
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisLocalCacheStoreTest {
+    @Mock
+    RedisCacheStore redisCacheStore;
+    @Mock
+    RedisImpl redis;
+    private LocalCacheStore localCacheStore;
+    private CacheContext<TestCache> context;
+    private RedisLocalCacheStore cacheStore;
+
+    @BeforeEach
+    void createRedisLocalCacheStore() {
+        localCacheStore = new LocalCacheStore();
+        context = new CacheContext<>(TestCache.class, Duration.ofHours(1));
+        cacheStore = new RedisLocalCacheStore(localCacheStore, redisCacheStore, redis);
+    }
+
+    @Test
+    void getFromLocal() {
+        var value = new TestCache();
+        localCacheStore.put("key", value, Duration.ofMinutes(1), context);
+
+        assertThat(cacheStore.get("key", context)).isSameAs(value);
+        verify(redisCacheStore, never()).get("key", context);
+    }
+
+    @Test
+    void getFromRedis() {
+        var value = new TestCache();
+        long expirationTime = System.currentTimeMillis() + Duration.ofMinutes(1).toMillis();
+        when(redisCacheStore.getExpirable("key", context)).thenReturn(new CacheStore.Expirable<>(value, expirationTime));
+
+        assertThat(cacheStore.get("key", context)).isSameAs(value);
+        assertThat(localCacheStore.caches.get("key").expirationTime).isCloseTo(expirationTime, within(100L));
+    }
+
+    @Test
+    void getAbsentFromRedis() {
+        // absent marker put by other node with absentDuration, local copy must expire along with it, not with cache duration
+        long expirationTime = System.currentTimeMillis() + Duration.ofSeconds(5).toMillis();
+        when(redisCacheStore.getExpirable("key", context)).thenReturn(absent(expirationTime));
+
+        cacheStore.getExpirable("key", context);
+        LocalCacheStore.CacheItem<?> item = localCacheStore.caches.get("key");
+        assertThat(item.value).isSameAs(CacheStore.ABSENT);
+        assertThat(item.expirationTime).isCloseTo(expirationTime, within(100L));
+    }
+
+    @Test
+    void getExpiredAbsentFromRedis() {
+        when(redisCacheStore.getExpirable("key", context)).thenReturn(absent(System.currentTimeMillis() - 1));
+
+        cacheStore.getExpirable("key", context);
+        assertThat(localCacheStore.caches).doesNotContainKey("key");
+    }
+
+    @Test
+    void getFromRedisWithInvalidationDuringRead() {
+        var value = new TestCache();
+        when(redisCacheStore.getExpirable("key", context)).thenAnswer(invocation -> {
+            // invalidation arrives after stale value is read from redis
+            cacheStore.invalidate(Strings.bytes("{\"keys\":[\"key\"],\"sender\":\"other\"}"));
+            return new CacheStore.Expirable<>(value, System.currentTimeMillis() + Duration.ofMinutes(1).toMillis());
+        });
+
+        assertThat(cacheStore.get("key", context)).isSameAs(value);
+        assertThat(localCacheStore.caches).doesNotContainKey("key");
+    }
+
+    @Test
+    void getExpirableFromRedis() {
+        var value = new TestCache();
+        long expirationTime = System.currentTimeMillis() + Duration.ofMinutes(1).toMillis();
+        when(redisCacheStore.getExpirable("key", context)).thenReturn(new CacheStore.Expirable<>(value, expirationTime));
+
+        assertThat(cacheStore.getExpirable("key", context).value()).isSameAs(value);
+        assertThat(localCacheStore.caches.get("key").expirationTime).isCloseTo(expirationTime, within(100L));   // local expiration follows remaining ttl of redis
+
+        assertThat(cacheStore.getExpirable("key", context).value()).isSameAs(value);
+        verify(redisCacheStore).getExpirable("key", context);
+    }
+
+    @Test
+    void getAll() {
+        var value1 = new TestCache();
+        var value2 = new TestCache();
+        localCacheStore.put("key1", value1, Duration.ofMinutes(1), context);
+        long expirationTime = System.currentTimeMillis() + Duration.ofSeconds(10).toMillis();
+        when(redisCacheStore.getAllExpirable(new String[]{"key2", "key3"}, context)).thenReturn(Map.of("key2", new CacheStore.Expirable<>(value2, expirationTime)));
+
+        Map<String, TestCache> values = cacheStore.getAll(new String[]{"key1", "key2", "key3"}, context);
+        assertThat(values).containsOnly(Map.entry("key1", value1), Map.entry("key2", value2));
+        assertThat(localCacheStore.caches).containsOnlyKeys("key1", "key2");
+        assertThat(localCacheStore.caches.get("key2").expirationTime).isCloseTo(expirationTime, within(100L));
+    }
+
+    @Test
+    void put() {
+        var value = new TestCache();
+        cacheStore.put("key", value, Duration.ofMinutes(1), context);
+
+        verify(redisCacheStore).put("key", value, Duration.ofMinutes(1), context);
+        assertThat(localCacheStore.caches).containsKey("key");
+        verify(redis).publish(eq(RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE), any(byte[].class));
+    }
+
+    @Test
+    void putAll() {
+        List<CacheStore.Entry<TestCache>> values = List.of(new CacheStore.Entry<>("key1", new TestCache()), new CacheStore.Entry<>("key2", new TestCache()));
+        cacheStore.putAll(values, Duration.ofMinutes(1), context);
+
+        verify(redisCacheStore).putAll(values, Duration.ofMinutes(1), context);
+        assertThat(localCacheStore.caches).containsOnlyKeys("key1", "key2");
+        verify(redis).publish(eq(RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE), any(byte[].class));
+    }
+
+    @Test
+    void delete() {
+        localCacheStore.put("key", new TestCache(), Duration.ofMinutes(1), context);
+        when(redisCacheStore.delete("key")).thenReturn(true);
+
+        assertThat(cacheStore.delete("key")).isTrue();
+        assertThat(localCacheStore.caches).isEmpty();
+        verify(redis).publish(eq(RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE), any(byte[].class));
+    }
+
+    @Test
+    void invalidate() {
+        localCacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), context);
+        localCacheStore.put("key2", new TestCache(), Duration.ofMinutes(1), context);
+
+        cacheStore.invalidate(Strings.bytes("{\"keys\":[\"key1\"],\"sender\":\"other\"}"));
+        assertThat(localCacheStore.caches).containsOnlyKeys("key2");
+    }
+
+    @Test
+    void invalidateFromSelf() {
+        localCacheStore.put("key", new TestCache(), Duration.ofMinutes(1), context);
+
+        cacheStore.invalidate(Strings.bytes("{\"keys\":[\"key\"],\"sender\":\"" + cacheStore.sender + "\"}"));
+        assertThat(localCacheStore.caches).containsOnlyKeys("key");
+    }
+
+    @Test
+    void invalidateWithInvalidMessage() {
+        localCacheStore.put("key", new TestCache(), Duration.ofMinutes(1), context);
+
+        cacheStore.invalidate(Strings.bytes("invalid"));
+        assertThat(localCacheStore.caches).containsOnlyKeys("key");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CacheStore.Expirable<T> absent(long expirationTime) {
+        return new CacheStore.Expirable<>((T) CacheStore.ABSENT, expirationTime);
+    }
+}
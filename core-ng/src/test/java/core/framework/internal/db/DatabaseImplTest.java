@@ -1,5 +1,6 @@
 package core.framework.internal.db;
 
+import core.framework.db.Database;
 import core.framework.db.Transaction;
 import core.framework.db.UncheckedSQLException;
 import core.framework.internal.db.cloud.GCloudAuthProvider;
@@ -18,6 +19,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
@@ -70,8 +72,38 @@ class DatabaseImplTest {
         List<EntityView> views = database.select("SELECT string_field as string_label, enum_field as enum_label FROM database_test", EntityView.class);
 
         assertThat(views).hasSize(2);
+        assertThat(views.get(0).id).isNull();     // column not returned
         assertThat(views.get(0).enumField).isEqualTo(TestEnum.V1);
         assertThat(views.get(1).enumField).isEqualTo(TestEnum.V2);
+        assertThat(views.get(1).stringField).isEqualTo("string2");
+    }
+
+    @Test
+    void forEachWithView() {
+        insertRow(1, "string1", TestEnum.V1);
+        insertRow(2, "string2", TestEnum.V2);
+
+        List<EntityView> views = new ArrayList<>();
+        database.forEach("SELECT string_field as string_label, enum_field as enum_label FROM database_test ORDER BY id", EntityView.class, views::add);
+
+        assertThat(views).hasSize(2);
+        assertThat(views.get(0).stringField).isEqualTo("string1");
+        assertThat(views.get(1).enumField).isEqualTo(TestEnum.V2);
+    }
+
+    @Test
+    void forEachInTransaction() {
+        insertRow(1, "string1", TestEnum.V1);
+
+        database.operation.streamInTransaction = true;
+        try {
+            List<String> values = new ArrayList<>();
+            database.forEach("SELECT string_field FROM database_test WHERE id = ?", String.class, values::add, 1);
+            assertThat(values).containsExactly("string1");
+        } finally {
+            database.operation.streamInTransaction = false;
+        }
+        assertThat(database.selectOne("SELECT string_field FROM database_test WHERE id = ?", String.class, 1)).hasValue("string1");
     }
 
     @Test
@@ -243,6 +275,42 @@ class DatabaseImplTest {
             .containsEntry("sslMode", "PREFERRED");
     }
 
+    @Test
+    void replica() {
+        var replica = new DatabaseImpl("replica");
+        replica.url("jdbc:hsqldb:mem:replica;sql.syntax_mys=true");
+        replica.execute("CREATE TABLE replica_test (id INT PRIMARY KEY)");
+        replica.execute("INSERT INTO replica_test (id) VALUES (2)");
+
+        var database = new DatabaseImpl("primary");
+        database.url("jdbc:hsqldb:mem:primary;sql.syntax_mys=true");
+        database.replica("jdbc:hsqldb:mem:replica;sql.syntax_mys=true");
+        assertThatThrownBy(() -> database.replica("jdbc:mysql://localhost/replica"))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("replica must use same driver as primary");
+        try {
+            database.execute("CREATE TABLE replica_test (id INT PRIMARY KEY)");
+            database.execute("INSERT INTO replica_test (id) VALUES (1)");
+
+            assertThat(database.selectOne("SELECT id FROM replica_test", Integer.class)).hasValue(2);
+            try (Transaction transaction = database.beginTransaction()) {
+                assertThat(database.selectOne("SELECT id FROM replica_test", Integer.class)).hasValue(1);
+                transaction.commit();
+            }
+
+            var logManager = new LogManager();
+            logManager.begin("begin", null);
+            Database.readFromPrimary(true);
+            assertThat(database.select("SELECT id FROM replica_test", Integer.class)).containsExactly(1);
+            Database.readFromPrimary(false);
+            assertThat(database.select("SELECT id FROM replica_test", Integer.class)).containsExactly(2);
+            logManager.end("end");
+        } finally {
+            database.close();
+            replica.close();
+        }
+    }
+
     @Test
     void track() {
         var logManager = new LogManager();
@@ -0,0 +1,35 @@
+package core.framework.internal.db;
+
+import core.framework.util.ClasspathResources;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class PrimaryKeyReaderBuilderTest {
+    @Test
+    void sourceCode() {
+        var builder = new PrimaryKeyReaderBuilder<>(CompositeKeyEntity.class);
+        PrimaryKeyReader<CompositeKeyEntity> reader = builder.build();
+
+        String sourceCode = builder.builder.sourceCode();
+        assertThat(sourceCode).isEqualTo(ClasspathResources.text("db-test/primary-key-reader-composite-key.java"));
+
+        var entity = new CompositeKeyEntity();
+        entity.id1 = "id1";
+        entity.id2 = "id2";
+        assertThat(reader.primaryKey(entity)).isEqualTo(List.of("id1", "id2"));
+    }
+
+    @Test
+    void primaryKey() {
+        PrimaryKeyReader<AssignedIdEntity> reader = new PrimaryKeyReaderBuilder<>(AssignedIdEntity.class).build();
+        var entity = new AssignedIdEntity();
+        entity.id = "id";
+        assertThat(reader.primaryKey(entity)).isEqualTo("id");
+    }
+}
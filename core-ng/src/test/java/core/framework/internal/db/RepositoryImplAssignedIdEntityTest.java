@@ -17,6 +17,7 @@ import java.time.Month;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.UUID;
@@ -303,6 +304,79 @@ class RepositoryImplAssignedIdEntityTest {
         assertThat(results.get(4).intField).isEqualTo(304);
     }
 
+    @Test
+    void getAll() {
+        List<AssignedIdEntity> entities = Lists.newArrayList();
+        List<String> ids = Lists.newArrayList();
+        for (int i = 0; i < 1200; i++) {
+            entities.add(entity(String.valueOf(i), "value" + i, i));
+            ids.add(String.valueOf(i));
+        }
+        repository.batchInsert(entities);
+        ids.add("not-existed");
+
+        Map<Object, AssignedIdEntity> results = repository.getAll(ids);     // split into 2 queries
+        assertThat(results).hasSize(1200);
+        assertThat(results.get("1100").intField).isEqualTo(1100);
+        assertThat(results).doesNotContainKey("not-existed");
+
+        assertThatThrownBy(() -> repository.getAll(List.of()))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("primaryKeys must not be empty");
+    }
+
+    @Test
+    void selectAfter() {
+        List<AssignedIdEntity> entities = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            AssignedIdEntity entity = entity(String.valueOf(i), "value" + i, i % 3);
+            entities.add(entity);
+        }
+        repository.batchInsert(entities);
+
+        Query<AssignedIdEntity> query = repository.select();
+        query.where("string_field like ?", "value%");
+        query.after(1, "4");    // condition is built with orderBy on fetch
+        query.orderBy("int_field DESC, id");
+        query.limit(3);
+
+        List<AssignedIdEntity> results = query.fetch();
+        assertThat(results).extracting(entity -> entity.id).containsExactly("7", "0", "3");
+
+        query.after((Object[]) null);
+        assertThat(query.fetch()).extracting(entity -> entity.id).containsExactly("2", "5", "8");
+
+        query.after(1);
+        assertThatThrownBy(query::fetch)
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("does not match sort columns");
+
+        query.after(1, "4");
+        query.skip(1);
+        assertThatThrownBy(query::fetch)
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("skip must not be used with after");
+    }
+
+    @Test
+    void forEachPage() {
+        List<AssignedIdEntity> entities = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            AssignedIdEntity entity = entity(String.valueOf(i), "value" + i, i);
+            entities.add(entity);
+        }
+        repository.batchInsert(entities);
+
+        Query<AssignedIdEntity> query = repository.select();
+        query.where("int_field > ?", 2);
+        query.orderBy("int_field");
+        query.skip(2);
+        List<List<String>> pages = Lists.newArrayList();
+        repository.forEachPage(query, 3, entity -> new Object[]{entity.intField}, page -> pages.add(page.stream().map(entity -> entity.id).toList()));
+
+        assertThat(pages).containsExactly(List.of("3", "4", "5"), List.of("6", "7", "8"), List.of("9"));
+    }
+
     @Test
     void count() {
         List<AssignedIdEntity> entities = Lists.newArrayList();
@@ -14,7 +14,9 @@ import java.time.Month;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.chrono.ChronoZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.stream.LongStream;
@@ -83,6 +85,20 @@ class RepositoryImplAutoIncrementIdEntityTest {
         assertThat(repository.get(ids.orElseThrow()[99])).get().usingRecursiveComparison().ignoringFields("id").isEqualTo(entities.get(99));
     }
 
+    @Test
+    void getAll() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add((int) repository.insert(entity("string-" + i, i)).orElseThrow());
+        }
+
+        Map<Object, AutoIncrementIdEntity> results = repository.getAll(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(results.get(ids.get(i)).stringField).isEqualTo("string-" + i);   // look up with passed keys
+        }
+        assertThat(results).doesNotContainKey((long) ids.getFirst());     // key type must match Integer id field
+    }
+
     @Test
     void insertIgnore() {
         assertThatThrownBy(() -> repository.insertIgnore(new AutoIncrementIdEntity()))
@@ -143,6 +159,20 @@ class RepositoryImplAutoIncrementIdEntityTest {
         assertThat(count).isEqualTo(1);
     }
 
+    @Test
+    void forEach() {
+        repository.insert(entity("string1", 1));
+        repository.insert(entity("string2", 2));
+        repository.insert(entity("string3", 3));
+
+        Query<AutoIncrementIdEntity> query = repository.select();
+        query.where("double_field > ?", 1);
+        query.orderBy("double_field");
+        List<String> values = new ArrayList<>();
+        query.forEach(entity -> values.add(entity.stringField));
+        assertThat(values).containsExactly("string2", "string3");
+    }
+
     private AutoIncrementIdEntity entity(String stringField, double doubleFiled) {
         var entity = new AutoIncrementIdEntity();
         entity.stringField = stringField;
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -124,16 +126,40 @@ class RepositoryImplCompositeKeyEntityTest {
     }
 
     @Test
-    void batchDeleteParams() {
+    void getAll() {
+        var entity1 = new CompositeKeyEntity();
+        entity1.id1 = "1";
+        entity1.id2 = "2";
+        entity1.booleanField = Boolean.TRUE;
+        var entity2 = new CompositeKeyEntity();
+        entity2.id1 = "1";
+        entity2.id2 = "3";
+        entity2.booleanField = Boolean.FALSE;
+        repository.batchInsert(List.of(entity1, entity2));
+
+        List<Object[]> keys = List.of(new Object[]{"1", "2"}, new Object[]{"1", "3"}, new Object[]{"2", "2"});
+        Map<Object, CompositeKeyEntity> entities = repository.getAll(keys);
+        assertThat(entities).hasSize(2);
+        assertThat(entities.get(List.of("1", "2")).booleanField).isTrue();
+        assertThat(entities.get(List.of("1", "3")).booleanField).isFalse();
+
+        // look up with passed keys
+        assertThat(entities.get(Arrays.asList(keys.get(0)))).isNotNull();
+        assertThat(entities.get(Arrays.asList(keys.get(1)))).isNotNull();
+        assertThat(entities.get(Arrays.asList(keys.get(2)))).isNull();
+    }
+
+    @Test
+    void primaryKeyParams() {
         assertThatThrownBy(() -> {
             var impl = (RepositoryImpl<CompositeKeyEntity>) repository;
-            impl.batchDeleteParams(List.of(1, 2, 3));
+            impl.primaryKeyParams(List.of(1, 2, 3));
         }).isInstanceOf(Error.class)
             .hasMessageContaining("the length of primary keys must match columns");
 
         assertThatThrownBy(() -> {
             var impl = (RepositoryImpl<CompositeKeyEntity>) repository;
-            impl.batchDeleteParams(List.of(1, 1, 1));
+            impl.primaryKeyParams(List.of(1, 1, 1));
         }).isInstanceOf(Error.class)
             .hasMessageContaining("the length of primary keys must match columns");
     }
@@ -3,6 +3,7 @@ package core.framework.internal.db;
 import core.framework.util.ClasspathResources;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -17,6 +18,7 @@ class RowMapperBuilderTest {
         assertNotNull(mapper);
         String sourceCode = builder.builder.sourceCode();
         assertEquals(ClasspathResources.text("db-test/row-mapper-auto-increment-id.java"), sourceCode);
+        assertArrayEquals(new String[]{"id", "string_field", "double_field", "enum_field", "date_time_field", "zoned_date_time_field"}, mapper.columns());
     }
 
     @Test
@@ -2,9 +2,11 @@ package core.framework.internal.db;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author neo
@@ -16,6 +18,15 @@ class SelectQueryTest {
         assertThat(query.getSQL).isEqualTo("SELECT id, string_field, int_field, big_decimal_field, date_field, zoned_date_time_field FROM assigned_id_entity WHERE id = ?");
     }
 
+    @Test
+    void getAllSQL() {
+        SelectQuery<AssignedIdEntity> query = new SelectQuery<>(AssignedIdEntity.class, Dialect.MYSQL);
+        assertThat(query.getAllSQL(2)).isEqualTo("SELECT id, string_field, int_field, big_decimal_field, date_field, zoned_date_time_field FROM assigned_id_entity WHERE id IN (?, ?)");
+
+        SelectQuery<CompositeKeyEntity> compositeKeyQuery = new SelectQuery<>(CompositeKeyEntity.class, Dialect.POSTGRESQL);
+        assertThat(compositeKeyQuery.getAllSQL(2)).isEqualTo("SELECT id1, id2, boolean_field, long_field FROM composite_key_entity WHERE (id1, id2) IN ((?, ?), (?, ?))");
+    }
+
     @Test
     void fetchSQL() {
         SelectQuery<AssignedIdEntity> query = new SelectQuery<>(AssignedIdEntity.class, Dialect.MYSQL);
@@ -30,6 +41,35 @@ class SelectQueryTest {
         assertThat(sql).isEqualTo("SELECT id, string_field, int_field, big_decimal_field, date_field, zoned_date_time_field FROM assigned_id_entity WHERE string_field = ? ORDER BY int_field ASC OFFSET ? LIMIT ?");
     }
 
+    @Test
+    void afterCondition() {
+        SelectQuery<AssignedIdEntity> query = new SelectQuery<>(AssignedIdEntity.class, Dialect.MYSQL);
+        List<Object> params = new ArrayList<>();
+        assertThat(query.afterCondition("id", new Object[]{"1"}, params)).isEqualTo("id > ?");
+        assertThat(params).containsExactly("1");
+
+        params.clear();
+        assertThat(query.afterCondition("int_field desc, id", new Object[]{2, "1"}, params))
+            .isEqualTo("int_field <= ? AND (int_field < ? OR (int_field = ? AND id > ?))");
+        assertThat(params).containsExactly(2, 2, 2, "1");
+
+        assertThatThrownBy(() -> query.afterCondition("lower(id) nulls first", new Object[]{"1"}, new ArrayList<>()))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("sort must be columns with optional ASC/DESC");
+    }
+
+    @Test
+    void afterConditionWithPostgreSQL() {
+        SelectQuery<AssignedIdEntity> query = new SelectQuery<>(AssignedIdEntity.class, Dialect.POSTGRESQL);
+        List<Object> params = new ArrayList<>();
+        assertThat(query.afterCondition("int_field DESC, id DESC", new Object[]{2, "1"}, params)).isEqualTo("(int_field, id) < (?, ?)");
+        assertThat(params).containsExactly(2, "1");
+
+        params.clear();
+        assertThat(query.afterCondition("int_field, id DESC", new Object[]{2, "1"}, params))
+            .isEqualTo("int_field >= ? AND (int_field > ? OR (int_field = ? AND id < ?))");
+    }
+
     @Test
     void params() {
         SelectQuery<AssignedIdEntity> query = new SelectQuery<>(AssignedIdEntity.class, Dialect.MYSQL);
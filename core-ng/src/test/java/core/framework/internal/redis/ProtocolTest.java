@@ -34,6 +34,16 @@ class ProtocolTest {
         assertThat(decode(stream.toByteArray())).isEqualTo("$5\r\nvalue\r\n");
     }
 
+    @Test
+    void parseMessage() {
+        Protocol.Message message = Protocol.parseMessage(new Object[]{encode("message"), encode("channel"), encode("value")});
+        assertThat(message).isNotNull();
+        assertThat(message.channel()).isEqualTo("channel");
+        assertThat(decode(message.payload())).isEqualTo("value");
+
+        assertThat(Protocol.parseMessage(new Object[]{encode("subscribe"), encode("channel"), 1L})).isNull();
+    }
+
     @Test
     void readSimpleError() {
         var stream = new ByteArrayInputStream(Strings.bytes("-error-message\r\n"));
@@ -49,6 +59,42 @@ class ProtocolTest {
         assertThat(response).containsExactly(encode("1"), encode("2"), encode("3"));
     }
 
+    @Test
+    void readRESP3() throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("_\r\n,1.5\r\n#t\r\n=7\r\ntxt:abc\r\n%1\r\n$1\r\nk\r\n$1\r\nv\r\n~1\r\n:1\r\n(123\r\n")));
+        assertThat(Protocol.read(stream)).isNull();
+        assertThat(decode((byte[]) Protocol.read(stream))).isEqualTo("1.5");
+        assertThat(Protocol.read(stream)).isEqualTo(1L);
+        assertThat(decode((byte[]) Protocol.read(stream))).isEqualTo("abc");
+        assertThat((Object[]) Protocol.read(stream)).containsExactly(encode("k"), encode("v"));
+        assertThat((Object[]) Protocol.read(stream)).containsExactly(1L);
+        assertThat(decode((byte[]) Protocol.read(stream))).isEqualTo("123");
+    }
+
+    @Test
+    void readBlobError() {
+        var stream = new ByteArrayInputStream(Strings.bytes("!5\r\nerror\r\n"));
+        assertThatThrownBy(() -> Protocol.read(new RedisInputStream(stream)))
+                .isInstanceOf(RedisException.class)
+                .hasMessage("error");
+    }
+
+    @Test
+    void readWithPush() throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(">2\r\n$10\r\ninvalidate\r\n*1\r\n$3\r\nkey\r\n+OK\r\n>2\r\n$10\r\ninvalidate\r\n_\r\n")));
+        assertThat(Protocol.read(stream)).isEqualTo("OK");    // skip push on command connection
+
+        Object[] push = Protocol.readPush(stream);
+        assertThat(decode((byte[]) push[0])).isEqualTo("invalidate");
+        assertThat(push[1]).isNull();
+    }
+
+    @Test
+    void readWithAttribute() throws IOException {
+        var stream = new ByteArrayInputStream(Strings.bytes("|1\r\n+key\r\n:1\r\n:10\r\n"));
+        assertThat(Protocol.read(new RedisInputStream(stream))).isEqualTo(10L);
+    }
+
     @Test
     void readSimpleString() throws IOException {
         var stream = new ByteArrayInputStream(Strings.bytes("+OK\r\n"));
@@ -76,4 +122,24 @@ class ProtocolTest {
         byte[] response = (byte[]) Protocol.read(new RedisInputStream(stream));
         assertThat(decode(response)).isEmpty();
     }
+
+    @Test
+    void readBlob() throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(">2\r\n$10\r\ninvalidate\r\n*0\r\n$6\r\nfoobar\r\n$-1\r\n_\r\n")));
+        BlobDecoder<String> decoder = RedisEncodings::decode;
+        assertThat(Protocol.readBlob(stream, decoder)).isEqualTo("foobar");
+        assertThat(Protocol.readBlob(stream, decoder)).isNull();
+        assertThat(Protocol.readBlob(stream, decoder)).isNull();
+
+        var errorStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("-ERR wrong type\r\n")));
+        assertThatThrownBy(() -> Protocol.readBlob(errorStream, RedisEncodings::decode))
+            .isInstanceOf(RedisException.class)
+            .hasMessage("ERR wrong type");
+    }
+
+    @Test
+    void readBlobs() throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("*3\r\n$2\r\nv1\r\n$-1\r\n$2\r\nv3\r\n")));
+        assertThat(Protocol.readBlobs(stream, RedisEncodings::decode)).containsExactly("v1", null, "v3");
+    }
 }
@@ -0,0 +1,105 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.redis.RedisCluster.Request;
+import core.framework.internal.redis.RedisClusterConnection.Split;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static core.framework.internal.redis.Protocol.Command.DEL;
+import static core.framework.internal.redis.Protocol.Command.EVALSHA;
+import static core.framework.internal.redis.Protocol.Command.GET;
+import static core.framework.internal.redis.Protocol.Command.INFO;
+import static core.framework.internal.redis.Protocol.Command.MGET;
+import static core.framework.internal.redis.Protocol.Command.MSET;
+import static core.framework.internal.redis.Protocol.Command.SCAN;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class RedisClusterConnectionTest {
+    private RedisClusterConnection connection;
+
+    @BeforeEach
+    void createRedisClusterConnection() {
+        connection = new RedisClusterConnection(null);
+    }
+
+    @Test
+    void split() {
+        Split split = connection.split(command(GET, "foo"));
+        assertThat(split.requests()).singleElement().satisfies(request -> assertThat(request.slot).isEqualTo(12182));
+
+        split = connection.split(command(INFO));
+        assertThat(split.requests()).singleElement().satisfies(request -> assertThat(request.slot).isEqualTo(-1));
+
+        split = connection.split(command(EVALSHA, "sha", "1", "bar", "arg"));
+        assertThat(split.requests()).singleElement().satisfies(request -> assertThat(request.slot).isEqualTo(5061));
+
+        split = connection.split(command(MGET, "{user1}:a", "{user1}:b"));
+        assertThat(split.requests()).hasSize(1);
+    }
+
+    @Test
+    void splitWithScan() {
+        assertThatThrownBy(() -> connection.split(command(SCAN, "0")))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("not supported");
+    }
+
+    @Test
+    void multiGet() {
+        Split split = connection.split(command(MGET, "foo", "bar", "{foo}2"));
+        List<Request> requests = split.requests();
+        assertThat(requests).hasSize(2);
+        assertThat(arguments(requests.get(0))).containsExactly("MGET", "foo", "{foo}2");
+        assertThat(arguments(requests.get(1))).containsExactly("MGET", "bar");
+
+        requests.get(0).reply = new Object[]{encode("v1"), null};
+        requests.get(1).reply = new Object[]{encode("v2")};
+        Object[] values = (Object[]) split.merge();
+        assertThat(values).containsExactly(encode("v1"), encode("v2"), null);
+    }
+
+    @Test
+    void delete() {
+        Split split = connection.split(command(DEL, "foo", "bar"));
+        List<Request> requests = split.requests();
+        assertThat(requests).hasSize(2);
+
+        requests.get(0).reply = 1L;
+        requests.get(1).reply = 0L;
+        assertThat(split.merge()).isEqualTo(1L);
+    }
+
+    @Test
+    void multiSet() {
+        Split split = connection.split(command(MSET, "foo", "v1", "bar", "v2"));
+        List<Request> requests = split.requests();
+        assertThat(requests).hasSize(2);
+        assertThat(arguments(requests.get(0))).containsExactly("MSET", "foo", "v1");
+        assertThat(arguments(requests.get(1))).containsExactly("MSET", "bar", "v2");
+
+        requests.get(0).reply = "OK";
+        requests.get(1).reply = new RedisException("CLUSTERDOWN");
+        assertThat(split.merge()).isInstanceOf(RedisException.class);
+    }
+
+    private byte[][] command(byte[] name, String... arguments) {
+        var command = new byte[1 + arguments.length][];
+        command[0] = name;
+        for (int i = 0; i < arguments.length; i++) {
+            command[i + 1] = encode(arguments[i]);
+        }
+        return command;
+    }
+
+    private List<String> arguments(Request request) {
+        return Arrays.stream(request.command).map(RedisEncodings::decode).toList();
+    }
+}
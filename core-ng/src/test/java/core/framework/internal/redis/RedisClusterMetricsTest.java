@@ -0,0 +1,44 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.stat.Stats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisClusterMetricsTest {
+    private RedisClusterMetrics metrics;
+    private RedisCluster cluster;
+
+    @BeforeEach
+    void createRedisClusterMetrics() {
+        cluster = new RedisCluster("redis", List.of(new RedisHost("localhost:7000")), new RedisConnectionFactory());
+        metrics = new RedisClusterMetrics(cluster);
+    }
+
+    @AfterEach
+    void close() {
+        cluster.close();
+    }
+
+    @Test
+    void collect() {
+        cluster.redirects.addAndGet(2);
+
+        var stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats)
+            .containsEntry("redis_cluster_nodes", 0.0d)
+            .containsEntry("redis_cluster_redirects", 2.0d);
+
+        stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats).containsEntry("redis_cluster_redirects", 0.0d);
+    }
+}
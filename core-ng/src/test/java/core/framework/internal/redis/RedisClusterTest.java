@@ -0,0 +1,118 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.redis.RedisCluster.Request;
+import core.framework.internal.resource.Pool;
+import core.framework.util.Strings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static core.framework.internal.redis.Protocol.Command.GET;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisClusterTest {
+    // CLUSTER SLOTS reply, slots 0-8191 are served by 127.0.0.1:7000, 8192-16383 by 127.0.0.1:7001
+    private static final String SLOTS = "*2\r\n"
+                                        + "*3\r\n:0\r\n:8191\r\n*3\r\n$9\r\n127.0.0.1\r\n:7000\r\n$2\r\nn1\r\n"
+                                        + "*3\r\n:8192\r\n:16383\r\n*3\r\n$0\r\n\r\n:7001\r\n$2\r\nn2\r\n";
+    private RedisCluster cluster;
+
+    @BeforeEach
+    void createRedisCluster() {
+        var factory = new RedisConnectionFactory();
+        cluster = new RedisCluster("redis", List.of(new RedisHost("127.0.0.1:7000")), factory);
+    }
+
+    @AfterEach
+    void close() {
+        cluster.close();
+    }
+
+    @Test
+    void slot() {
+        assertThat(RedisCluster.slot(encode("123456789"))).isEqualTo(0x31C3);    // check value of CRC16/XMODEM
+        assertThat(RedisCluster.slot(encode("foo"))).isEqualTo(12182);
+        assertThat(RedisCluster.slot(encode("bar"))).isEqualTo(5061);
+        assertThat(RedisCluster.slot(encode(""))).isZero();
+    }
+
+    @Test
+    void slotWithHashTag() {
+        assertThat(RedisCluster.slot(encode("{user1000}.following"))).isEqualTo(RedisCluster.slot(encode("user1000")));
+        assertThat(RedisCluster.slot(encode("foo{}{bar}"))).isNotEqualTo(RedisCluster.slot(encode("bar")));     // empty tag hashes whole key
+        assertThat(RedisCluster.slot(encode("foo{{bar}}zap"))).isEqualTo(RedisCluster.slot(encode("{bar")));
+        assertThat(RedisCluster.slot(encode("foo{bar}{zap}"))).isEqualTo(RedisCluster.slot(encode("bar")));
+    }
+
+    @Test
+    void parseSlots() throws IOException {
+        Object[] response = (Object[]) Protocol.read(new RedisInputStream(new ByteArrayInputStream(Strings.bytes(SLOTS))));
+        RedisCluster.Node[] slots = cluster.parseSlots(response, new RedisHost("127.0.0.2:7000"));
+
+        assertThat(slots[0].host().toString()).isEqualTo("127.0.0.1:7000");
+        assertThat(slots[8191]).isSameAs(slots[0]);
+        assertThat(slots[8192].host().toString()).isEqualTo("127.0.0.2:7001");    // empty host means host of queried node
+        assertThat(slots[16383]).isSameAs(slots[8192]);
+        assertThat(cluster.nodeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void execute() throws IOException {
+        ByteArrayOutputStream node1 = node("127.0.0.1:7000", SLOTS + "$4\r\nbar1\r\n");
+        ByteArrayOutputStream node2 = node("127.0.0.1:7001", "$4\r\nfoo1\r\n");
+        var requests = List.of(request(GET, "foo"), request(GET, "bar"));
+        cluster.execute(requests);
+
+        assertThat(requests.get(0).reply).isEqualTo(encode("foo1"));
+        assertThat(requests.get(1).reply).isEqualTo(encode("bar1"));
+        assertThat(decode(node1.toByteArray())).endsWith("*2\r\n$3\r\nGET\r\n$3\r\nbar\r\n");
+        assertThat(decode(node2.toByteArray())).isEqualTo("*2\r\n$3\r\nGET\r\n$3\r\nfoo\r\n");
+    }
+
+    @Test
+    void executeWithAsk() throws IOException {
+        node("127.0.0.1:7000", SLOTS + "-ASK 5061 127.0.0.1:7001\r\n");
+        ByteArrayOutputStream node2 = node("127.0.0.1:7001", "+OK\r\n$4\r\nbar1\r\n");
+        Request request = request(GET, "bar");
+        cluster.execute(List.of(request));
+
+        assertThat(request.reply).isEqualTo(encode("bar1"));
+        assertThat(decode(node2.toByteArray())).isEqualTo("*1\r\n$6\r\nASKING\r\n*2\r\n$3\r\nGET\r\n$3\r\nbar\r\n");
+        assertThat(cluster.redirects.get()).isEqualTo(1);
+    }
+
+    @Test
+    void executeWithError() throws IOException {
+        node("127.0.0.1:7000", SLOTS + "-WRONGTYPE Operation against a key holding the wrong kind of value\r\n");
+        Request request = request(GET, "bar");
+        cluster.execute(List.of(request));
+
+        assertThat(request.reply).isInstanceOf(RedisException.class);
+        assertThat(cluster.redirects.get()).isZero();
+    }
+
+    private Request request(byte[] command, String key) {
+        byte[] keyBytes = encode(key);
+        return new Request(new byte[][]{command, keyBytes}, RedisCluster.slot(keyBytes));
+    }
+
+    private ByteArrayOutputStream node(String host, String response) {
+        var request = new ByteArrayOutputStream();
+        var connection = new RedisConnection();
+        connection.outputStream = new RedisOutputStream(request, 512);
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(response)));
+        var redisHost = new RedisHost(host);
+        cluster.nodes.put(host, new RedisCluster.Node(redisHost, new Pool<>(() -> connection, "redis-" + host)));
+        return request;
+    }
+}
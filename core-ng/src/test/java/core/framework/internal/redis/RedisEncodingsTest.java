@@ -3,6 +3,7 @@ package core.framework.internal.redis;
 import core.framework.util.Strings;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,6 +19,19 @@ class RedisEncodingsTest {
         assertThat(RedisEncodings.encode("value")).isEqualTo(Strings.bytes("value"));
     }
 
+    @Test
+    void encodeArgument() {
+        assertThat(RedisEncodings.encode((Object) "value")).isEqualTo(Strings.bytes("value"));
+        assertThat(RedisEncodings.encode((Object) 12)).isEqualTo(Strings.bytes("12"));
+        assertThat(RedisEncodings.encode((Object) 1.5)).isEqualTo(Strings.bytes("1.5"));
+        assertThat(RedisEncodings.encode((Object) true)).isEqualTo(Strings.bytes("1"));
+        assertThat(RedisEncodings.encode((Object) Duration.ofSeconds(1))).isEqualTo(Strings.bytes("1000"));
+
+        assertThatThrownBy(() -> RedisEncodings.encode(new Object()))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("unsupported argument type");
+    }
+
     @Test
     void encodeLong() {
         assertThat(RedisEncodings.encode(-1)).isEqualTo(Strings.bytes("-1"));
@@ -3,7 +3,9 @@ package core.framework.internal.redis;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -74,4 +76,16 @@ class RedisHashOperationTest extends AbstractRedisOperationTest {
 
         assertRequestEquals("*6", "$8", "HPEXPIRE", "$3", "key", "$5", "60000", "$6", "FIELDS", "$1", "1", "$2", "f1");
     }
+
+    @Test
+    void forEach() {
+        response("*2\r\n$1\r\n5\r\n*2\r\n$2\r\nf1\r\n$2\r\nv1\r\n"
+                 + "*2\r\n$1\r\n0\r\n*2\r\n$2\r\nf2\r\n$2\r\nv2\r\n");
+        List<Map<String, String>> batches = new ArrayList<>();
+        redis.hash().forEach("key", 100, batches::add);
+
+        assertThat(batches).containsExactly(Map.of("f1", "v1"), Map.of("f2", "v2"));
+        assertRequestEquals("*5\r\n$5\r\nHSCAN\r\n$3\r\nkey\r\n$1\r\n0\r\n$5\r\nCOUNT\r\n$3\r\n100\r\n"
+                            + "*5\r\n$5\r\nHSCAN\r\n$3\r\nkey\r\n$1\r\n5\r\n$5\r\nCOUNT\r\n$3\r\n100\r\n");
+    }
 }
@@ -24,6 +24,15 @@ class RedisImplTest {
         redis.close();
     }
 
+    @Test
+    void multiplex() {
+        redis.multiplex(2);
+        assertThat(redis.connectionFactory.multiplexer).isNotNull();
+        assertThat(redis.connectionFactory.get()).isInstanceOf(RedisMultiplexedConnection.class);
+
+        redis.close();
+    }
+
     @Test
     void timeout() {
         var timeout = Duration.ofSeconds(5);
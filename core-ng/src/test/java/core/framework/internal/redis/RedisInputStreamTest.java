@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -19,4 +21,51 @@ class RedisInputStreamTest {
 
         assertEquals("line1\rline2", message);
     }
+
+    @Test
+    void readBlob() throws IOException {
+        String value = "value".repeat(1600);  // 8000 bytes, fits in buffer but spans reads after header
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("$8000\r\n" + value + "\r\n+OK\r\n")));
+        assertEquals('$', stream.readByte());
+        int length = (int) stream.readLong();
+
+        assertEquals(value, stream.readBlob(length, RedisEncodings::decode));
+        assertEquals('+', stream.readByte());
+        assertEquals("OK", stream.readSimpleString());
+    }
+
+    @Test
+    void readLargeBlob() throws IOException {
+        String value = "value".repeat(4000);
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("$20000\r\n" + value + "\r\n+OK\r\n")));
+        assertEquals('$', stream.readByte());
+        int length = (int) stream.readLong();
+
+        assertEquals(value, stream.readBlob(length, RedisEncodings::decode));
+        assertEquals('+', stream.readByte());
+        assertEquals("OK", stream.readSimpleString());
+    }
+
+    @Test
+    void readLargeBlobPartially() throws IOException {
+        String value = "value".repeat(4000);
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("$20000\r\n" + value + "\r\n+OK\r\n")));
+        stream.readByte();
+        int length = (int) stream.readLong();
+
+        String prefix = stream.readBlob(length, new BlobDecoder<>() {
+            @Override
+            public String decode(byte[] buffer, int offset, int size) {
+                throw new Error("large blob must be decoded from stream");
+            }
+
+            @Override
+            public String decode(InputStream blob, int size) throws IOException {
+                return new String(blob.readNBytes(5), StandardCharsets.UTF_8);
+            }
+        });
+        assertEquals("value", prefix);
+        assertEquals('+', stream.readByte());
+        assertEquals("OK", stream.readSimpleString());
+    }
 }
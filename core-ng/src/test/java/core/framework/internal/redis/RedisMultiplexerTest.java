@@ -0,0 +1,138 @@
+package core.framework.internal.redis;
+
+import core.framework.util.Strings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static core.framework.internal.redis.Protocol.Command.GET;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class RedisMultiplexerTest {
+    private RedisMultiplexer multiplexer;
+    private ByteArrayOutputStream requests;
+    private PipedOutputStream replies;
+
+    @BeforeEach
+    void createRedisMultiplexer() throws IOException {
+        requests = new ByteArrayOutputStream();
+        replies = new PipedOutputStream();
+        var input = new PipedInputStream(replies);
+        var factory = new RedisConnectionFactory() {
+            @Override
+            RedisConnection connect() {
+                return new RedisConnection() {
+                    {
+                        outputStream = new RedisOutputStream(requests, 8192);
+                        inputStream = new RedisInputStream(input);
+                    }
+
+                    @Override
+                    void readTimeout(int timeoutInMs) {
+                    }
+
+                    @Override
+                    public void close() {
+                        try {
+                            replies.close();    // unblock reader
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                };
+            }
+        };
+        factory.timeoutInMs = 1000;
+        multiplexer = new RedisMultiplexer(factory, 1);
+    }
+
+    @AfterEach
+    void close() {
+        multiplexer.close();
+    }
+
+    @Test
+    void submit() throws Exception {
+        List<CompletableFuture<Object>> results = multiplexer.submit(Strings.bytes("*1\r\n$4\r\nPING\r\n*1\r\n$4\r\nPING\r\n"), 2);
+        awaitRequests();
+        replies.write(Strings.bytes("+PONG\r\n-ERR unknown\r\n"));
+        replies.flush();
+
+        assertThat(results.get(0).get(1, TimeUnit.SECONDS)).isEqualTo("PONG");
+        assertThatThrownBy(() -> results.get(1).get(1, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(RedisException.class);
+        assertThat(decode(requests.toByteArray())).isEqualTo("*1\r\n$4\r\nPING\r\n*1\r\n$4\r\nPING\r\n");
+    }
+
+    @Test
+    void connection() throws IOException, InterruptedException {
+        RedisConnection connection = multiplexer.connection();
+        connection.writeKeyCommand(GET, "key");
+        awaitRequests();
+        replies.write(Strings.bytes("$5\r\nvalue\r\n"));
+        replies.flush();
+
+        assertThat(decode(connection.readBlobString())).isEqualTo("value");
+    }
+
+    @Test
+    void readWithTimeout() throws IOException {
+        RedisConnection connection = multiplexer.connection();
+        connection.writeKeyCommand(GET, "key");
+
+        assertThatThrownBy(connection::readBlobString)
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("read timed out");
+    }
+
+    @Test
+    void readAfterOtherCallerTimedOut() throws IOException, InterruptedException {
+        RedisConnection connection1 = multiplexer.connection();
+        connection1.writeKeyCommand(GET, "key1");
+        assertThatThrownBy(connection1::readBlobString)
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("read timed out");
+
+        RedisConnection connection2 = multiplexer.connection();
+        connection2.writeKeyCommand(GET, "key2");
+        while (!decode(requests.toByteArray()).contains("key2")) {
+            Thread.sleep(10);
+        }
+        replies.write(Strings.bytes("$6\r\nvalue1\r\n$6\r\nvalue2\r\n"));  // late reply of timed out caller is discarded
+        replies.flush();
+
+        assertThat(decode(connection2.readBlobString())).isEqualTo("value2");
+    }
+
+    // real redis only replies after receiving commands
+    private void awaitRequests() throws InterruptedException {
+        while (requests.size() == 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void submitAfterClose() {
+        multiplexer.close();
+
+        assertThatThrownBy(() -> multiplexer.submit(new byte[0], 0))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("closed");
+    }
+}
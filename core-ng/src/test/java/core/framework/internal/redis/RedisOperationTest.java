@@ -25,6 +25,24 @@ class RedisOperationTest extends AbstractRedisOperationTest {
         assertRequestEquals("*2\r\n$3\r\nGET\r\n$3\r\nkey\r\n");
     }
 
+    @Test
+    void getExpirable() {
+        response("$6\r\nfoobar\r\n:60000\r\n");
+        RedisImpl.ExpirableValue<String> value = redis.getExpirable("key", RedisEncodings::decode);
+
+        assertThat(value.value()).isEqualTo("foobar");
+        assertThat(value.ttl()).isEqualTo(60000);
+        assertRequestEquals("*2\r\n$3\r\nGET\r\n$3\r\nkey\r\n*2\r\n$4\r\nPTTL\r\n$3\r\nkey\r\n");
+    }
+
+    @Test
+    void publish() {
+        response(":1\r\n");
+        redis.publish("channel", "message");
+
+        assertRequestEquals("*3\r\n$7\r\nPUBLISH\r\n$7\r\nchannel\r\n$7\r\nmessage\r\n");
+    }
+
     @Test
     void set() {
         response("+OK\r\n");
@@ -84,6 +102,15 @@ class RedisOperationTest extends AbstractRedisOperationTest {
         assertRequestEquals("*4\r\n$4\r\nMGET\r\n$2\r\nk1\r\n$2\r\nk2\r\n$2\r\nk3\r\n");
     }
 
+    @Test
+    void multiGetExpirable() {
+        response("$2\r\nv1\r\n:60000\r\n$-1\r\n:-2\r\n");
+        Map<String, RedisImpl.ExpirableValue<String>> values = redis.multiGetExpirable(new String[]{"k1", "k2"}, RedisEncodings::decode);
+
+        assertThat(values).containsExactly(entry("k1", new RedisImpl.ExpirableValue<>("v1", 60000)));
+        assertRequestEquals("*2\r\n$3\r\nGET\r\n$2\r\nk1\r\n*2\r\n$4\r\nPTTL\r\n$2\r\nk1\r\n*2\r\n$3\r\nGET\r\n$2\r\nk2\r\n*2\r\n$4\r\nPTTL\r\n$2\r\nk2\r\n");
+    }
+
     @Test
     void multiSet() {
         response("+OK\r\n");
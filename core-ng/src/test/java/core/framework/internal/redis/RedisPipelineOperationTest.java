@@ -0,0 +1,76 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class RedisPipelineOperationTest extends AbstractRedisOperationTest {
+    @Test
+    void execute() {
+        response("$6\r\nfoobar\r\n+OK\r\n:2\r\n*2\r\n$6\r\nfield1\r\n$6\r\nvalue1\r\n:1\r\n$1\r\n5\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("key1");
+        pipeline.set("key2", "value", Duration.ofMinutes(1));
+        Supplier<Long> count = pipeline.increaseBy("key3", 2);
+        Supplier<Map<String, String>> hash = pipeline.hashGetAll("key4");
+        Supplier<Boolean> isMember = pipeline.setIsMember("key5", "value");
+        Supplier<Long> score = pipeline.sortedSetIncreaseScoreBy("key6", "value", 5);
+
+        assertThatThrownBy(value::get).hasMessageContaining("pipeline is not executed");
+        pipeline.execute();
+
+        assertThat(value.get()).isEqualTo("foobar");
+        assertThat(count.get()).isEqualTo(2);
+        assertThat(hash.get()).containsOnly(entry("field1", "value1"));
+        assertThat(isMember.get()).isTrue();
+        assertThat(score.get()).isEqualTo(5);
+        assertRequestEquals("*2\r\n$3\r\nGET\r\n$4\r\nkey1\r\n"
+                            + "*5\r\n$3\r\nSET\r\n$4\r\nkey2\r\n$5\r\nvalue\r\n$2\r\nPX\r\n$5\r\n60000\r\n"
+                            + "*3\r\n$6\r\nINCRBY\r\n$4\r\nkey3\r\n$1\r\n2\r\n"
+                            + "*2\r\n$7\r\nHGETALL\r\n$4\r\nkey4\r\n"
+                            + "*3\r\n$9\r\nSISMEMBER\r\n$4\r\nkey5\r\n$5\r\nvalue\r\n"
+                            + "*4\r\n$7\r\nZINCRBY\r\n$4\r\nkey6\r\n$1\r\n5\r\n$5\r\nvalue\r\n");
+    }
+
+    @Test
+    void executeWithError() {
+        response("-WRONGTYPE Operation against a key holding the wrong kind of value\r\n$5\r\nvalue\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<Long> count = pipeline.hashIncreaseBy("key1", "field", 1);
+        Supplier<String> value = pipeline.hashGet("key2", "field");
+        pipeline.execute();
+
+        assertThatThrownBy(count::get)
+            .isInstanceOf(RedisException.class)
+            .hasMessageContaining("WRONGTYPE");
+        assertThat(value.get()).isEqualTo("value");
+    }
+
+    @Test
+    void executeWriteCommands() {
+        response(":1\r\n:2\r\n:1\r\n:1\r\n:2\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        pipeline.expire("key1", Duration.ofSeconds(1));
+        pipeline.del("key1", "key2");
+        pipeline.hashSet("key3", "field", "value");
+        pipeline.setAdd("key4", "value");
+        pipeline.listPush("key5", "value1", "value2");
+        pipeline.execute();
+
+        assertRequestEquals("*3\r\n$7\r\nPEXPIRE\r\n$4\r\nkey1\r\n$4\r\n1000\r\n"
+                            + "*3\r\n$3\r\nDEL\r\n$4\r\nkey1\r\n$4\r\nkey2\r\n"
+                            + "*4\r\n$4\r\nHSET\r\n$4\r\nkey3\r\n$5\r\nfield\r\n$5\r\nvalue\r\n"
+                            + "*3\r\n$4\r\nSADD\r\n$4\r\nkey4\r\n$5\r\nvalue\r\n"
+                            + "*4\r\n$5\r\nRPUSH\r\n$4\r\nkey5\r\n$6\r\nvalue1\r\n$6\r\nvalue2\r\n");
+    }
+}
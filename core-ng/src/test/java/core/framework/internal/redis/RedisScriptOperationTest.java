@@ -0,0 +1,43 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisScript;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisScriptOperationTest extends AbstractRedisOperationTest {
+    private final RedisScript script = new RedisScript("return redis.call('INCRBY', KEYS[1], ARGV[1])");
+
+    @Test
+    void eval() {
+        response(":2\r\n");
+        Object result = redis.eval(script, List.of("key"), 2);
+
+        assertThat(result).isEqualTo(2L);
+        assertRequestEquals("*5", "$7", "EVALSHA", "$40", script.sha, "$1", "1", "$3", "key", "$1", "2");
+    }
+
+    @Test
+    void evalWithoutLoadedScript() {
+        response("-NOSCRIPT No matching script. Please use EVAL.\r\n*2\r\n$2\r\nv1\r\n:1\r\n");
+        Object result = redis.eval(script, List.of(), "arg");
+
+        assertThat(result).isEqualTo(List.of("v1", 1L));
+        assertRequestEquals("*4", "$7", "EVALSHA", "$40", script.sha, "$1", "0", "$3", "arg",
+            "*4", "$4", "EVAL", "$" + script.script.length(), script.script, "$1", "0", "$3", "arg");
+    }
+
+    @Test
+    void load() {
+        redis.scripts.add(script);
+        response("$40\r\n" + script.sha + "\r\n");
+        redis.scripts.load();
+
+        assertRequestEquals("*3", "$6", "SCRIPT", "$4", "LOAD", "$" + script.script.length(), script.script);
+    }
+}
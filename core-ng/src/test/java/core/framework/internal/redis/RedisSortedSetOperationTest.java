@@ -2,6 +2,8 @@ package core.framework.internal.redis;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -97,4 +99,14 @@ class RedisSortedSetOperationTest extends AbstractRedisOperationTest {
         assertThat(removed).isEqualTo(1);
         assertRequestEquals("*3\r\n$4\r\nZREM\r\n$3\r\nkey\r\n$5\r\nitem1\r\n");
     }
+
+    @Test
+    void forEach() {
+        response("*2\r\n$1\r\n0\r\n*4\r\n$2\r\nv1\r\n$1\r\n1\r\n$2\r\nv2\r\n$3\r\n2.0\r\n");
+        List<Map<String, Long>> batches = new ArrayList<>();
+        redis.sortedSet().forEach("key", 100, batches::add);
+
+        assertThat(batches).containsExactly(Map.of("v1", 1L, "v2", 2L));
+        assertRequestEquals("*5\r\n$5\r\nZSCAN\r\n$3\r\nkey\r\n$1\r\n0\r\n$5\r\nCOUNT\r\n$3\r\n100\r\n");
+    }
 }
@@ -0,0 +1,80 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.LogManager;
+import core.framework.redis.BulkRedisStreamHandler;
+import core.framework.redis.RedisStreamHandler;
+import core.framework.redis.RedisStreamMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class RedisStreamListenerTest {
+    private RedisStreamListener listener;
+
+    @BeforeEach
+    void createRedisStreamListener() {
+        listener = new RedisStreamListener(new RedisImpl("redis"), new LogManager(), 60_000_000_000L);
+    }
+
+    @Test
+    void subscribeWithDuplicateStream() {
+        listener.subscribe("stream", (RedisStreamHandler) (id, fields) -> {
+        });
+
+        assertThatThrownBy(() -> listener.subscribe("stream", (RedisStreamHandler) (id, fields) -> {
+        })).isInstanceOf(Error.class)
+            .hasMessageContaining("found duplicate stream");
+    }
+
+    @Test
+    void handle() {
+        List<String> ids = new ArrayList<>();
+        RedisStreamHandler handler = (id, fields) -> ids.add(id);
+
+        listener.handle("stream", handler, new RedisStreamMessage(System.currentTimeMillis() + "-0", Map.of("field", "value")));
+        assertThat(ids).hasSize(1);
+        assertThat(listener.failures.get()).isZero();
+    }
+
+    @Test
+    void handleWithFailure() {
+        RedisStreamHandler handler = (id, fields) -> {
+            throw new Error("failed");
+        };
+
+        listener.handle("stream", handler, new RedisStreamMessage("1-0", Map.of("field", "value")));
+        assertThat(listener.failures.get()).isEqualTo(1);
+    }
+
+    @Test
+    void handleBulk() {
+        List<RedisStreamMessage> handled = new ArrayList<>();
+        BulkRedisStreamHandler handler = handled::addAll;
+        List<RedisStreamMessage> messages = List.of(new RedisStreamMessage("1-0", Map.of("field", "value1")), new RedisStreamMessage("1-1", Map.of("field", "value2")));
+
+        listener.handleBulk("stream", handler, messages);
+        assertThat(handled).isEqualTo(messages);
+        assertThat(listener.failures.get()).isZero();
+    }
+
+    @Test
+    void timestamp() {
+        assertThat(RedisStreamListener.timestamp("1700000000000-1")).isEqualTo(1700000000000L);
+        assertThat(RedisStreamListener.timestamp("1700000000000")).isEqualTo(1700000000000L);
+    }
+
+    @Test
+    void shutdownWithoutStart() throws InterruptedException {
+        listener.shutdown();
+        listener.awaitTermination(1000);
+    }
+}
@@ -0,0 +1,100 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.LogManager;
+import core.framework.redis.RedisStreamHandler;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisStreamListenerThreadTest {
+    private RedisStreamListener listener;
+    private List<String> ids;
+    private ByteArrayOutputStream request;
+
+    @BeforeEach
+    void createRedisStreamListenerThread() {
+        listener = new RedisStreamListener(new RedisImpl("redis"), new LogManager(), 60_000_000_000L);
+        listener.group = "group";
+        listener.consumer = "consumer";
+        ids = new CopyOnWriteArrayList<>();
+        listener.subscribe("stream", (RedisStreamHandler) (id, fields) -> ids.add(id));
+        request = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void createGroups() throws IOException {
+        var thread = new RedisStreamListenerThread("listener", listener);
+        thread.createGroups(connection("-BUSYGROUP Consumer Group name already exists\r\n"));
+
+        assertThat(decode(request.toByteArray())).isEqualTo("*6\r\n$6\r\nXGROUP\r\n$6\r\nCREATE\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$1\r\n$\r\n$8\r\nMKSTREAM\r\n");
+    }
+
+    @Test
+    void read() throws IOException {
+        var thread = new RedisStreamListenerThread("listener", listener);
+        Map<String, List<RedisStreamMessage>> messages = thread.read(connection("*1\r\n*2\r\n$6\r\nstream\r\n*1\r\n*2\r\n$3\r\n1-0\r\n*2\r\n$5\r\nfield\r\n$5\r\nvalue\r\n"));
+
+        assertThat(messages).containsOnlyKeys("stream");
+        assertThat(messages.get("stream")).singleElement().satisfies(message -> {
+            assertThat(message.id).isEqualTo("1-0");
+            assertThat(message.fields).containsEntry("field", "value");
+        });
+        assertThat(decode(request.toByteArray())).isEqualTo("*11\r\n$10\r\nXREADGROUP\r\n$5\r\nGROUP\r\n$5\r\ngroup\r\n$8\r\nconsumer\r\n$5\r\nCOUNT\r\n$3\r\n100\r\n"
+                                                            + "$5\r\nBLOCK\r\n$4\r\n5000\r\n$7\r\nSTREAMS\r\n$6\r\nstream\r\n$1\r\n>\r\n");
+    }
+
+    @Test
+    void readWithTimeout() throws IOException {
+        var thread = new RedisStreamListenerThread("listener", listener);
+        assertThat(thread.read(connection("*-1\r\n"))).isEmpty();
+    }
+
+    @Test
+    void updateLag() throws IOException {
+        var thread = new RedisStreamListenerThread("listener", listener);
+        thread.updateLag(connection("*2\r\n*4\r\n$4\r\nname\r\n$5\r\nother\r\n$3\r\nlag\r\n:20\r\n*4\r\n$4\r\nname\r\n$5\r\ngroup\r\n$3\r\nlag\r\n:10\r\n"));
+
+        assertThat(listener.maxLag).isEqualTo(10);
+    }
+
+    @Test
+    void handleAll() throws IOException, InterruptedException {
+        var thread = new RedisStreamListenerThread("listener", listener);
+        var messages = List.of(new RedisStreamMessage("1-0", Map.of("field", "value1")), new RedisStreamMessage("1-1", Map.of("field", "value2")));
+        thread.handleAll(connection(":2\r\n"), Map.of("stream", messages));
+
+        assertThat(ids).containsExactlyInAnyOrder("1-0", "1-1");
+        assertThat(listener.consumed.get()).isEqualTo(2);
+        assertThat(decode(request.toByteArray())).isEqualTo("*5\r\n$4\r\nXACK\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$3\r\n1-0\r\n$3\r\n1-1\r\n");
+    }
+
+    @Test
+    void messages() {
+        Object[] entries = {new Object[]{encode("1-0"), new Object[]{encode("field"), encode("value")}}, new Object[]{encode("1-1"), null}};
+        List<RedisStreamMessage> messages = RedisStreamListenerThread.messages(entries);
+
+        assertThat(messages).singleElement().satisfies(message -> assertThat(message.id).isEqualTo("1-0"));
+    }
+
+    private RedisConnection connection(String response) {
+        var connection = new RedisConnection();
+        connection.outputStream = new RedisOutputStream(request, 512);
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(response)));
+        return connection;
+    }
+}
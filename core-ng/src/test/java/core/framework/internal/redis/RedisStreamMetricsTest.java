@@ -0,0 +1,41 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.LogManager;
+import core.framework.internal.stat.Stats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisStreamMetricsTest {
+    private RedisStreamMetrics metrics;
+    private RedisStreamListener listener;
+
+    @BeforeEach
+    void createRedisStreamMetrics() {
+        listener = new RedisStreamListener(new RedisImpl("redis"), new LogManager(), 60_000_000_000L);
+        metrics = new RedisStreamMetrics(listener);
+    }
+
+    @Test
+    void collect() {
+        listener.consumed.addAndGet(2);
+        listener.claimed.addAndGet(1);
+        listener.maxLag = 10;
+
+        var stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats)
+            .containsEntry("redis_stream_consumed", 2.0d)
+            .containsEntry("redis_stream_failures", 0.0d)
+            .containsEntry("redis_stream_claimed", 1.0d)
+            .containsEntry("redis_stream_max_lag", 10.0d);
+
+        stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats).containsEntry("redis_stream_consumed", 0.0d);
+    }
+}
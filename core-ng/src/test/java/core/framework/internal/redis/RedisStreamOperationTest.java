@@ -0,0 +1,47 @@
+package core.framework.internal.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisStreamOperationTest extends AbstractRedisOperationTest {
+    @Test
+    void add() {
+        response("$15\r\n1700000000000-0\r\n");
+        String id = redis.stream().add("stream", Map.of("field", "value"));
+
+        assertThat(id).isEqualTo("1700000000000-0");
+        assertRequestEquals("*5\r\n$4\r\nXADD\r\n$6\r\nstream\r\n$1\r\n*\r\n$5\r\nfield\r\n$5\r\nvalue\r\n");
+    }
+
+    @Test
+    void addWithMaxLength() {
+        response("$15\r\n1700000000000-0\r\n");
+        redis.stream().add("stream", Map.of("field", "value"), 1000);
+
+        assertRequestEquals("*8\r\n$4\r\nXADD\r\n$6\r\nstream\r\n$6\r\nMAXLEN\r\n$1\r\n~\r\n$4\r\n1000\r\n$1\r\n*\r\n$5\r\nfield\r\n$5\r\nvalue\r\n");
+    }
+
+    @Test
+    void length() {
+        response(":2\r\n");
+        long length = redis.stream().length("stream");
+
+        assertThat(length).isEqualTo(2);
+        assertRequestEquals("*2\r\n$4\r\nXLEN\r\n$6\r\nstream\r\n");
+    }
+
+    @Test
+    void acknowledge() {
+        response(":2\r\n");
+        long acknowledged = redis.stream().acknowledge("stream", "group", "1-0", "1-1");
+
+        assertThat(acknowledged).isEqualTo(2);
+        assertRequestEquals("*5\r\n$4\r\nXACK\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$3\r\n1-0\r\n$3\r\n1-1\r\n");
+    }
+}
@@ -0,0 +1,40 @@
+package core.framework.internal.redis;
+
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class RedisSubscribeThreadTest {
+    private RedisSubscribeThread thread;
+    private List<String> messages;
+
+    @BeforeEach
+    void createRedisSubscribeThread() {
+        messages = new ArrayList<>();
+        thread = new RedisSubscribeThread("subscriber", new RedisImpl("redis"), List.of("channel"), (channel, message) -> messages.add(decode(message)));
+    }
+
+    @Test
+    void process() {
+        var connection = new RedisConnection();
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("*3\r\n$7\r\nmessage\r\n$7\r\nchannel\r\n$8\r\nmessage1\r\n"
+                                                                                             + "*3\r\n$7\r\nmessage\r\n$7\r\nchannel\r\n$8\r\nmessage2\r\n")));
+
+        assertThatThrownBy(() -> thread.process(connection))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("unexpected end of stream");
+        assertThat(messages).containsExactly("message1", "message2");
+    }
+}
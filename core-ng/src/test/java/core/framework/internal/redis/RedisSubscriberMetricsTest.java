@@ -0,0 +1,39 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.LogManager;
+import core.framework.internal.stat.Stats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisSubscriberMetricsTest {
+    private RedisSubscriberMetrics metrics;
+    private RedisSubscriber subscriber;
+
+    @BeforeEach
+    void createRedisSubscriberMetrics() {
+        subscriber = new RedisSubscriber(new RedisImpl("redis"), new LogManager(), 60_000_000_000L);
+        metrics = new RedisSubscriberMetrics(subscriber);
+    }
+
+    @Test
+    void collect() {
+        subscriber.messages.addAndGet(2);
+        subscriber.maxDelay.accumulate(1000);
+
+        var stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats)
+            .containsEntry("redis_subscriber_messages", 2.0d)
+            .containsEntry("redis_subscriber_failures", 0.0d)
+            .containsEntry("redis_subscriber_max_delay", 1000.0d);
+
+        stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats).containsEntry("redis_subscriber_messages", 0.0d);
+    }
+}
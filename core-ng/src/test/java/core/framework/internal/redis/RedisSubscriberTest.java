@@ -0,0 +1,89 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.async.ThreadPools;
+import core.framework.internal.log.LogManager;
+import core.framework.redis.RedisMessageHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class RedisSubscriberTest {
+    private RedisSubscriber subscriber;
+
+    @BeforeEach
+    void createRedisSubscriber() {
+        subscriber = new RedisSubscriber(new RedisImpl("redis"), new LogManager(), 60_000_000_000L);
+    }
+
+    @Test
+    void subscribeWithDuplicateChannel() {
+        subscriber.subscribe("channel", (channel, message) -> {
+        });
+
+        assertThatThrownBy(() -> subscriber.subscribe("channel", (channel, message) -> {
+        })).isInstanceOf(Error.class)
+            .hasMessageContaining("found duplicate channel");
+    }
+
+    @Test
+    void handle() {
+        List<String> messages = new ArrayList<>();
+        subscriber.subscribe("channel", (channel, message) -> messages.add(message));
+
+        subscriber.handle("channel", encode("message"), 1000);
+        assertThat(messages).containsExactly("message");
+        assertThat(subscriber.maxDelay.get()).isEqualTo(1000);
+        assertThat(subscriber.failures.get()).isZero();
+    }
+
+    @Test
+    void handleWithFailure() {
+        RedisMessageHandler handler = (channel, message) -> {
+            throw new Error("failed");
+        };
+        subscriber.subscribe("channel", handler);
+
+        subscriber.handle("channel", encode("message"), 1000);
+        assertThat(subscriber.failures.get()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatch() throws InterruptedException {
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        subscriber.subscribe("channel", (channel, message) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            messages.add(message);
+            running.decrementAndGet();
+        });
+        subscriber.executor = ThreadPools.virtualThreadExecutor("redis-subscriber-");
+
+        for (int i = 0; i < 100; i++) {
+            subscriber.dispatch("channel", encode(String.valueOf(i)));
+        }
+        subscriber.executor.shutdown();
+        subscriber.awaitTermination(5000);
+
+        assertThat(messages).hasSize(100).isSortedAccordingTo(Comparator.comparingInt(Integer::parseInt));
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdownWithoutStart() throws InterruptedException {
+        subscriber.shutdown();
+        subscriber.awaitTermination(1000);
+    }
+}
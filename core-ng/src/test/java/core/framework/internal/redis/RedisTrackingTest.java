@@ -0,0 +1,107 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisScript;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static core.framework.internal.redis.RedisEncodings.encode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class RedisTrackingTest extends AbstractRedisOperationTest {
+    private RedisTracking tracking;
+
+    @BeforeEach
+    void createRedisTracking() {
+        tracking = new RedisTracking(redis, 2);
+        redis.tracking = tracking;
+    }
+
+    @Test
+    void getWithoutTrackerConnection() {
+        response("$5\r\nvalue\r\n");
+        assertThat(redis.get("key")).isEqualTo("value");
+
+        assertRequestEquals("*2", "$3", "GET", "$3", "key");
+        assertThat(tracking.values).isEmpty();
+    }
+
+    @Test
+    void get() {
+        tracking.clientId = 10;
+        response("+OK\r\n$5\r\nvalue\r\n");
+        assertThat(redis.get("key")).isEqualTo("value");
+        assertThat(redis.get("key")).isEqualTo("value");    // from local
+
+        assertRequestEquals("*5", "$6", "CLIENT", "$8", "TRACKING", "$2", "ON", "$8", "REDIRECT", "$2", "10", "*2", "$3", "GET", "$3", "key");
+        assertThat(tracking.values).containsEntry("key", "value");
+
+        tracking.handlePush(new Object[]{encode("invalidate"), new Object[]{encode("key")}});
+        assertThat(tracking.values).isEmpty();
+    }
+
+    @Test
+    void hashGetAll() {
+        tracking.clientId = 10;
+        response("+OK\r\n*2\r\n$1\r\nf\r\n$1\r\nv\r\n");
+        assertThat(redis.hash().getAll("key")).containsExactly(entry("f", "v"));
+        assertThat(redis.hash().getAll("key")).containsExactly(entry("f", "v"));
+
+        tracking.handlePush(new Object[]{encode("invalidate"), null});
+        assertThat(tracking.values).isEmpty();
+    }
+
+    @Test
+    void increaseBy() {
+        tracking.values.put("key", "1");
+        response(":2\r\n");
+        redis.increaseBy("key", 1);
+
+        assertThat(tracking.values).isEmpty();
+    }
+
+    @Test
+    void multiSet() {
+        tracking.values.put("key", "1");
+        response("+OK\r\n");
+        redis.multiSet(Map.of("key", "2"));
+
+        assertThat(tracking.values).isEmpty();
+    }
+
+    @Test
+    void expire() {
+        tracking.values.put("key", "1");
+        response(":1\r\n");
+        redis.expire("key", Duration.ZERO);
+
+        assertThat(tracking.values).isEmpty();
+    }
+
+    @Test
+    void pipelineSet() {
+        tracking.values.put("key", "1");
+        response("+OK\r\n");
+        var pipeline = redis.pipeline();
+        pipeline.set("key", "2", null);
+        pipeline.execute();
+
+        assertThat(tracking.values).isEmpty();
+    }
+
+    @Test
+    void eval() {
+        tracking.values.put("key", "1");
+        response(":1\r\n");
+        redis.eval(new RedisScript("return redis.call('INCR', KEYS[1])"), List.of("key"));
+
+        assertThat(tracking.values).isEmpty();
+    }
+}
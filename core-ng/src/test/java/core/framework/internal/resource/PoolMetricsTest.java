@@ -34,6 +34,14 @@ class PoolMetricsTest {
 
         assertThat(stats.stats)
                 .containsEntry("pool_test_active_count", 1.0d)
-                .containsEntry("pool_test_total_count", 2.0d);
+                .containsEntry("pool_test_total_count", 2.0d)
+                .containsEntry("pool_test_checkout_timeouts", 0.0d)
+                .containsEntry("pool_test_create_failures", 0.0d)
+                .containsKeys("pool_test_checkout_wait_p50", "pool_test_checkout_wait_p99", "pool_test_checkout_wait_max");
+        assertThat(stats.stats.get("pool_test_checkout_wait_max")).isGreaterThan(0);
+
+        stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats).containsEntry("pool_test_checkout_wait_max", 0.0d);
     }
 }
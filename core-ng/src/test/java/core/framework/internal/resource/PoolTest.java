@@ -6,8 +6,10 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
 
 /**
@@ -114,6 +116,64 @@ class PoolTest {
         pool.size(0, 0);
         PoolException exception = catchThrowableOfType(PoolException.class, pool::borrowItem);
         assertThat(exception.errorCode()).isEqualTo("POOL_TIME_OUT");
+        assertThat(pool.timeouts.get()).isEqualTo(1);
+        assertThat(pool.waiters).isEmpty();
+    }
+
+    @Test
+    void borrowWithCreateFailure() {
+        pool = new Pool<>(() -> {
+            throw new IllegalStateException("failed to connect");
+        }, "pool");
+
+        assertThatThrownBy(pool::borrowItem)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("failed to connect");
+        assertThat(pool.size.get()).isZero();
+        assertThat(pool.createFailures.get()).isEqualTo(1);
+        assertThat(pool.waiters).isEmpty();
+    }
+
+    @Test
+    void handOverReturnedItemToWaiter() throws Exception {
+        pool.size(1, 1);
+        pool.checkoutTimeout(Duration.ofSeconds(10));
+        PoolItem<TestPoolResource> item = pool.borrowItem();
+
+        var waiter = Thread.ofVirtual().start(() -> assertThat(pool.borrowItem()).isSameAs(item));
+        while (pool.waiters.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        pool.returnItem(item);
+        waiter.join();
+
+        assertThat(pool.idleItems).isEmpty();
+        assertThat(pool.waiters).isEmpty();
+    }
+
+    @Test
+    void borrowConcurrently() throws Exception {
+        pool.size(1, 4);
+        pool.checkoutTimeout(Duration.ofSeconds(10));
+        var borrowed = new AtomicInteger();
+        List<Thread> threads = Lists.newArrayList();
+        for (int i = 0; i < 32; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int j = 0; j < 100; j++) {
+                    PoolItem<TestPoolResource> item = pool.borrowItem();
+                    borrowed.incrementAndGet();
+                    pool.returnItem(item);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(borrowed.get()).isEqualTo(3200);
+        assertThat(pool.size.get()).isLessThanOrEqualTo(4);
+        assertThat(pool.idleItems).hasSize(pool.size.get());
+        assertThat(pool.waiters).isEmpty();
     }
 
     @Test
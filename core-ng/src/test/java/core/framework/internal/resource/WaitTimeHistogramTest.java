@@ -0,0 +1,52 @@
+package core.framework.internal.resource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class WaitTimeHistogramTest {
+    private WaitTimeHistogram histogram;
+
+    @BeforeEach
+    void createWaitTimeHistogram() {
+        histogram = new WaitTimeHistogram();
+    }
+
+    @Test
+    void index() {
+        assertThat(WaitTimeHistogram.index(0)).isZero();
+        assertThat(WaitTimeHistogram.index(7)).isEqualTo(7);
+        assertThat(WaitTimeHistogram.index(8)).isEqualTo(8);
+        assertThat(WaitTimeHistogram.index(16)).isEqualTo(16);
+        assertThat(WaitTimeHistogram.index(17)).isEqualTo(16);
+        assertThat(WaitTimeHistogram.index(Long.MAX_VALUE)).isEqualTo(487);
+    }
+
+    @Test
+    void value() {
+        for (long value : new long[]{0, 7, 8, 15, 16, 1000, 1_000_000, 30_000_000_000L}) {
+            long bucketValue = WaitTimeHistogram.value(WaitTimeHistogram.index(value));
+            assertThat(bucketValue).isGreaterThanOrEqualTo(value).isLessThanOrEqualTo((long) (value * 1.125) + 1);
+        }
+        assertThat(WaitTimeHistogram.value(487)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void percentile() {
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+        long[] snapshot = histogram.snapshot();
+        assertThat(WaitTimeHistogram.percentile(snapshot, 0.5)).isBetween(50_000L, 56_250L);
+        assertThat(WaitTimeHistogram.percentile(snapshot, 0.99)).isBetween(99_000L, 111_375L);
+        assertThat(WaitTimeHistogram.max(snapshot)).isBetween(100_000L, 112_500L);
+
+        snapshot = histogram.snapshot();
+        assertThat(WaitTimeHistogram.percentile(snapshot, 0.99)).isZero();
+        assertThat(WaitTimeHistogram.max(snapshot)).isZero();
+    }
+}
@@ -44,6 +44,23 @@ class LocalSessionStoreTest {
         assertThat(values).isNull();
     }
 
+    @Test
+    void refresh() {
+        Instant expirationTime = Instant.now().plus(Duration.ofSeconds(10));
+        localSessionStore.values.put("sessionId", sessionValue(expirationTime, Map.of()));
+
+        localSessionStore.refresh("sessionId", null, Duration.ofMinutes(30));
+        assertThat(localSessionStore.values.get("sessionId").expirationTime).isAfter(expirationTime);
+    }
+
+    @Test
+    void refreshWithExpiredSession() {
+        localSessionStore.values.put("sessionId", sessionValue(Instant.now().minus(Duration.ofSeconds(30)), Map.of()));
+
+        localSessionStore.refresh("sessionId", null, Duration.ofMinutes(30));
+        assertThat(localSessionStore.values).doesNotContainKey("sessionId");
+    }
+
     @Test
     void save() {
         localSessionStore.save("sessionId", null, Map.of("key", "value"), Set.of(), Duration.ofSeconds(30));
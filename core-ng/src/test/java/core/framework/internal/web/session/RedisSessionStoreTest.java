@@ -3,6 +3,7 @@ package core.framework.internal.web.session;
 import core.framework.internal.redis.RedisException;
 import core.framework.redis.Redis;
 import core.framework.redis.RedisHash;
+import core.framework.redis.RedisSortedSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,12 +13,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,7 +39,9 @@ class RedisSessionStoreTest {
     @Mock
     Redis redis;
     @Mock
-    RedisHash redisHash;
+    RedisSortedSet sortedSet;
+    @Mock
+    RedisHash hash;
     private RedisSessionStore store;
 
     @BeforeEach
@@ -48,8 +60,7 @@ class RedisSessionStoreTest {
     @Test
     void getAndRefreshWithRedisDown() {
         // redis shutdown in the middle
-        when(redis.hash()).thenReturn(redisHash);
-        when(redisHash.getAll(anyString())).thenThrow(new UncheckedIOException(new IOException("unexpected end of stream")));
+        when(redis.eval(eq(RedisSessionStore.GET_AND_REFRESH), anyList(), any(Object[].class))).thenThrow(new UncheckedIOException(new IOException("unexpected end of stream")));
 
         assertThatThrownBy(() -> store.getAndRefresh("sessionId", "localhost", Duration.ofMinutes(30)))
             .isInstanceOf(UncheckedIOException.class);
@@ -58,32 +69,122 @@ class RedisSessionStoreTest {
     @Test
     void getAndRefreshWithInvalidRedisData() {
         // session value in redis is invalid
-        when(redis.hash()).thenReturn(redisHash);
-        when(redisHash.getAll(anyString())).thenThrow(new RedisException("WRONGTYPE Operation against a key holding the wrong kind of value"));
+        when(redis.eval(eq(RedisSessionStore.GET_AND_REFRESH), anyList(), any(Object[].class))).thenThrow(new RedisException("WRONGTYPE Operation against a key holding the wrong kind of value"));
         assertThat(store.getAndRefresh("sessionId", "localhost", Duration.ofMinutes(30))).isNull();
     }
 
     @Test
     void getAndRefresh() {
-        var timeout = Duration.ofSeconds(30);
-        var values = Map.of("USER_ID", "1");
+        String key = store.sessionKey("sessionId", "localhost");
+        when(redis.eval(RedisSessionStore.GET_AND_REFRESH, List.of(key), 30_000L, 27_000L)).thenReturn(List.of("0", "USER_ID", "1"));
+
+        Map<String, String> values = store.getAndRefresh("sessionId", "localhost", Duration.ofSeconds(30));
+        assertThat(values).containsExactly(entry("USER_ID", "1"));
+    }
+
+    @Test
+    void getAndRefreshWithIndex() {
+        store.index("USER_ID");
+        String key = store.sessionKey("sessionId", "localhost");
+        when(redis.eval(RedisSessionStore.GET_AND_REFRESH, List.of(key), 30_000L, 27_000L)).thenReturn(List.of("1", "USER_ID", "1"));
+
+        store.getAndRefresh("sessionId", "localhost", Duration.ofSeconds(30));
+        verifyIndexed("session-index:USER_ID:1", key);
+    }
+
+    @Test
+    void getAndRefreshWithIndexNotRefreshed() {
+        store.index("USER_ID");
+        String key = store.sessionKey("sessionId", "localhost");
+        when(redis.eval(RedisSessionStore.GET_AND_REFRESH, List.of(key), 30_000L, 27_000L)).thenReturn(List.of("0", "USER_ID", "1"));
 
-        when(redis.hash()).thenReturn(redisHash);
-        when(redisHash.getAll(anyString())).thenReturn(values);
+        store.getAndRefresh("sessionId", "localhost", Duration.ofSeconds(30));
+        verify(redis, never()).eval(eq(RedisSessionStore.INDEX), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void getAndRefreshWithNotExistedSession() {
+        when(redis.eval(eq(RedisSessionStore.GET_AND_REFRESH), anyList(), any(Object[].class))).thenReturn(List.of());
+
+        assertThat(store.getAndRefresh("sessionId", "localhost", Duration.ofSeconds(30))).isNull();
+    }
+
+    @Test
+    void refresh() {
+        String key = store.sessionKey("sessionId", "localhost");
+        store.refresh("sessionId", "localhost", Duration.ofSeconds(30));
+
+        verify(redis).eval(RedisSessionStore.REFRESH, List.of(key), 30_000L, 27_000L);
+    }
 
-        store.getAndRefresh("sessionId", "localhost", timeout);
+    @Test
+    void refreshWithIndex() {
+        store.index("USER_ID");
+        String key = store.sessionKey("sessionId", "localhost");
+        when(redis.eval(RedisSessionStore.REFRESH, List.of(key), 30_000L, 27_000L, "USER_ID")).thenReturn(List.of("1"));
 
-        verify(redis).expire(anyString(), eq(timeout));
+        store.refresh("sessionId", "localhost", Duration.ofSeconds(30));
+        verifyIndexed("session-index:USER_ID:1", key);
     }
 
     @Test
     void save() {
-        when(redis.hash()).thenReturn(redisHash);
-        var timeout = Duration.ofSeconds(30);
-        var values = Map.of("USER_ID", "1");
-        store.save("sessionId", "localhost", values, values.keySet(), timeout);
+        String key = store.sessionKey("sessionId", "localhost");
+        Map<String, String> values = new HashMap<>();
+        values.put("USER_ID", "1");
+        store.save("sessionId", "localhost", values, new LinkedHashSet<>(List.of("USER_ID", "ROLE")), Duration.ofSeconds(30));
+
+        verify(redis).eval(RedisSessionStore.SAVE, List.of(key), 30_000L, 27_000L, 1, "ROLE", "USER_ID", "1");
+    }
+
+    @Test
+    void saveWithIndex() {
+        store.index("USER_ID");
+        String key = store.sessionKey("sessionId", "localhost");
+        when(redis.eval(RedisSessionStore.SAVE, List.of(key), 30_000L, 27_000L, 0, "USER_ID", "1")).thenReturn(0L);
+        store.save("sessionId", "localhost", Map.of("USER_ID", "1"), Set.of("USER_ID"), Duration.ofSeconds(30));
+
+        verifyIndexed("session-index:USER_ID:1", key);
+    }
+
+    @Test
+    void saveWithIndexNotChanged() {
+        store.index("USER_ID");
+        String key = store.sessionKey("sessionId", "localhost");
+        when(redis.eval(RedisSessionStore.SAVE, List.of(key), 30_000L, 27_000L, 0, "ROLE", "admin")).thenReturn(0L);
+        store.save("sessionId", "localhost", Map.of("USER_ID", "1", "ROLE", "admin"), Set.of("ROLE"), Duration.ofSeconds(30));
+        verify(redis, never()).eval(eq(RedisSessionStore.INDEX), anyList(), any(Object[].class));
+
+        when(redis.eval(RedisSessionStore.SAVE, List.of(key), 30_000L, 27_000L, 0, "ROLE", "admin")).thenReturn(1L);
+        store.save("sessionId", "localhost", Map.of("USER_ID", "1", "ROLE", "admin"), Set.of("ROLE"), Duration.ofSeconds(30));   // index is updated along with refreshed expiration
+        verifyIndexed("session-index:USER_ID:1", key);
+    }
+
+    @Test
+    void index() {
+        store.index("USER_ID");
+        assertThatThrownBy(() -> store.index("USER_ID"))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("field is already indexed");
+    }
+
+    private void verifyIndexed(String indexKey, String sessionKey) {
+        verify(redis).eval(eq(RedisSessionStore.INDEX), eq(List.of(indexKey)), anyLong(), eq(sessionKey), anyLong(), eq(30_000L));
+    }
+
+    @Test
+    void invalidateByIndexedKey() {
+        store.index("USER_ID");
+        when(redis.sortedSet()).thenReturn(sortedSet);
+        when(redis.hash()).thenReturn(hash);
+        when(sortedSet.range("session-index:USER_ID:1")).thenReturn(Map.of("session:1", 1L, "session:2", 1L));
+        when(hash.get("session:1", "USER_ID")).thenReturn("1");
+        when(hash.get("session:2", "USER_ID")).thenReturn("2");     // value changed after indexed
+        store.invalidateByKey("USER_ID", "1");
 
-        verify(redisHash).multiSet(anyString(), eq(values));
-        verify(redis).expire(anyString(), eq(timeout));
+        verify(redis).del("session:1");
+        verify(redis, never()).del("session:2");
+        verify(sortedSet).remove(eq("session-index:USER_ID:1"), any(String[].class));
+        verify(redis, never()).forEach(anyString(), any());
     }
 }
@@ -3,6 +3,8 @@ package core.framework.internal.web.session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -42,4 +44,19 @@ class SessionImplTest {
         session.id("sessionId");
         assertThat(session.hash).isNotNull();
     }
+
+    @Test
+    void load() {
+        var loads = new AtomicInteger();
+        session.loader = () -> {
+            loads.incrementAndGet();
+            session.values.put("key", "value");
+        };
+        assertThat(loads.get()).isZero();
+
+        assertThat(session.get("key")).hasValue("value");
+        session.set("key", "value2");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(session.changedFields).containsOnly("key");
+    }
 }
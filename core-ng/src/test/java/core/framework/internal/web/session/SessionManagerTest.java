@@ -20,8 +20,12 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -60,6 +64,69 @@ class SessionManagerTest {
         assertThat(session).isNotNull();
         assertThat(session.get("key")).isNotNull().hasValue("value");
         assertThat(actionLog.context.get("session_hash")).isNotEmpty();
+        assertThat(actionLog.stats).containsEntry("session_loads", 1d);
+    }
+
+    @Test
+    void loadLazily() {
+        var store = mock(SessionStore.class);
+        sessionManager = new SessionManager();
+        sessionManager.header("SessionId");
+        sessionManager.store(store);
+        ActionLog actionLog = new ActionLog(null, null);
+
+        when(request.scheme()).thenReturn("https");
+        when(request.hostname()).thenReturn("localhost");
+        when(request.header("SessionId")).thenReturn(Optional.of("sessionId"));
+
+        Session session = sessionManager.load(request, actionLog);
+        assertThat(session).isNotNull();
+        assertThat(actionLog.stats).containsEntry("session_loads", 0d);
+        verifyNoInteractions(store);
+
+        when(store.getAndRefresh(eq("sessionId"), eq("localhost"), any())).thenReturn(null);
+        assertThat(session.get("key")).isEmpty();
+        assertThat(session.get("key")).isEmpty();
+        verify(store, times(1)).getAndRefresh(eq("sessionId"), eq("localhost"), any());
+        assertThat(actionLog.stats).containsEntry("session_loads", 1d);
+        assertThat(actionLog.context).doesNotContainKey("session_hash");
+    }
+
+    @Test
+    void saveWithoutLoading() {
+        var store = mock(SessionStore.class);
+        sessionManager = new SessionManager();
+        sessionManager.header("SessionId");
+        sessionManager.store(store);
+        ActionLog actionLog = new ActionLog(null, null);
+
+        var request = mock(RequestImpl.class);
+        when(request.scheme()).thenReturn("https");
+        when(request.hostname()).thenReturn("localhost");
+        when(request.header("SessionId")).thenReturn(Optional.of("sessionId"));
+        request.session = sessionManager.load(request, actionLog);
+        sessionManager.save(request, response, actionLog);
+
+        verify(store).refresh(eq("sessionId"), eq("localhost"), any());
+        verify(store, never()).getAndRefresh(anyString(), anyString(), any());
+        assertThat(actionLog.stats).containsEntry("session_loads", 0d).containsEntry("session_refreshes", 1d);
+        verifyNoInteractions(response);
+    }
+
+    @Test
+    void loadReadOnlySession() {
+        var store = mock(SessionStore.class);
+        sessionManager = new SessionManager();
+        sessionManager.header("SessionId");
+        sessionManager.store(store);
+
+        when(request.scheme()).thenReturn("https");
+        when(request.hostname()).thenReturn("localhost");
+        when(request.header("SessionId")).thenReturn(Optional.of("sessionId"));
+        when(store.getAndRefresh(eq("sessionId"), eq("localhost"), any())).thenReturn(Map.of("key", "value"));
+
+        ReadOnlySession.of(sessionManager.load(request, new ActionLog(null, null)));
+        verify(store).getAndRefresh(eq("sessionId"), eq("localhost"), any());
     }
 
     @Test
@@ -2,7 +2,9 @@ package core.framework.module;
 
 import core.framework.internal.cache.CacheImpl;
 import core.framework.internal.cache.LocalCacheStore;
+import core.framework.internal.cache.OffHeapCacheStore;
 import core.framework.internal.cache.RedisCacheStore;
+import core.framework.internal.cache.RedisLocalCacheStore;
 import core.framework.internal.cache.TestCache;
 import core.framework.internal.module.ModuleContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -69,6 +71,27 @@ class CacheConfigTest {
         assertThat(cache.cacheStore).isInstanceOf(LocalCacheStore.class);
     }
 
+    @Test
+    void addWithNearCache() {
+        config.redis("localhost");
+
+        CacheStoreConfig cacheStoreConfig = config.add(TestCache.class, Duration.ofHours(1));
+        CacheImpl<?> cache = config.caches.get("testcache");
+
+        cacheStoreConfig.nearCache();
+        assertThat(cache.cacheStore).isInstanceOf(RedisLocalCacheStore.class);
+    }
+
+    @Test
+    void multiplexRedis() {
+        assertThatThrownBy(() -> config.multiplexRedis(2))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("redis cache store is not configured");
+
+        config.redis("localhost");
+        config.multiplexRedis(2);
+    }
+
     @Test
     void cacheName() {
         assertThat(config.cacheName(TestCache.class))
@@ -86,4 +109,28 @@ class CacheConfigTest {
             .isInstanceOf(Error.class)
             .hasMessageContaining("found duplicate cache name");
     }
+
+    @Test
+    void addWithOffHeap() {
+        config.redis("localhost");
+        config.maxOffHeapSize(1024 * 1024);
+
+        CacheStoreConfig cacheStoreConfig = config.add(TestCache.class, Duration.ofHours(1));
+        CacheImpl<?> cache = config.caches.get("testcache");
+        cacheStoreConfig.offHeap();
+        assertThat(cache.cacheStore).isInstanceOf(OffHeapCacheStore.class);
+
+        config.validate();
+        assertThat(((OffHeapCacheStore) cache.cacheStore).maxSize).isEqualTo(1024 * 1024);
+    }
+
+    @Test
+    void addWithLocalAndOffHeap() {
+        config.local();
+
+        CacheStoreConfig cacheStoreConfig = config.add(TestCache.class, Duration.ofHours(1));
+        CacheImpl<?> cache = config.caches.get("testcache");
+        cacheStoreConfig.offHeap();
+        assertThat(cache.cacheStore).isInstanceOf(LocalCacheStore.class);
+    }
 }
@@ -14,11 +14,13 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
  */
 class DBConfigTest {
     private DBConfig config;
+    private ModuleContext context;
 
     @BeforeEach
     void createDBConfig() {
         config = new DBConfig();
-        config.initialize(new ModuleContext(null), null);
+        context = new ModuleContext(null);
+        config.initialize(context, null);
     }
 
     @Test
@@ -31,6 +33,17 @@ class DBConfigTest {
             .hasMessageContaining("db is configured but no repository/view added");
     }
 
+    @Test
+    void replica() {
+        assertThatThrownBy(() -> config.replica("jdbc:hsqldb:mem:replica"))
+            .hasMessageContaining("db url must be configured first");
+
+        config.url("jdbc:hsqldb:mem:.");
+        int metrics = context.collector.metrics.size();
+        config.replica("jdbc:hsqldb:mem:replica");
+        assertThat(context.collector.metrics).hasSize(metrics + 1);
+    }
+
     @Test
     void provider() {
         assertThat(config.provider("iam/azure/some-service"))
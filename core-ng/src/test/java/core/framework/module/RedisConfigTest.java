@@ -1,6 +1,7 @@
 package core.framework.module;
 
 import core.framework.internal.module.ModuleContext;
+import core.framework.redis.RedisScript;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -32,8 +33,62 @@ class RedisConfigTest {
         config.host("localhost");
         config.poolSize(0, 0);
         config.timeout(Duration.ofSeconds(5));
+        config.multiplex(2);
         assertThat(config.client()).isNotNull();
 
         config.validate();
     }
+
+    @Test
+    void cluster() {
+        config.cluster("localhost:7000", "localhost:7001");
+        config.poolSize(1, 10);
+        config.validate();
+
+        assertThatThrownBy(() -> config.multiplex(2))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("redis cluster does not support multiplexed connections");
+        assertThatThrownBy(() -> config.clientSideCache(100))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("client side caching does not support redis cluster");
+    }
+
+    @Test
+    void multiplex() {
+        assertThatThrownBy(() -> config.multiplex(0))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("connections must be greater than 0");
+    }
+
+    @Test
+    void subscribe() {
+        config.subscribe("channel", (channel, message) -> {
+        });
+
+        assertThatThrownBy(() -> config.subscribe("channel", (channel, message) -> {
+        })).isInstanceOf(Error.class)
+            .hasMessageContaining("found duplicate channel");
+    }
+
+    @Test
+    void consume() {
+        config.consume("stream", (id, fields) -> {
+        });
+        config.consume("bulkStream", messages -> {
+        });
+        config.streamGroup("group");
+
+        assertThatThrownBy(() -> config.consume("stream", (id, fields) -> {
+        })).isInstanceOf(Error.class)
+            .hasMessageContaining("found duplicate stream");
+        assertThatThrownBy(() -> config.streamConcurrency(0))
+            .isInstanceOf(Error.class)
+            .hasMessageContaining("concurrency must be greater than 0");
+    }
+
+    @Test
+    void script() {
+        config.script(new RedisScript("return 1"));
+        config.script(new RedisScript("return 2"));
+    }
 }
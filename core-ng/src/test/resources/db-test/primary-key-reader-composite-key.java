@@ -0,0 +1,7 @@
+public class PrimaryKeyReader$CompositeKeyEntity implements core.framework.internal.db.PrimaryKeyReader {
+    public Object primaryKey(Object value) {
+        core.framework.internal.db.CompositeKeyEntity entity = (core.framework.internal.db.CompositeKeyEntity) value;
+        return java.util.Arrays.asList(new Object[]{entity.id1, entity.id2});
+    }
+
+}
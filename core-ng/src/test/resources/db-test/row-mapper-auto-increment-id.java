@@ -1,15 +1,26 @@
 public class RowMapper$AutoIncrementIdEntity implements core.framework.internal.db.RowMapper {
+    private final String[] columns;
+
     private final core.framework.internal.db.DBEnumMapper enumFieldMappings = new core.framework.internal.db.DBEnumMapper(core.framework.internal.db.TestEnum.class);
 
+    public RowMapper$AutoIncrementIdEntity(java.lang.String[] $1) {
+        this.columns = $1;
+    }
+
     public Object map(core.framework.internal.db.ResultSetWrapper resultSet) {
         core.framework.internal.db.AutoIncrementIdEntity entity = new core.framework.internal.db.AutoIncrementIdEntity();
-        entity.id = resultSet.getInt("id");
-        entity.stringField = resultSet.getString("string_field");
-        entity.doubleField = resultSet.getDouble("double_field");
-        entity.enumField = (core.framework.internal.db.TestEnum)enumFieldMappings.getEnum(resultSet.getString("enum_field"));
-        entity.dateTimeField = resultSet.getLocalDateTime("date_time_field");
-        entity.zonedDateTimeField = resultSet.getZonedDateTime("zoned_date_time_field");
+        int[] indexes = resultSet.columnIndexes;
+        entity.id = resultSet.getInt(indexes[0]);
+        entity.stringField = resultSet.getString(indexes[1]);
+        entity.doubleField = resultSet.getDouble(indexes[2]);
+        entity.enumField = (core.framework.internal.db.TestEnum)enumFieldMappings.getEnum(resultSet.getString(indexes[3]));
+        entity.dateTimeField = resultSet.getLocalDateTime(indexes[4]);
+        entity.zonedDateTimeField = resultSet.getZonedDateTime(indexes[5]);
         return entity;
     }
 
+    public String[] columns() {
+        return columns;
+    }
+
 }